@@ -1,22 +1,42 @@
 package iabudiab.maven.plugins.dependencytrack;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import iabudiab.maven.plugins.dependencytrack.dtrack.DTrack;
 import iabudiab.maven.plugins.dependencytrack.dtrack.DTrackException;
 import iabudiab.maven.plugins.dependencytrack.suppressions.Suppressions;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Parameter;
 
+import iabudiab.maven.plugins.dependencytrack.client.BomProcessedWebhook;
+import iabudiab.maven.plugins.dependencytrack.client.ConnectionPoolConfig;
 import iabudiab.maven.plugins.dependencytrack.client.DTrackClient;
+import iabudiab.maven.plugins.dependencytrack.client.HedgingPolicy;
+import iabudiab.maven.plugins.dependencytrack.client.PollingPolicy;
+import iabudiab.maven.plugins.dependencytrack.client.ProcessingTimeHistory;
+import iabudiab.maven.plugins.dependencytrack.client.RequestTimeouts;
+import iabudiab.maven.plugins.dependencytrack.client.ServerCapabilitiesCache;
+import iabudiab.maven.plugins.dependencytrack.client.transport.AdaptiveConcurrencyLimiter;
+import iabudiab.maven.plugins.dependencytrack.client.transport.Deadline;
+import iabudiab.maven.plugins.dependencytrack.client.transport.FileTokenBucketRateLimiter;
+import iabudiab.maven.plugins.dependencytrack.client.transport.HttpTransportType;
+import iabudiab.maven.plugins.dependencytrack.client.transport.JdkHttpTransport;
+import iabudiab.maven.plugins.dependencytrack.client.transport.LatencyHistograms;
+import iabudiab.maven.plugins.dependencytrack.client.transport.RateLimiter;
+import iabudiab.maven.plugins.dependencytrack.client.transport.ResponseCache;
+import iabudiab.maven.plugins.dependencytrack.client.transport.TokenBucketRateLimiter;
 
 /**
  * Base class for all <a href=
@@ -28,12 +48,23 @@ import iabudiab.maven.plugins.dependencytrack.client.DTrackClient;
  */
 public abstract class AbstractDependencyTrackMojo extends AbstractMojo {
 
+	@Parameter(defaultValue = "${session}", readonly = true, required = true)
+	private MavenSession session;
+
 	/**
 	 * The URL of the Dependency-Track Server
 	 */
 	@Parameter(property = "dependencyTrackUrl", required = true)
 	private String dependencyTrackUrl;
 
+	/**
+	 * URLs of equivalent replicas of the Dependency-Track server, e.g. further frontends of the same installation.
+	 * Requests are routed to the healthiest of the replicas and the <code>dependencyTrackUrl</code>, based on their
+	 * recent latency and error rate, and idempotent requests fail over to the next healthiest one.
+	 */
+	@Parameter(property = "dependencyTrackReplicaUrls", required = false)
+	private List<String> dependencyTrackReplicaUrls;
+
 	/**
 	 * An API key for Dependency-Track.
 	 *
@@ -88,6 +119,256 @@ public abstract class AbstractDependencyTrackMojo extends AbstractMojo {
 	@Parameter(property = "skip", defaultValue = "false", required = false)
 	private boolean skip;
 
+	/**
+	 * Number of findings fetched per page. Set to <code>0</code> to fetch all findings with a single request.
+	 */
+	@Parameter(property = "findingsPageSize", defaultValue = "1000", required = false)
+	private int findingsPageSize;
+
+	/**
+	 * Maximum number of findings pages fetched concurrently.
+	 */
+	@Parameter(property = "findingsFetchParallelism", defaultValue = "4", required = false)
+	private int findingsFetchParallelism;
+
+	/**
+	 * Maximum number of pooled HTTP connections in total.
+	 *
+	 * The connection pool is shared by all executions of this plugin in the same Maven session.
+	 */
+	@Parameter(property = "connectionPoolMaxTotal", defaultValue = "20", required = false)
+	private int connectionPoolMaxTotal;
+
+	/**
+	 * Maximum number of pooled HTTP connections per Dependency-Track server.
+	 */
+	@Parameter(property = "connectionPoolMaxPerRoute", defaultValue = "10", required = false)
+	private int connectionPoolMaxPerRoute;
+
+	/**
+	 * Idle time in seconds after which pooled HTTP connections are evicted.
+	 */
+	@Parameter(property = "connectionIdleTimeout", defaultValue = "30", required = false)
+	private int connectionIdleTimeout;
+
+	/**
+	 * Keep-alive duration in seconds for pooled HTTP connections, if the server doesn't specify one.
+	 */
+	@Parameter(property = "connectionKeepAlive", defaultValue = "60", required = false)
+	private int connectionKeepAlive;
+
+	/**
+	 * The HTTP transport: <code>APACHE</code> for pooled HTTP/1.1 connections, or <code>JDK</code> for the JDK's
+	 * HTTP client, which multiplexes concurrent requests over a single HTTP/2 connection. <code>JDK</code>
+	 * requires Java 11 or newer and fails the execution otherwise.
+	 */
+	@Parameter(property = "httpTransport", defaultValue = "APACHE", required = false)
+	private HttpTransportType httpTransport;
+
+	/**
+	 * Whether GET responses with an <code>ETag</code> or <code>Last-Modified</code> validator are cached on disk
+	 * and revalidated by conditional requests, instead of being downloaded again on every build.
+	 */
+	@Parameter(property = "responseCache", defaultValue = "false", required = false)
+	private boolean responseCache;
+
+	/**
+	 * Directory of the response cache. It can be shared by concurrent builds on the same machine.
+	 */
+	@Parameter(property = "responseCacheDirectory", defaultValue = "${user.home}/.m2/dependency-track/cache", required = false)
+	private File responseCacheDirectory;
+
+	/**
+	 * Maximum size of the response cache in megabytes. The least recently used responses are evicted first.
+	 */
+	@Parameter(property = "responseCacheMaxSize", defaultValue = "100", required = false)
+	private long responseCacheMaxSize;
+
+	/**
+	 * Maximum sustained rate of requests per second to Dependency-Track. Set to <code>0</code> to disable rate limiting.
+	 *
+	 * The limit is shared by all executions of this plugin in the same Maven session.
+	 */
+	@Parameter(property = "rateLimit", defaultValue = "0", required = false)
+	private double rateLimit;
+
+	/**
+	 * Number of requests, that may be sent at once without waiting, after being idle.
+	 */
+	@Parameter(property = "rateLimitBurst", defaultValue = "10", required = false)
+	private int rateLimitBurst;
+
+	/**
+	 * Optional state file, which shares the rate limit between all builds on the same machine using the same file.
+	 */
+	@Parameter(property = "rateLimitStateFile", required = false)
+	private File rateLimitStateFile;
+
+	/**
+	 * Whether the number of concurrent requests adapts to the server's load. The limit grows while latencies stay
+	 * flat and shrinks on <code>429</code> or <code>503</code> responses, timeouts and rising latencies.
+	 */
+	@Parameter(property = "adaptiveConcurrency", defaultValue = "false", required = false)
+	private boolean adaptiveConcurrency;
+
+	/**
+	 * Upper bound of the adaptive concurrency limit.
+	 */
+	@Parameter(property = "adaptiveConcurrencyMaxLimit", defaultValue = "10", required = false)
+	private int adaptiveConcurrencyMaxLimit;
+
+	/**
+	 * Whether slow idempotent requests are hedged, i.e. an identical request is sent, if there is no response
+	 * after the hedge delay. The first response wins, the other request is cancelled.
+	 */
+	@Parameter(property = "hedgeRequests", defaultValue = "false", required = false)
+	private boolean hedgeRequests;
+
+	/**
+	 * Fixed hedge delay in milliseconds. If <code>0</code>, the delay is the <code>hedgeLatencyPercentile</code>
+	 * of the recent latencies of the request's endpoint.
+	 */
+	@Parameter(property = "hedgeDelay", defaultValue = "0", required = false)
+	private long hedgeDelay;
+
+	/**
+	 * Percentile of recent latencies used as hedge delay, if no fixed <code>hedgeDelay</code> is set.
+	 */
+	@Parameter(property = "hedgeLatencyPercentile", defaultValue = "95", required = false)
+	private double hedgeLatencyPercentile;
+
+	/**
+	 * Hours, for which the probed version of a Dependency-Track server is cached, before it is probed again. The
+	 * version selects the most efficient endpoint per operation. If <code>0</code>, the server isn't probed and only
+	 * endpoints, that all supported server versions understand, are used.
+	 */
+	@Parameter(property = "serverCapabilitiesTtl", defaultValue = "0", required = false)
+	private int serverCapabilitiesTtl;
+
+	/**
+	 * Directory of the cached server versions.
+	 */
+	@Parameter(property = "serverCapabilitiesDirectory", defaultValue = "${user.home}/.m2/dependency-track/capabilities", required = false)
+	private File serverCapabilitiesDirectory;
+
+	/**
+	 * Wall-clock budget in seconds for the whole goal, shared by all its requests, waits and polls. Each request's
+	 * timeout is shortened to the remaining budget. Set to <code>0</code> for no deadline.
+	 */
+	@Parameter(property = "deadline", defaultValue = "0", required = false)
+	private int deadline;
+
+	/**
+	 * Seconds of the deadline, that have to remain for optional steps, e.g. applying a parent project or uploading
+	 * matching suppressions, to run. Otherwise they are skipped to leave the budget to the required steps.
+	 */
+	@Parameter(property = "deadlineReserve", defaultValue = "10", required = false)
+	private int deadlineReserve;
+
+	/**
+	 * Timeout in seconds of small and quick requests, e.g. token polls.
+	 */
+	@Parameter(property = "pollTimeout", defaultValue = "10", required = false)
+	private int pollTimeout;
+
+	/**
+	 * Timeout in seconds of requests for or updates of metadata, e.g. project lookups and metrics.
+	 */
+	@Parameter(property = "requestTimeout", defaultValue = "30", required = false)
+	private int requestTimeout;
+
+	/**
+	 * Timeout in seconds of transfers, i.e. BOM and scan uploads, BOM downloads and unpaged findings.
+	 */
+	@Parameter(property = "transferTimeout", defaultValue = "300", required = false)
+	private int transferTimeout;
+
+	/**
+	 * Whether the timeouts of polls and metadata requests adapt to the observed latencies of each endpoint. Once
+	 * an endpoint has enough samples, its timeout is three times the 99th percentile of its latencies, at least one
+	 * second and at most the configured timeout.
+	 */
+	@Parameter(property = "adaptiveTimeouts", defaultValue = "false", required = false)
+	private boolean adaptiveTimeouts;
+
+	/**
+	 * File, in which the latencies of adaptive timeouts are kept between builds.
+	 */
+	@Parameter(property = "adaptiveTimeoutsFile", defaultValue = "${user.home}/.m2/dependency-track/latencies.json", required = false)
+	private File adaptiveTimeoutsFile;
+
+	/**
+	 * Delay in milliseconds between the first, immediate check of a BOM token and the second one. Further checks
+	 * back off exponentially with jitter up to <code>tokenPollingMaxDelay</code>.
+	 */
+	@Parameter(property = "tokenPollingDelay", defaultValue = "500", required = false)
+	private long tokenPollingDelay;
+
+	/**
+	 * Maximum delay in milliseconds between two checks of a BOM token.
+	 */
+	@Parameter(property = "tokenPollingMaxDelay", defaultValue = "10000", required = false)
+	private long tokenPollingMaxDelay;
+
+	/**
+	 * Whether the first check of a BOM token is delayed by the predicted processing time of the BOM, based on the
+	 * processing times of earlier BOMs of similar size on the same server.
+	 */
+	@Parameter(property = "predictiveTokenPolling", defaultValue = "false", required = false)
+	private boolean predictiveTokenPolling;
+
+	/**
+	 * File of the processing times of earlier BOMs, which can be shared by concurrent builds on the same machine.
+	 */
+	@Parameter(property = "tokenPollingHistoryFile", defaultValue = "${user.home}/.m2/dependency-track/processing-times.json", required = false)
+	private File tokenPollingHistoryFile;
+
+	/**
+	 * Whether goals, that wait for a BOM to be processed, listen for the <code>BOM_PROCESSED</code> notification of
+	 * an outbound webhook of Dependency-Track, instead of polling its token. The webhook has to be configured in
+	 * Dependency-Track with the URL of the listener, i.e. <code>http://&lt;host&gt;:&lt;webhookPort&gt;&lt;webhookPath&gt;</code>,
+	 * and the <code>BOM_PROCESSED</code> and <code>BOM_PROCESSING_FAILED</code> groups.
+	 */
+	@Parameter(property = "webhook", defaultValue = "false", required = false)
+	private boolean webhook;
+
+	/**
+	 * Address, that the webhook listener binds to. The default only accepts notifications of a Dependency-Track
+	 * server on the same machine, <code>0.0.0.0</code> accepts them on all interfaces, which should be combined
+	 * with a <code>webhookSecret</code>.
+	 */
+	@Parameter(property = "webhookHost", defaultValue = "127.0.0.1", required = false)
+	private String webhookHost;
+
+	/**
+	 * Port of the webhook listener.
+	 */
+	@Parameter(property = "webhookPort", defaultValue = "8095", required = false)
+	private int webhookPort;
+
+	/**
+	 * Path of the webhook listener.
+	 */
+	@Parameter(property = "webhookPath", defaultValue = "/dependency-track/notification", required = false)
+	private String webhookPath;
+
+	/**
+	 * Secret, that notifications have to carry, either as bearer token of the webhook alert or as <code>secret</code>
+	 * query parameter of its destination URL. Notifications without it are rejected.
+	 */
+	@Parameter(property = "webhookSecret", required = false)
+	private String webhookSecret;
+
+	/**
+	 * Delay in seconds between the polls of a BOM token, that are done as fallback while waiting for its notification.
+	 */
+	@Parameter(property = "webhookFallbackDelay", defaultValue = "30", required = false)
+	private int webhookFallbackDelay;
+
+	private Suppressions suppressions;
+	private Deadline goalDeadline = Deadline.none();
+	private BomProcessedWebhook bomProcessedWebhook;
+
 	@Override
 	public void execute() throws MojoExecutionException, MojoFailureException {
 		logConfiguration();
@@ -98,19 +379,151 @@ public abstract class AbstractDependencyTrackMojo extends AbstractMojo {
 			return;
 		}
 
-		try {
-			DTrackClient client = new DTrackClient(dependencyTrackUrl, dependencyTrackApiKey, getLog());
-			client.setLogPayloads(logPayloads);
+		if (httpTransport == HttpTransportType.JDK && !JdkHttpTransport.isSupported()) {
+			throw new MojoExecutionException("httpTransport JDK requires Java 11 or newer, but the build runs on Java "
+				+ System.getProperty("java.version"));
+		}
 
-			Suppressions suppressions = loadSuppressions();
-			DTrack dtrack = new DTrack(client, suppressions, projectName, projectVersion, getLog());
+		if (deadline > 0) {
+			goalDeadline = Deadline.after(deadline, TimeUnit.SECONDS);
+		}
 
+		try {
+			this.suppressions = loadSuppressions();
+			if (webhook && waitsForProcessing()) {
+				// started before the upload, so that no notification is missed
+				bomProcessedWebhook = BomProcessedWebhook.open(webhookHost, webhookPort, webhookPath, webhookSecret, getLog());
+			}
+			DTrack dtrack = createDTrack(dependencyTrackUrl, dependencyTrackApiKey);
 			doWork(dtrack);
 		} catch (URISyntaxException e) {
 			throw new MojoExecutionException("Error during plugin execution", e);
+		} catch (IOException e) {
+			throw new MojoExecutionException("Error starting the webhook listener", e);
 		} catch (DTrackException | MojoExecutionException e) {
 			handleFailureException(e);
+		} finally {
+			if (bomProcessedWebhook != null) {
+				bomProcessedWebhook.close();
+				bomProcessedWebhook = null;
+			}
+			saveLatencies();
+		}
+	}
+
+	/**
+	 * Creates a {@link DTrack} for the given Dependency-Track server, which shares the connection, caching, rate
+	 * limiting and concurrency settings, as well as the suppressions, of this execution.
+	 *
+	 * @param url the URL of the Dependency-Track server
+	 * @param apiKey the API key for the Dependency-Track server
+	 * @return the DTrack for the server
+	 * @throws URISyntaxException if the URL is invalid
+	 */
+	protected DTrack createDTrack(String url, String apiKey) throws URISyntaxException {
+		ConnectionPoolConfig poolConfig = connectionPoolConfig();
+		DTrackClient client = new DTrackClient(url, apiKey, SessionHttpClients.of(session), poolConfig, httpTransport, getLog());
+		client.setLogPayloads(logPayloads);
+		client.setFindingsPageSize(findingsPageSize);
+		client.setFindingsFetchParallelism(findingsFetchParallelism);
+		client.setRequestTimeouts(requestTimeouts());
+		client.setPollingPolicy(PollingPolicy.builder()
+			.initialDelayMillis(tokenPollingDelay)
+			.maxDelayMillis(tokenPollingMaxDelay)
+			.history(predictiveTokenPolling ? new ProcessingTimeHistory(tokenPollingHistoryFile.toPath()) : null)
+			.build());
+		if (url.equals(dependencyTrackUrl)) {
+			client.setReplicaUrls(dependencyTrackReplicaUrls);
+		}
+		if (serverCapabilitiesTtl > 0) {
+			client.setCapabilitiesCache(new ServerCapabilitiesCache(serverCapabilitiesDirectory.toPath(), TimeUnit.HOURS.toMillis(serverCapabilitiesTtl)));
+		}
+		if (responseCache) {
+			client.setResponseCache(new ResponseCache(responseCacheDirectory.toPath(), responseCacheMaxSize * 1024 * 1024));
+		}
+
+		client.setRateLimiter(rateLimiter(url));
+		if (hedgeRequests) {
+			client.setHedgingPolicy(HedgingPolicy.builder()
+				.delayMillis(hedgeDelay)
+				.latencyPercentile(hedgeLatencyPercentile)
+				.build());
+		}
+		if (adaptiveConcurrency) {
+			client.setConcurrencyLimiter(AdaptiveConcurrencyLimiter.shared(url, adaptiveConcurrencyMaxLimit, getLog()));
+		}
+
+		DTrack dtrack = new DTrack(client, suppressions, projectName, projectVersion, getLog());
+		dtrack.setDeadline(goalDeadline);
+		dtrack.setWebhook(bomProcessedWebhook, TimeUnit.SECONDS.toMillis(webhookFallbackDelay));
+		return dtrack;
+	}
+
+	/**
+	 * @return whether the goal waits for uploaded BOMs to be processed, e.g. by polling their tokens
+	 */
+	protected boolean waitsForProcessing() {
+		return false;
+	}
+
+	protected String getDependencyTrackUrl() {
+		return dependencyTrackUrl;
+	}
+
+	/**
+	 * Checks whether enough of the deadline remains for an optional step.
+	 *
+	 * @param step describes the step for logging
+	 * @return <code>true</code> if the step should run, <code>false</code> if it should be skipped
+	 */
+	protected boolean hasBudgetFor(String step) {
+		if (goalDeadline.hasAtLeast(TimeUnit.SECONDS.toMillis(deadlineReserve))) {
+			return true;
+		}
+		getLog().warn("Skipping " + step + " to meet the deadline (" + goalDeadline + ")");
+		return false;
+	}
+
+	private ConnectionPoolConfig connectionPoolConfig() {
+		return ConnectionPoolConfig.builder()
+			.maxTotal(connectionPoolMaxTotal)
+			.maxPerRoute(connectionPoolMaxPerRoute)
+			.idleTimeoutSeconds(connectionIdleTimeout)
+			.keepAliveSeconds(connectionKeepAlive)
+			.build();
+	}
+
+	private RequestTimeouts requestTimeouts() {
+		return RequestTimeouts.builder()
+			.pollMillis((int) TimeUnit.SECONDS.toMillis(pollTimeout))
+			.metadataMillis((int) TimeUnit.SECONDS.toMillis(requestTimeout))
+			.transferMillis((int) TimeUnit.SECONDS.toMillis(transferTimeout))
+			.adaptiveLatencies(adaptiveTimeouts ? LatencyHistograms.shared(adaptiveTimeoutsFile.toPath(), getLog()) : null)
+			.build();
+	}
+
+	private void saveLatencies() {
+		if (!adaptiveTimeouts) {
+			return;
+		}
+		try {
+			LatencyHistograms.shared(adaptiveTimeoutsFile.toPath(), getLog()).save();
+		} catch (IOException e) {
+			getLog().warn("Could not save latencies for adaptive timeouts: " + e.getMessage());
+		}
+	}
+
+	private RateLimiter rateLimiter(String url) {
+		if (rateLimit <= 0) {
+			return null;
+		}
+
+		getLog().info(String.format("Rate limiting requests to %s per second with bursts of %d", rateLimit, rateLimitBurst));
+		// the state file is meant for the configured server, other servers are limited per session
+		if (rateLimitStateFile != null && url.equals(dependencyTrackUrl)) {
+			return FileTokenBucketRateLimiter.shared(rateLimitStateFile.toPath(), rateLimit, rateLimitBurst);
 		}
+		return TokenBucketRateLimiter.shared(url, rateLimit, rateLimitBurst);
 	}
 
 	private Suppressions loadSuppressions() {
@@ -152,8 +565,10 @@ public abstract class AbstractDependencyTrackMojo extends AbstractMojo {
 	private void logConfiguration() {
 		getLog().info("DependencyTrack Maven Plugin");
 		getLog().info("DependencyTrack URL             : " + dependencyTrackUrl);
+		getLog().info("DependencyTrack replica URLs    : " + dependencyTrackReplicaUrls);
 		getLog().info("Project name                    : " + projectName);
 		getLog().info("Project version                 : " + projectVersion);
 		getLog().info("Skip                            : " + skip);
+		getLog().info("Deadline                        : " + (deadline > 0 ? deadline + " seconds" : "none"));
 	}
 }
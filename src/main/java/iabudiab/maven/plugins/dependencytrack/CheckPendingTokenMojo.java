@@ -58,6 +58,13 @@ public class CheckPendingTokenMojo extends AbstractDependencyTrackMojo {
 	@Parameter(property = "securityGate", required = false)
 	private FindingsThresholdSecurityGate securityGate = FindingsThresholdSecurityGate.strict();
 
+	/**
+	 * Whether to print the findings report. Without it, the findings are checked against the security gate
+	 * while they are being loaded, instead of being collected first.
+	 */
+	@Parameter(property = "printFindings", defaultValue = "true", required = false)
+	private boolean printFindings;
+
 	@Override
 	protected void logGoalConfiguration() {
 		getLog().info("Using token file                : " + tokenFile);
@@ -65,6 +72,11 @@ public class CheckPendingTokenMojo extends AbstractDependencyTrackMojo {
 		getLog().info("Token poll duration             : " + tokenPollingDuration);
 	}
 
+	@Override
+	protected boolean waitsForProcessing() {
+		return true;
+	}
+
 	@Override
 	protected void doWork(DTrack dtrack) throws DTrackException, MojoExecutionException {
 		try {
@@ -79,18 +91,37 @@ public class CheckPendingTokenMojo extends AbstractDependencyTrackMojo {
 			throw new MojoExecutionException("Error loading token: ", e);
 		}
 
-		List<Finding> findings  = dtrack.loadFindings();
+		if (!printFindings) {
+			checkFindingsOnly(dtrack);
+			return;
+		}
+
+		ProjectResults results = dtrack.loadResults();
+		List<Finding> findings = results.awaitFindings();
 		FindingsReport findingsReport = new FindingsReport(findings);
 		getLog().info(InfoPrinter.print(findingsReport));
 
-		ProjectMetrics projectMetrics = dtrack.loadProjectMetrics();
-		getLog().info(InfoPrinter.print(projectMetrics));
-
 		Suppressions suppressions = dtrack.getSuppressions();
 		getLog().info(securityGate.print());
 		getLog().info(suppressions.print());
 
 		SecurityGateDecision decision = securityGate.checkAgainst(findings, suppressions);
+
+		ProjectMetrics projectMetrics = results.awaitMetrics();
+		getLog().info(InfoPrinter.print(projectMetrics));
+
+		decision.execute(getLog());
+	}
+
+	private void checkFindingsOnly(DTrack dtrack) throws DTrackException, MojoExecutionException {
+		getLog().info(securityGate.print());
+		getLog().info(dtrack.getSuppressions().print());
+
+		SecurityGateDecision decision = dtrack.checkFindings(securityGate);
+
+		ProjectMetrics projectMetrics = dtrack.loadProjectMetrics();
+		getLog().info(InfoPrinter.print(projectMetrics));
+
 		decision.execute(getLog());
 	}
 
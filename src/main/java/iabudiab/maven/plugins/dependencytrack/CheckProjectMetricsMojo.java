@@ -28,8 +28,20 @@ public class CheckProjectMetricsMojo extends AbstractDependencyTrackMojo {
 	@Parameter(property = "securityGate", required = false)
 	private FindingsThresholdSecurityGate securityGate = FindingsThresholdSecurityGate.strict();
 
+	/**
+	 * Whether to print the findings report. Without it, the findings are checked against the security gate
+	 * while they are being loaded, instead of being collected first.
+	 */
+	@Parameter(property = "printFindings", defaultValue = "true", required = false)
+	private boolean printFindings;
+
 	@Override
 	protected void doWork(DTrack dtrack) throws DTrackException, MojoExecutionException {
+		if (!printFindings) {
+			checkFindingsOnly(dtrack);
+			return;
+		}
+
 		List<Finding> findings = dtrack.loadFindings();
 		FindingsReport findingsReport = new FindingsReport(findings);
 		getLog().info(InfoPrinter.print(findingsReport));
@@ -44,4 +56,15 @@ public class CheckProjectMetricsMojo extends AbstractDependencyTrackMojo {
 		SecurityGateDecision decision = securityGate.checkAgainst(findings, suppressions);
 		decision.execute(getLog());
 	}
+
+	private void checkFindingsOnly(DTrack dtrack) throws DTrackException, MojoExecutionException {
+		ProjectMetrics projectMetrics = dtrack.loadProjectMetrics();
+		getLog().info(InfoPrinter.print(projectMetrics));
+
+		getLog().info(securityGate.print());
+		getLog().info(dtrack.getSuppressions().print());
+
+		SecurityGateDecision decision = dtrack.checkFindings(securityGate);
+		decision.execute(getLog());
+	}
 }
@@ -0,0 +1,27 @@
+package iabudiab.maven.plugins.dependencytrack;
+
+import lombok.Data;
+
+/**
+ * An additional Dependency-Track server, e.g. a regional or compliance instance, to which a BOM is uploaded
+ * alongside the configured <code>dependencyTrackUrl</code>.
+ */
+@Data
+public class DependencyTrackTarget {
+
+	/**
+	 * The URL of the Dependency-Track server
+	 */
+	private String url;
+
+	/**
+	 * An API key for the Dependency-Track server
+	 */
+	private String apiKey;
+
+	@Override
+	public String toString() {
+		// never log the API key
+		return url;
+	}
+}
@@ -0,0 +1,171 @@
+package iabudiab.maven.plugins.dependencytrack;
+
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.ExecutionListener;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.eclipse.aether.SessionData;
+
+import iabudiab.maven.plugins.dependencytrack.client.SharedHttpClients;
+
+/**
+ * Keeps the {@link SharedHttpClients} of a Maven session in the session's data, so that all mojo executions of the
+ * session share them, and closes them, when the session ends.
+ * <p>
+ * Maven fires the session's events to the listener of the execution request, which is thus wrapped by a listener,
+ * that forwards all events and closes the clients on {@link #sessionEnded(ExecutionEvent)}.
+ */
+final class SessionHttpClients implements ExecutionListener {
+
+	// the class differs per plugin realm, so that different versions of this plugin don't share their clients
+	private static final Object KEY = SessionHttpClients.class;
+
+	private final ExecutionListener delegate;
+	private final SharedHttpClients clients = new SharedHttpClients();
+
+	private SessionHttpClients(ExecutionListener delegate) {
+		this.delegate = delegate;
+	}
+
+	/**
+	 * @param session the Maven session
+	 * @return the HTTP clients of the session, which are closed, when the session ends
+	 */
+	static SharedHttpClients of(MavenSession session) {
+		SessionData data = session.getRepositorySession().getData();
+		synchronized (SessionHttpClients.class) {
+			SharedHttpClients clients = (SharedHttpClients) data.get(KEY);
+			if (clients == null) {
+				MavenExecutionRequest request = session.getRequest();
+				SessionHttpClients listener = new SessionHttpClients(request.getExecutionListener());
+				request.setExecutionListener(listener);
+				clients = listener.clients;
+				data.set(KEY, clients);
+			}
+			return clients;
+		}
+	}
+
+	@Override
+	public void sessionEnded(ExecutionEvent event) {
+		try {
+			if (delegate != null) {
+				delegate.sessionEnded(event);
+			}
+		} finally {
+			clients.close();
+		}
+	}
+
+	@Override
+	public void projectDiscoveryStarted(ExecutionEvent event) {
+		if (delegate != null) {
+			delegate.projectDiscoveryStarted(event);
+		}
+	}
+
+	@Override
+	public void sessionStarted(ExecutionEvent event) {
+		if (delegate != null) {
+			delegate.sessionStarted(event);
+		}
+	}
+
+	@Override
+	public void projectSkipped(ExecutionEvent event) {
+		if (delegate != null) {
+			delegate.projectSkipped(event);
+		}
+	}
+
+	@Override
+	public void projectStarted(ExecutionEvent event) {
+		if (delegate != null) {
+			delegate.projectStarted(event);
+		}
+	}
+
+	@Override
+	public void projectSucceeded(ExecutionEvent event) {
+		if (delegate != null) {
+			delegate.projectSucceeded(event);
+		}
+	}
+
+	@Override
+	public void projectFailed(ExecutionEvent event) {
+		if (delegate != null) {
+			delegate.projectFailed(event);
+		}
+	}
+
+	@Override
+	public void mojoSkipped(ExecutionEvent event) {
+		if (delegate != null) {
+			delegate.mojoSkipped(event);
+		}
+	}
+
+	@Override
+	public void mojoStarted(ExecutionEvent event) {
+		if (delegate != null) {
+			delegate.mojoStarted(event);
+		}
+	}
+
+	@Override
+	public void mojoSucceeded(ExecutionEvent event) {
+		if (delegate != null) {
+			delegate.mojoSucceeded(event);
+		}
+	}
+
+	@Override
+	public void mojoFailed(ExecutionEvent event) {
+		if (delegate != null) {
+			delegate.mojoFailed(event);
+		}
+	}
+
+	@Override
+	public void forkStarted(ExecutionEvent event) {
+		if (delegate != null) {
+			delegate.forkStarted(event);
+		}
+	}
+
+	@Override
+	public void forkSucceeded(ExecutionEvent event) {
+		if (delegate != null) {
+			delegate.forkSucceeded(event);
+		}
+	}
+
+	@Override
+	public void forkFailed(ExecutionEvent event) {
+		if (delegate != null) {
+			delegate.forkFailed(event);
+		}
+	}
+
+	@Override
+	public void forkedProjectStarted(ExecutionEvent event) {
+		if (delegate != null) {
+			delegate.forkedProjectStarted(event);
+		}
+	}
+
+	@Override
+	public void forkedProjectSucceeded(ExecutionEvent event) {
+		if (delegate != null) {
+			delegate.forkedProjectSucceeded(event);
+		}
+	}
+
+	@Override
+	public void forkedProjectFailed(ExecutionEvent event) {
+		if (delegate != null) {
+			delegate.forkedProjectFailed(event);
+		}
+	}
+}
@@ -2,14 +2,21 @@ package iabudiab.maven.plugins.dependencytrack;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.ObjectUtils;
@@ -21,18 +28,21 @@ import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 
+import iabudiab.maven.plugins.dependencytrack.client.EncodedBom;
 import iabudiab.maven.plugins.dependencytrack.client.model.CollectionLogic;
-import iabudiab.maven.plugins.dependencytrack.client.model.Finding;
 import iabudiab.maven.plugins.dependencytrack.client.model.Project;
 import iabudiab.maven.plugins.dependencytrack.client.model.ProjectMetrics;
 import iabudiab.maven.plugins.dependencytrack.client.model.ProjectVersion;
 import iabudiab.maven.plugins.dependencytrack.client.model.Tag;
 import iabudiab.maven.plugins.dependencytrack.client.model.TokenResponse;
+import iabudiab.maven.plugins.dependencytrack.dtrack.BomUploadMode;
 import iabudiab.maven.plugins.dependencytrack.dtrack.DTrack;
 import iabudiab.maven.plugins.dependencytrack.dtrack.DTrackException;
 import iabudiab.maven.plugins.dependencytrack.dtrack.FindingsReport;
 import iabudiab.maven.plugins.dependencytrack.dtrack.FindingsThresholdSecurityGate;
 import iabudiab.maven.plugins.dependencytrack.dtrack.InfoPrinter;
+import iabudiab.maven.plugins.dependencytrack.dtrack.ProjectResults;
+import iabudiab.maven.plugins.dependencytrack.dtrack.ProjectUpdate;
 import iabudiab.maven.plugins.dependencytrack.dtrack.SecurityGateDecision;
 import iabudiab.maven.plugins.dependencytrack.suppressions.Suppressions;
 import iabudiab.maven.plugins.dependencytrack.util.VersionUtil;
@@ -46,6 +56,8 @@ import iabudiab.maven.plugins.dependencytrack.util.VersionUtil;
 @Mojo(name = "upload-bom", defaultPhase = LifecyclePhase.VERIFY, requiresOnline = true)
 public class UploadBomMojo extends AbstractDependencyTrackMojo {
 
+	private static final int MAX_PROJECT_UPDATE_THREADS = 4;
+
 	/**
 	 * CycloneDX SBOM directory.
 	 */
@@ -58,6 +70,18 @@ public class UploadBomMojo extends AbstractDependencyTrackMojo {
 	@Parameter(defaultValue = "bom.xml", property = "artifactName", required = true)
 	private String artifactName;
 
+	/**
+	 * How the BOM is uploaded to Dependency-Track.
+	 * <p>
+	 * <code>JSON</code> sends the base64 encoded BOM via <code>PUT /api/v1/bom</code>.
+	 * <p>
+	 * <code>MULTIPART</code> streams the BOM file from disk via <code>POST /api/v1/bom</code> and keeps the memory
+	 * usage constant regardless of the BOM size. It falls back to <code>JSON</code> automatically, if the server
+	 * doesn't accept multipart uploads, which uploads the BOM a second time.
+	 */
+	@Parameter(defaultValue = "JSON", property = "bomUploadMode", required = false)
+	private BomUploadMode bomUploadMode;
+
 	/**
 	 * Whether to poll the pending token for processing.
 	 * <p>
@@ -100,6 +124,13 @@ public class UploadBomMojo extends AbstractDependencyTrackMojo {
 	@Parameter(property = "securityGate", required = false)
 	private FindingsThresholdSecurityGate securityGate = FindingsThresholdSecurityGate.strict();
 
+	/**
+	 * Whether to print the findings report. Without it, the findings are checked against the security gate
+	 * while they are being loaded, instead of being collected first.
+	 */
+	@Parameter(property = "printFindings", defaultValue = "true", required = false)
+	private boolean printFindings;
+
 	/**
 	 * Whether matching local suppressions for actual findings should be applied remotely in Dependency-Track.
 	 */
@@ -190,11 +221,27 @@ public class UploadBomMojo extends AbstractDependencyTrackMojo {
 	@Parameter(property = "markAsLatest", defaultValue = "false", required = false)
 	private boolean markAsLatest;
 
+	/**
+	 * Additional Dependency-Track servers, each with its <code>url</code> and <code>apiKey</code>, to which the
+	 * BOM is uploaded concurrently with the <code>dependencyTrackUrl</code>. The BOM is read and encoded only
+	 * once for all servers, and their tokens are polled in parallel.
+	 */
+	@Parameter(required = false)
+	private List<DependencyTrackTarget> uploadTargets;
+
+	/**
+	 * The URL of the Dependency-Track server, whose findings are checked against the security gate. Either
+	 * the <code>dependencyTrackUrl</code>, which is the default, or one of the <code>uploadTargets</code>.
+	 */
+	@Parameter(property = "primaryTarget", required = false)
+	private String primaryTarget;
+
 
 	@Override
 	protected void logGoalConfiguration() {
 		getLog().info("Using artifact directory        : " + artifactDirectory);
 		getLog().info("Using artifact                  : " + artifactName);
+		getLog().info("BOM upload mode                 : " + bomUploadMode);
 		getLog().info("Upload matching suppressions    : " + uploadMatchingSuppressions);
 		getLog().info("Reset expired suppressions      : " + resetExpiredSuppressions);
 		getLog().info("ProjectMetrics retry delay      : " + projectMetricsRetryDelay);
@@ -210,37 +257,131 @@ public class UploadBomMojo extends AbstractDependencyTrackMojo {
 		getLog().info("Set older versions insactive    : " + setOlderVersionsInactive);
 		getLog().info("ignore Version Suffixes         : " + ignoreVersionSuffixes);
 		getLog().info("Mark as latest                  : " + markAsLatest);
+		getLog().info("Upload targets                  : " + uploadTargets);
+		getLog().info("Primary target                  : " + primaryTarget);
+
+	}
 
+	@Override
+	protected boolean waitsForProcessing() {
+		return pollToken;
 	}
 
 	@Override
 	protected void doWork(DTrack dtrack) throws DTrackException, MojoExecutionException {
 		Path path = Paths.get(artifactDirectory.getPath(), artifactName);
-		if (getLog().isDebugEnabled()) {
-			getLog().debug("Start uploading bom ...");
+		Map<String, DTrack> targets = targets(dtrack);
+		String primary = ObjectUtils.isEmpty(primaryTarget) ? getDependencyTrackUrl() : primaryTarget;
+		DTrack primaryDTrack = targets.get(primary);
+		if (primaryDTrack == null) {
+			throw new MojoExecutionException("Primary target '" + primary + "' is neither the dependencyTrackUrl nor one of the uploadTargets");
 		}
 
-		// even if the bom upload failed, we want to continue
-		TokenResponse tokenResponse = null;
+		ExecutorService executor = Executors.newFixedThreadPool(targets.size(), runnable -> {
+			Thread thread = new Thread(runnable, "dtrack-upload-target");
+			thread.setDaemon(true);
+			return thread;
+		});
+		ExecutorService updateExecutor = Executors.newFixedThreadPool(Math.min(2 * targets.size(), MAX_PROJECT_UPDATE_THREADS), runnable -> {
+			Thread thread = new Thread(runnable, "dtrack-project-update");
+			thread.setDaemon(true);
+			return thread;
+		});
+		Map<String, CompletableFuture<Void>> updates = new LinkedHashMap<>();
+		boolean processed;
 		try {
-			tokenResponse = dtrack.uploadBom(path);
-		} catch (DTrackException ex) {
-			getLog().warn("Got exception when uploading bom!", ex);
+			try {
+				processed = uploadAndPoll(path, targets, primary, executor, updateExecutor, updates);
+			} catch (RuntimeException | MojoExecutionException e) {
+				// the project updates are still joined, but their failures must not hide this one
+				updates.values().forEach(update -> update.handle((result, failure) -> null).join());
+				throw e;
+			} finally {
+				executor.shutdownNow();
+			}
+			// the project updates have run alongside the polling and have to be done before the goal ends
+			updates.forEach((url, update) -> await(url, update, url.equals(primary)));
+		} finally {
+			updateExecutor.shutdownNow();
+		}
+		if (!processed) {
+			return;
 		}
 
-		// Try to apply parent to current project in dependency track
-		applyParent(dtrack);
+		// the metrics, which may need retries, load alongside the findings and the gate
+		ProjectResults results = null;
+		if (printFindings) {
+			results = primaryDTrack.loadResults(projectMetricsRetryDelay, projectMetricsRetryLimit);
+			FindingsReport findingsReport = new FindingsReport(results.awaitFindings());
+			getLog().info(InfoPrinter.print(findingsReport));
+		}
 
-		// Try to apply collection logic to current project in dependency track
-		applyCollectionLogic(dtrack);
+		Suppressions suppressions = primaryDTrack.getSuppressions();
+		getLog().info(securityGate.print());
+		getLog().info(suppressions.print());
 
-		setOlderVersionsInactive(dtrack);
-		// if enabled, mark the uploaded project as latest
-		applyLatest(dtrack);
+		if (uploadMatchingSuppressions && hasBudgetFor("uploading matching suppressions")) {
+			getLog().info("Applying suppressions");
+			primaryDTrack.applySuppressions(resetExpiredSuppressions);
+		}
+
+		SecurityGateDecision decision;
+		ProjectMetrics projectMetrics;
+		if (results != null) {
+			decision = securityGate.checkAgainst(results.awaitFindings(), suppressions);
+			projectMetrics = results.awaitMetrics();
+		} else {
+			// only the gate needs the findings, thus they are checked while loading
+			decision = primaryDTrack.checkFindings(securityGate);
+			projectMetrics = primaryDTrack.loadProjectMetrics(projectMetricsRetryDelay, projectMetricsRetryLimit);
+		}
+		getLog().info(InfoPrinter.print(projectMetrics));
+
+		decision.execute(getLog());
+
+		if (cleanupSuppressions) {
+			getLog().info("Cleaning suppression file");
+			Path cleanupSuppressionsFilePath = Paths.get(cleanupSuppressionsFile);
+			decision.getReport().cleanupSuppressionsFile(cleanupSuppressionsFilePath);
+			getLog().info("Effective suppressions have been written to: " + cleanupSuppressionsFilePath);
+		}
+	}
+
+	private Map<String, DTrack> targets(DTrack dtrack) throws MojoExecutionException {
+		Map<String, DTrack> targets = new LinkedHashMap<>();
+		targets.put(getDependencyTrackUrl(), dtrack);
+		if (uploadTargets == null) {
+			return targets;
+		}
+
+		for (DependencyTrackTarget target : uploadTargets) {
+			if (targets.containsKey(target.getUrl())) {
+				getLog().warn("Ignoring duplicate upload target: " + target);
+				continue;
+			}
+			try {
+				targets.put(target.getUrl(), createDTrack(target.getUrl(), target.getApiKey()));
+			} catch (URISyntaxException e) {
+				throw new MojoExecutionException("Invalid upload target URL: " + target, e);
+			}
+		}
+		return targets;
+	}
+
+	/**
+	 * Uploads the BOM to all targets and polls the tokens right away, while the project settings are applied.
+	 *
+	 * @param updates receives the application of the project settings by target
+	 * @return whether the primary target's token has been processed and the results can be loaded
+	 */
+	private boolean uploadAndPoll(Path path, Map<String, DTrack> targets, String primary, ExecutorService executor,
+			ExecutorService updateExecutor, Map<String, CompletableFuture<Void>> updates) throws MojoExecutionException {
+		Map<String, TokenResponse> tokens = uploadToAll(path, targets, primary, executor, updateExecutor, updates);
 
 		// When the bom upload failed, we want to stop execution here, since the further steps require a valid token response
+		TokenResponse tokenResponse = tokens.get(primary);
 		if (tokenResponse == null) {
-			return;
+			return false;
 		}
 
 		try {
@@ -253,55 +394,138 @@ public class UploadBomMojo extends AbstractDependencyTrackMojo {
 
 		if (!pollToken) {
 			getLog().info("Token polling is disabled. Nothing more to do.");
-			return;
+			return false;
 		}
 
-		boolean stillProcessingToken = dtrack.pollToken(tokenResponse.getToken(), tokenPollingDuration);
-
+		boolean stillProcessingToken = pollAll(tokens, targets, primary, executor);
 		if (stillProcessingToken) {
 			getLog().info("Timeout while waiting for BOM token, bailing out.");
-			return;
+			return false;
 		}
+		return true;
+	}
 
-		List<Finding> findings = dtrack.loadFindings();
-		FindingsReport findingsReport = new FindingsReport(findings);
-		getLog().info(InfoPrinter.print(findingsReport));
-
-		ProjectMetrics projectMetrics = dtrack.loadProjectMetrics(projectMetricsRetryDelay, projectMetricsRetryLimit);
-		getLog().info(InfoPrinter.print(projectMetrics));
+	/**
+	 * Uploads the BOM to all targets concurrently. The project settings of each target are applied once its upload
+	 * is done, without waiting for them.
+	 *
+	 * @return the tokens by target, a failed upload has a <code>null</code> token
+	 */
+	private Map<String, TokenResponse> uploadToAll(Path path, Map<String, DTrack> targets, String primary, ExecutorService executor,
+			ExecutorService updateExecutor, Map<String, CompletableFuture<Void>> updates) {
+		Map<String, CompletableFuture<TokenResponse>> uploads = new LinkedHashMap<>();
+		// the BOM is encoded once for all targets and deleted once all uploads are done
+		try (EncodedBom bom = targets.size() > 1 ? EncodedBom.shared(path) : EncodedBom.of(path)) {
+			targets.forEach((url, target) -> {
+				CompletableFuture<TokenResponse> upload = CompletableFuture.supplyAsync(() -> upload(target, bom), executor);
+				uploads.put(url, upload);
+				// even if the bom upload failed, we want to continue
+				updates.put(url, applyProjectSettings(target, upload.handle((token, failure) -> null), updateExecutor));
+			});
+
+			Map<String, TokenResponse> tokens = new LinkedHashMap<>();
+			for (Map.Entry<String, CompletableFuture<TokenResponse>> upload : uploads.entrySet()) {
+				tokens.put(upload.getKey(), await(upload.getKey(), upload.getValue(), upload.getKey().equals(primary)));
+			}
+			return tokens;
+		}
+	}
 
-		Suppressions suppressions = dtrack.getSuppressions();
-		getLog().info(securityGate.print());
-		getLog().info(suppressions.print());
+	private TokenResponse upload(DTrack dtrack, EncodedBom bom) {
+		if (getLog().isDebugEnabled()) {
+			getLog().debug("Start uploading bom ...");
+		}
 
-		if (uploadMatchingSuppressions) {
-			getLog().info("Applying suppressions");
-			dtrack.applySuppressions(resetExpiredSuppressions);
+		// even if the bom upload failed, we want to continue
+		try {
+			return dtrack.uploadBom(bom, bomUploadMode);
+		} catch (DTrackException ex) {
+			getLog().warn("Got exception when uploading bom!", ex);
+			return null;
 		}
+	}
 
-		SecurityGateDecision decision = securityGate.checkAgainst(findings, suppressions);
-		decision.execute(getLog());
+	/**
+	 * Applies the project settings once the upload is done. The parent, collection logic and latest flag are applied
+	 * with a single update of the project, while the older versions, which are other projects, are set inactive
+	 * alongside.
+	 */
+	private CompletableFuture<Void> applyProjectSettings(DTrack dtrack, CompletableFuture<?> upload, ExecutorService executor) {
+		// the project settings are optional, thus each is skipped when the deadline is near
+		return CompletableFuture.allOf(
+			upload.thenRunAsync(() -> updateProject(dtrack), executor),
+			upload.thenRunAsync(() -> setOlderVersionsInactive(dtrack), executor));
+	}
 
-		if (cleanupSuppressions) {
-			getLog().info("Cleaning suppression file");
-			Path cleanupSuppressionsFilePath = Paths.get(cleanupSuppressionsFile);
-			decision.getReport().cleanupSuppressionsFile(cleanupSuppressionsFilePath);
-			getLog().info("Effective suppressions have been written to: " + cleanupSuppressionsFilePath);
+	/**
+	 * Polls the tokens of all targets concurrently.
+	 *
+	 * @return whether the primary target's token is still being processed
+	 */
+	private boolean pollAll(Map<String, TokenResponse> tokens, Map<String, DTrack> targets, String primary, ExecutorService executor) {
+		Map<String, CompletableFuture<Boolean>> polls = new LinkedHashMap<>();
+		tokens.forEach((url, token) -> {
+			if (token != null) {
+				polls.put(url, CompletableFuture.supplyAsync(() -> targets.get(url).pollToken(token.getToken(), tokenPollingDuration), executor));
+			}
+		});
+
+		Boolean stillProcessingToken = await(primary, polls.get(primary), true);
+		polls.forEach((url, poll) -> {
+			if (url.equals(primary)) {
+				return;
+			}
+			Boolean stillProcessing = await(url, poll, false);
+			if (Boolean.FALSE.equals(stillProcessing)) {
+				getLog().info("BOM has been processed by upload target: " + url);
+			} else if (stillProcessing != null) {
+				getLog().warn("BOM is still being processed by upload target: " + url);
+			}
+		});
+		return stillProcessingToken;
+	}
+
+	/**
+	 * Waits for a target's task. Failures of the primary target fail the goal, while those of other targets are
+	 * only logged.
+	 */
+	private <T> T await(String url, CompletableFuture<T> task, boolean primary) {
+		try {
+			return task.join();
+		} catch (CompletionException e) {
+			Throwable cause = e.getCause();
+			if (primary) {
+				if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				throw new DTrackException("Error uploading to " + url, cause);
+			}
+			getLog().warn("Upload target " + url + " failed: " + cause.getMessage(), cause);
+			return null;
 		}
 	}
 
-	private void applyParent(DTrack dtrack) {
-		if (ObjectUtils.isEmpty(parentIdentifier) && (ObjectUtils.isEmpty(parentName))) {
+	/**
+	 * Applies the parent, collection logic and latest flag, as far as they differ from the current project, with a
+	 * single request.
+	 */
+	private void updateProject(DTrack dtrack) {
+		boolean hasParent = !ObjectUtils.isEmpty(parentIdentifier) || !ObjectUtils.isEmpty(parentName);
+		if (!hasParent) {
 			getLog().debug("No parent specified");
+		}
+		if (ObjectUtils.isEmpty(collectionLogic) && getLog().isDebugEnabled()) {
+			getLog().debug("No collection logic specified");
+		}
+		if (!markAsLatest && getLog().isDebugEnabled()) {
+			getLog().debug("'markAsLatest' is set to 'false', so skipping.");
+		}
+		if (!hasParent && ObjectUtils.isEmpty(collectionLogic) && !markAsLatest) {
 			return;
 		}
 
-		if (getLog().isDebugEnabled()) {
-			getLog().debug(
-				parentIdentifier != null
-					? String.format("Try to apply parent by identifier '%s'", parentIdentifier)
-					: String.format("Try to apply parent '%s:%s'", parentName, parentVersion)
-			);
+		if (!hasBudgetFor("updating the project")) {
+			return;
 		}
 
 		Project project = null;
@@ -314,7 +538,51 @@ public class UploadBomMojo extends AbstractDependencyTrackMojo {
 			getLog().warn("Something went wrong loading project!", ex);
 			return;
 		}
+		if (project == null) {
+			getLog().warn(String.format("Project '%s:%s' not found! Skip updating it.", projectName, projectVersion));
+			return;
+		}
 
+		ProjectUpdate update = dtrack.updateProject(project);
+		if (hasParent) {
+			applyParent(dtrack, update);
+		}
+		CollectionLogic logic = collectionLogic();
+		if (logic != null) {
+			update.collectionLogic(logic, collectionTag());
+		} else if (!ObjectUtils.isEmpty(collectionLogic)) {
+			getLog().warn(String.format("Could not parse value '%s' to a valid collection logic strategy! Skip applying collection logic.", collectionLogic));
+		}
+		// if enabled, mark the uploaded project as latest
+		if (markAsLatest) {
+			update.latest(true);
+		}
+
+		try {
+			update.apply();
+		} catch (DTrackException ex) {
+			// only a failure to apply the parent fails the goal, the other settings are optional
+			if (update.changes().contains("parent")) {
+				throw ex;
+			}
+			getLog().warn("Something went wrong updating the project!", ex);
+		}
+	}
+
+	private void applyParent(DTrack dtrack, ProjectUpdate update) {
+		if (!hasBudgetFor("applying the parent")) {
+			return;
+		}
+
+		if (getLog().isDebugEnabled()) {
+			getLog().debug(
+				parentIdentifier != null
+					? String.format("Try to apply parent by identifier '%s'", parentIdentifier)
+					: String.format("Try to apply parent '%s:%s'", parentName, parentVersion)
+			);
+		}
+
+		Project project = update.getProject();
 		UUID parentUuid = null;
 		try {
 			parentUuid = !ObjectUtils.isEmpty(parentIdentifier) ? UUID.fromString(parentIdentifier) : null;
@@ -388,61 +656,28 @@ public class UploadBomMojo extends AbstractDependencyTrackMojo {
 			if (getLog().isDebugEnabled()) {
 				getLog().debug("Try to apply parent project");
 			}
-			dtrack.applyParentProject(project, parentProject);
+			update.parent(parentProject);
 		} else {
 			getLog().warn("Skip applying parent project");
 		}
-
-		getLog().info(
-			parentIdentifier != null
-				? String.format("Successfully applied parent by identifier '%s'", parentIdentifier)
-				: String.format("Successfully applied parent '%s:%s'", parentName, parentVersion)
-		);
 	}
 
-	private void applyCollectionLogic(DTrack dtrack) {
+	/**
+	 * @return the collection logic to apply, or <code>null</code> if none is specified or it can't be parsed
+	 */
+	private CollectionLogic collectionLogic() {
 		if (ObjectUtils.isEmpty(collectionLogic)) {
-			if (getLog().isDebugEnabled()) {
-				getLog().debug("No collection logic specified");
-			}
-			return;
+			return null;
 		}
-
-		if (getLog().isDebugEnabled()) {
-			getLog().debug(String.format("Try to apply collection logic '%s'", collectionLogic));
-		}
-
-		CollectionLogic logic;
-		try {
-			logic = CollectionLogic.valueOf(collectionLogic);
-		} catch (Exception ex) {
-			getLog().warn(
-				String.format("Could not parse value '%s' to a valid collection logic strategy! Skip applying collection logic.", collectionLogic), ex
-			);
-			return;
-		}
-		String tag = (collectionTag == null || collectionTag.isEmpty()) ? null : collectionTag.trim();
-
-		Project project;
-		try {
-			if (getLog().isDebugEnabled()) {
-				getLog().debug("Try to obtain current project");
-			}
-			project = dtrack.findProject(projectName, projectVersion);
-		} catch (Exception ex) {
-			getLog().warn("Something went wrong loading project!", ex);
-			return;
-		}
-
 		try {
-			dtrack.applyCollectionLogic(project, logic, tag);
+			return CollectionLogic.valueOf(collectionLogic);
 		} catch (Exception ex) {
-			getLog().warn(
-				String.format("Something went wrong applying collection logic '%s' and tag '%s'!", logic, tag), ex
-			);
+			return null;
 		}
+	}
 
-		getLog().info(String.format("Successfully applied collection logic '%s'", collectionLogic));
+	private String collectionTag() {
+		return (collectionTag == null || collectionTag.isEmpty()) ? null : collectionTag.trim();
 	}
 
 	private void setOlderVersionsInactive(DTrack dtrack) {
@@ -455,6 +690,10 @@ public class UploadBomMojo extends AbstractDependencyTrackMojo {
 			return;
 		}
 
+		if (!hasBudgetFor("setting older versions inactive")) {
+			return;
+		}
+
 		// parse current version
 		Triple<Integer, Integer, Integer> currentVersion = null;
 		try {
@@ -517,6 +756,13 @@ public class UploadBomMojo extends AbstractDependencyTrackMojo {
 			));
 		}
 
+		// the current project is updated alongside, so the other versions get the collection logic it is going to have
+		CollectionLogic logic = collectionLogic();
+		CollectionLogic otherCollectionLogic = logic != null ? logic : project.getCollectionLogic();
+		Tag otherCollectionTag = logic != null
+			? (collectionTag() != null ? new Tag(collectionTag()) : null)
+			: project.getCollectionTag();
+
 		// run over all remaining active project versions ...
 		for(ProjectVersion otherProjectVersion : activeOtherProjectVersions) {
 			// parse the version string into the three values
@@ -545,8 +791,8 @@ public class UploadBomMojo extends AbstractDependencyTrackMojo {
 					false,
 					// as long we have to patch collectionLogic and collectionTag alongside,
 					// we assume that the other versions have applied the same as the current one
-					project.getCollectionLogic(),
-					project.getCollectionTag()
+					otherCollectionLogic,
+					otherCollectionTag
 				);
 				if(log.isDebugEnabled()) {
 					log.debug(String.format(
@@ -566,37 +812,6 @@ public class UploadBomMojo extends AbstractDependencyTrackMojo {
 		}
 	}
 
-	private void applyLatest(DTrack dtrack) {
-		if(!markAsLatest) {
-			if(getLog().isDebugEnabled()) {
-				getLog().debug("'markAsLatest' is set to 'false', so skipping.");
-			}
-		}
-
-		if (getLog().isDebugEnabled()) {
-			getLog().debug("Try to mark uploaded project as latest");
-		}
-
-		Project project = null;
-		try {
-			if (getLog().isDebugEnabled()) {
-				getLog().debug("Try to obtain current project");
-			}
-			project = dtrack.findProject(projectName, projectVersion);
-		} catch (Exception ex) {
-			getLog().warn("Something went wrong loading project!", ex);
-			return;
-		}	
-
-		try {
-			dtrack.applyLatest(project, true);
-		} catch (Exception ex) {
-			getLog().warn("Something went wrong applying latest = 'true'!", ex);
-		}
-
-		getLog().info("Successfully marked uploaded project as latest!");
-	}
-
 	private void writeToPath(TokenResponse token, Path path) throws IOException {
 		Files.createDirectories(path.getParent());
 		byte[] tokenBytes = token.toString().getBytes(StandardCharsets.UTF_8);
@@ -0,0 +1,121 @@
+package iabudiab.maven.plugins.dependencytrack.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.commons.codec.binary.Base64InputStream;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * A repeatable JSON request entity, that embeds a file as a base64 encoded string field.
+ * <p>
+ * The JSON envelope is taken from a payload object, e.g. a {@code ScanSubmitRequest}, whose
+ * own value for the file field is ignored. The file content is read and base64 encoded on the
+ * fly while writing the entity, so neither the raw nor the encoded file content is ever held
+ * in memory. The produced JSON is the same as serializing the payload with the encoded file
+ * set as the field's value.
+ */
+public class Base64JsonFileEntity extends AbstractHttpEntity {
+
+	private final ObjectMapper objectMapper;
+	private final ObjectNode envelope;
+	private final String fileFieldName;
+	private final Path file;
+	// the JSON with an empty file field, into which the encoded file is inserted
+	private final byte[] emptyFileJson;
+	private final long contentLength;
+
+	public Base64JsonFileEntity(ObjectMapper objectMapper, Object payload, String fileFieldName, Path file) throws IOException {
+		this.objectMapper = objectMapper;
+		this.envelope = objectMapper.valueToTree(payload);
+		this.envelope.remove(fileFieldName);
+		this.fileFieldName = fileFieldName;
+		this.file = file;
+		ByteArrayOutputStream json = new ByteArrayOutputStream();
+		write(json, new ByteArrayInputStream(new byte[0]), 0);
+		this.emptyFileJson = json.toByteArray();
+		this.contentLength = computeContentLength();
+		setContentType(ContentType.APPLICATION_JSON.toString());
+	}
+
+	@Override
+	public boolean isRepeatable() {
+		return true;
+	}
+
+	@Override
+	public long getContentLength() {
+		return contentLength;
+	}
+
+	/**
+	 * @return a stream of the same JSON as {@link #writeTo(OutputStream)}, encoding the file while it is read
+	 */
+	@Override
+	public InputStream getContent() throws IOException {
+		// the file field is written last, i.e. the empty JSON ends with its empty value followed by '}'
+		int fileValueOffset = emptyFileJson.length - 2;
+		return new SequenceInputStream(Collections.enumeration(Arrays.asList(
+			new ByteArrayInputStream(emptyFileJson, 0, fileValueOffset),
+			new Base64InputStream(Files.newInputStream(file), true, 0, null),
+			new ByteArrayInputStream(emptyFileJson, fileValueOffset, emptyFileJson.length - fileValueOffset))));
+	}
+
+	@Override
+	public void writeTo(OutputStream outputStream) throws IOException {
+		try (InputStream fileStream = Files.newInputStream(file)) {
+			write(outputStream, fileStream, Files.size(file));
+		}
+	}
+
+	@Override
+	public boolean isStreaming() {
+		return false;
+	}
+
+	private void write(OutputStream outputStream, InputStream fileStream, long fileSize) throws IOException {
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			generator.writeStartObject();
+
+			Iterator<Map.Entry<String, JsonNode>> fields = envelope.fields();
+			while (fields.hasNext()) {
+				Map.Entry<String, JsonNode> field = fields.next();
+				generator.writeFieldName(field.getKey());
+				generator.writeTree(field.getValue());
+			}
+
+			generator.writeFieldName(fileFieldName);
+			generator.writeBinary(Base64Variants.MIME_NO_LINEFEEDS, fileStream, fileSize > Integer.MAX_VALUE ? -1 : (int) fileSize);
+			generator.writeEndObject();
+		}
+	}
+
+	private long computeContentLength() throws IOException {
+		long fileSize = Files.size(file);
+		if (fileSize > Integer.MAX_VALUE) {
+			// too large for a length-prefixed binary write, let the entity be sent chunked
+			return -1;
+		}
+
+		// the envelope with an empty file field plus the length of the base64 encoded file
+		return emptyFileJson.length + 4 * ((fileSize + 2) / 3);
+	}
+}
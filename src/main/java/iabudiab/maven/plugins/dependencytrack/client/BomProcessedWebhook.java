@@ -0,0 +1,321 @@
+package iabudiab.maven.plugins.dependencytrack.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.maven.plugin.logging.Log;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Embedded HTTP listener for the <code>BOM_PROCESSED</code> notifications, that Dependency-Track sends to outbound
+ * webhooks, so that the completion of a BOM's processing is noticed without polling.
+ * <p>
+ * A notification matches a waiting BOM by its token, which servers since 4.11 include. Only waits for BOMs of
+ * older servers also match notifications without a token by the project's name and version.
+ * <code>BOM_PROCESSING_FAILED</code> notifications fail the wait. Notifications arriving before anyone waits
+ * for them are kept for a while, since small BOMs are often processed before the upload's response has been
+ * handled.
+ * <p>
+ * With a secret, only notifications carrying it, either as <code>Authorization: Bearer</code> header or as
+ * <code>secret</code> query parameter of the webhook's URL, are accepted.
+ * <p>
+ * A listener is shared by all executions of a JVM using the same address, e.g. by the modules of a reactor build,
+ * and is stopped once the last of them has closed it.
+ */
+public class BomProcessedWebhook implements Closeable {
+
+	private static final Map<InetSocketAddress, BomProcessedWebhook> SHARED = new HashMap<>();
+
+	static final String BOM_PROCESSED = "BOM_PROCESSED";
+	static final String BOM_PROCESSING_FAILED = "BOM_PROCESSING_FAILED";
+
+	private static final int MAX_KEPT_NOTIFICATIONS = 100;
+	private static final int SC_OK = 200;
+	private static final int SC_BAD_REQUEST = 400;
+	private static final int SC_UNAUTHORIZED = 401;
+	private static final String SECRET_PARAMETER = "secret=";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final InetSocketAddress address;
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final Log log;
+
+	private final Deque<Notification> received = new ArrayDeque<>();
+	private final List<Waiter> waiters = new ArrayList<>();
+	// the secret of each path, an empty one if the path accepts all notifications
+	private final Map<String, String> secrets = new HashMap<>();
+	private int references;
+
+	private BomProcessedWebhook(InetSocketAddress address, Log log) throws IOException {
+		this.log = log;
+		this.server = HttpServer.create(address, 0);
+		this.address = server.getAddress();
+		this.executor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "dtrack-webhook");
+			thread.setDaemon(true);
+			return thread;
+		});
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	/**
+	 * Opens the listener of the JVM for the given address, starting it if it isn't running yet, and listens on the
+	 * given path. Each call must be paired with a call of {@link #close()}.
+	 *
+	 * @param host the host to bind to, e.g. <code>127.0.0.1</code> for the local machine only
+	 * @param port the port to listen on, <code>0</code> for any free port
+	 * @param path the path of the webhook
+	 * @param secret the secret, that notifications have to carry, or <code>null</code> to accept all notifications
+	 * @param log the log
+	 * @return the listener
+	 * @throws IOException if the listener can't be started, or already listens on the path with another secret
+	 */
+	public static BomProcessedWebhook open(String host, int port, String path, String secret, Log log) throws IOException {
+		synchronized (SHARED) {
+			InetSocketAddress address = new InetSocketAddress(host, port);
+			BomProcessedWebhook webhook = port > 0 ? SHARED.get(address) : null;
+			if (webhook == null) {
+				webhook = new BomProcessedWebhook(address, log);
+				SHARED.put(webhook.address, webhook);
+			}
+			try {
+				webhook.listen(host, path, secret != null ? secret : "");
+			} catch (IOException e) {
+				if (webhook.references == 0) {
+					webhook.stop();
+				}
+				throw e;
+			}
+			webhook.references++;
+			return webhook;
+		}
+	}
+
+	private void listen(String host, String path, String secret) throws IOException {
+		String existing = secrets.get(path);
+		if (existing == null) {
+			server.createContext(path, exchange -> handle(exchange, secret));
+			secrets.put(path, secret);
+			log.info("Listening for BOM_PROCESSED notifications at: http://" + host + ":" + getPort() + path);
+		} else if (!existing.equals(secret)) {
+			throw new IOException("The webhook listener on port " + getPort() + " already listens at " + path + " with another secret");
+		}
+	}
+
+	public int getPort() {
+		return address.getPort();
+	}
+
+	/**
+	 * Waits for the notification of the given BOM, which has to carry the BOM's token.
+	 *
+	 * @param token the BOM's token
+	 * @return a future completing with <code>false</code>, i.e. no longer processing, once the BOM has been processed
+	 */
+	public CompletableFuture<Boolean> await(UUID token) {
+		return await(token, null, null, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Waits for the notification of the given BOM, which is uploaded to a server, that doesn't include tokens in
+	 * its notifications. A notification without a token then matches by the project, so it may also be the one of
+	 * another BOM of the same project, e.g. uploaded by a concurrent build.
+	 *
+	 * @param token the BOM's token
+	 * @param projectName the project's name, to match notifications without a token
+	 * @param projectVersion the project's version, to match notifications without a token
+	 * @param sinceMillis the time of the upload; notifications without a token, that were received earlier, don't match
+	 * @return a future completing with <code>false</code>, i.e. no longer processing, once the BOM has been processed
+	 */
+	public CompletableFuture<Boolean> await(UUID token, String projectName, String projectVersion, long sinceMillis) {
+		Waiter waiter = new Waiter(token, projectName, projectVersion);
+		synchronized (this) {
+			for (Iterator<Notification> it = received.descendingIterator(); it.hasNext(); ) {
+				Notification notification = it.next();
+				if (waiter.matches(notification, sinceMillis)) {
+					it.remove();
+					waiter.complete(notification);
+					return waiter.future;
+				}
+			}
+			waiters.add(waiter);
+		}
+		waiter.future.whenComplete((result, failure) -> {
+			synchronized (this) {
+				waiters.remove(waiter);
+			}
+		});
+		return waiter.future;
+	}
+
+	private void handle(HttpExchange exchange, String secret) throws IOException {
+		try (InputStream body = exchange.getRequestBody()) {
+			if (!secret.isEmpty() && !isAuthorized(exchange, secret)) {
+				log.warn("Ignoring notification without the webhook secret from: " + exchange.getRemoteAddress());
+				exchange.sendResponseHeaders(SC_UNAUTHORIZED, -1);
+				return;
+			}
+
+			Notification notification;
+			try {
+				notification = Notification.parse(objectMapper.readTree(body), System.currentTimeMillis());
+			} catch (IOException e) {
+				log.debug("Ignoring unparsable notification: " + e.getMessage());
+				exchange.sendResponseHeaders(SC_BAD_REQUEST, -1);
+				return;
+			}
+
+			if (notification != null) {
+				if (log.isDebugEnabled()) {
+					log.debug("Received " + notification.group + " notification of: " + notification.projectName + ":" + notification.projectVersion);
+				}
+				dispatch(notification);
+			}
+			exchange.sendResponseHeaders(SC_OK, -1);
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private static boolean isAuthorized(HttpExchange exchange, String secret) throws UnsupportedEncodingException {
+		String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+		if (authorization != null && authorization.startsWith("Bearer ")
+			&& isEqual(authorization.substring("Bearer ".length()).trim(), secret)) {
+			return true;
+		}
+
+		String query = exchange.getRequestURI().getRawQuery();
+		if (query != null) {
+			for (String parameter : query.split("&")) {
+				if (parameter.startsWith(SECRET_PARAMETER)
+					&& isEqual(URLDecoder.decode(parameter.substring(SECRET_PARAMETER.length()), StandardCharsets.UTF_8.name()), secret)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	// compares in constant time, so that the secret can't be guessed from the response times
+	private static boolean isEqual(String actual, String expected) {
+		return MessageDigest.isEqual(actual.getBytes(StandardCharsets.UTF_8), expected.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private synchronized void dispatch(Notification notification) {
+		for (Waiter waiter : new ArrayList<>(waiters)) {
+			if (waiter.matches(notification, notification.receivedMillis)) {
+				waiter.complete(notification);
+				return;
+			}
+		}
+		received.addLast(notification);
+		if (received.size() > MAX_KEPT_NOTIFICATIONS) {
+			received.removeFirst();
+		}
+	}
+
+	@Override
+	public void close() {
+		synchronized (SHARED) {
+			if (--references > 0) {
+				return;
+			}
+			stop();
+		}
+	}
+
+	private void stop() {
+		SHARED.remove(address);
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private static final class Notification {
+
+		private final String group;
+		private final String token;
+		private final String projectName;
+		private final String projectVersion;
+		private final long receivedMillis;
+
+		private Notification(String group, String token, String projectName, String projectVersion, long receivedMillis) {
+			this.group = group;
+			this.token = token;
+			this.projectName = projectName;
+			this.projectVersion = projectVersion;
+			this.receivedMillis = receivedMillis;
+		}
+
+		/**
+		 * @return the notification, or <code>null</code> if it isn't about the processing of a BOM
+		 */
+		private static Notification parse(JsonNode root, long receivedMillis) {
+			JsonNode notification = root.path("notification");
+			String group = notification.path("group").asText(null);
+			if (!BOM_PROCESSED.equals(group) && !BOM_PROCESSING_FAILED.equals(group)) {
+				return null;
+			}
+			JsonNode subject = notification.path("subject");
+			JsonNode project = subject.path("project");
+			return new Notification(group, subject.path("token").asText(null),
+				project.path("name").asText(null), project.path("version").asText(null), receivedMillis);
+		}
+	}
+
+	private static final class Waiter {
+
+		private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+		private final UUID token;
+		private final String projectName;
+		private final String projectVersion;
+
+		private Waiter(UUID token, String projectName, String projectVersion) {
+			this.token = token;
+			this.projectName = projectName;
+			this.projectVersion = projectVersion;
+		}
+
+		private boolean matches(Notification notification, long sinceMillis) {
+			if (notification.token != null) {
+				return notification.token.equalsIgnoreCase(token.toString());
+			}
+			// notifications without a token are only expected from older servers
+			return projectName != null
+				&& notification.receivedMillis >= sinceMillis
+				&& Objects.equals(notification.projectName, projectName)
+				&& Objects.equals(notification.projectVersion, projectVersion);
+		}
+
+		private void complete(Notification notification) {
+			if (BOM_PROCESSING_FAILED.equals(notification.group)) {
+				future.completeExceptionally(new IOException("Dependency-Track failed to process the BOM: " + token));
+			} else {
+				future.complete(false);
+			}
+		}
+	}
+}
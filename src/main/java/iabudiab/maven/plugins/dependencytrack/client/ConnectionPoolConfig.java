@@ -0,0 +1,42 @@
+package iabudiab.maven.plugins.dependencytrack.client;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Settings of the pooled HTTP connection manager, which is shared by all
+ * {@link DTrackClient} instances using the same settings and {@link SharedHttpClients}.
+ */
+@Value
+@Builder
+public class ConnectionPoolConfig {
+
+	/**
+	 * Maximum number of pooled connections in total.
+	 */
+	@Builder.Default
+	int maxTotal = 20;
+
+	/**
+	 * Maximum number of pooled connections per route, i.e. per Dependency-Track server.
+	 */
+	@Builder.Default
+	int maxPerRoute = 10;
+
+	/**
+	 * Idle time in seconds after which pooled connections are evicted.
+	 */
+	@Builder.Default
+	int idleTimeoutSeconds = 30;
+
+	/**
+	 * Keep-alive duration in seconds used, when the server doesn't send a
+	 * <code>Keep-Alive</code> header.
+	 */
+	@Builder.Default
+	int keepAliveSeconds = 60;
+
+	public static ConnectionPoolConfig defaults() {
+		return ConnectionPoolConfig.builder().build();
+	}
+}
@@ -1,7 +1,10 @@
 package iabudiab.maven.plugins.dependencytrack.client;
 
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLEncoder;
@@ -11,39 +14,37 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import org.apache.commons.lang3.ObjectUtils;
-import org.apache.http.Header;
+import org.apache.http.HttpEntity;
 import org.apache.http.HttpHeaders;
-import org.apache.http.HttpResponse;
-import org.apache.http.StatusLine;
-import org.apache.http.client.HttpResponseException;
-import org.apache.http.client.ResponseHandler;
-import org.apache.http.client.config.RequestConfig;
-import org.apache.http.client.entity.EntityBuilder;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.client.methods.HttpPatch;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.client.methods.HttpPut;
 import org.apache.http.entity.ContentType;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.impl.client.LaxRedirectStrategy;
-import org.apache.http.message.BasicHeader;
-import org.apache.http.util.EntityUtils;
+import org.apache.http.entity.mime.HttpMultipartMode;
+import org.apache.http.entity.mime.MultipartEntityBuilder;
+import org.apache.http.entity.mime.content.FileBody;
 import org.apache.maven.plugin.logging.Log;
 import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.io.InputStreamFacade;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import iabudiab.maven.plugins.dependencytrack.client.model.Analysis;
@@ -53,74 +54,428 @@ import iabudiab.maven.plugins.dependencytrack.client.model.Finding;
 import iabudiab.maven.plugins.dependencytrack.client.model.Project;
 import iabudiab.maven.plugins.dependencytrack.client.model.ProjectMetrics;
 import iabudiab.maven.plugins.dependencytrack.client.model.ScanSubmitRequest;
+import iabudiab.maven.plugins.dependencytrack.client.model.ServerVersion;
 import iabudiab.maven.plugins.dependencytrack.client.model.Tag;
 import iabudiab.maven.plugins.dependencytrack.client.model.TokenProcessedResponse;
 import iabudiab.maven.plugins.dependencytrack.client.model.TokenResponse;
+import iabudiab.maven.plugins.dependencytrack.client.transport.AdaptiveConcurrencyLimiter;
+import iabudiab.maven.plugins.dependencytrack.client.transport.AdaptiveTimeoutTransport;
+import iabudiab.maven.plugins.dependencytrack.client.transport.ApacheHttpTransport;
+import iabudiab.maven.plugins.dependencytrack.client.transport.CachingTransport;
+import iabudiab.maven.plugins.dependencytrack.client.transport.ConcurrencyLimitingTransport;
+import iabudiab.maven.plugins.dependencytrack.client.transport.ContentEncodingTransport;
+import iabudiab.maven.plugins.dependencytrack.client.transport.Deadline;
+import iabudiab.maven.plugins.dependencytrack.client.transport.DeadlineTransport;
+import iabudiab.maven.plugins.dependencytrack.client.transport.FailoverTransport;
+import iabudiab.maven.plugins.dependencytrack.client.transport.HedgingTransport;
+import iabudiab.maven.plugins.dependencytrack.client.transport.HttpTransport;
+import iabudiab.maven.plugins.dependencytrack.client.transport.HttpTransportType;
+import iabudiab.maven.plugins.dependencytrack.client.transport.JdkHttpTransport;
+import iabudiab.maven.plugins.dependencytrack.client.transport.RateLimiter;
+import iabudiab.maven.plugins.dependencytrack.client.transport.RateLimitingTransport;
+import iabudiab.maven.plugins.dependencytrack.client.transport.RequestBody;
+import iabudiab.maven.plugins.dependencytrack.client.transport.ResponseCache;
+import iabudiab.maven.plugins.dependencytrack.client.transport.TimeoutClass;
+import iabudiab.maven.plugins.dependencytrack.client.transport.TransportRequest;
+import iabudiab.maven.plugins.dependencytrack.client.transport.TransportResponse;
+import iabudiab.maven.plugins.dependencytrack.client.transport.TransportResponseHandler;
 import iabudiab.maven.plugins.dependencytrack.cyclone.BomFormat;
 
-public class DTrackClient {
+/**
+ * Client of the Dependency-Track REST API.
+ * <p>
+ * A client created with its own connection pool releases it on {@link #close()}, whereas clients sharing a
+ * {@link SharedHttpClients} registry leave closing it to the registry's owner, e.g. the Maven session.
+ */
+public class DTrackClient implements Closeable {
 
-	private static final String DEPENDENCY_TRACK_API_KEY_HEADER = "X-Api-Key";
-	private static final int DEFAULT_TIMEOUT = 30;
+	static final String DEPENDENCY_TRACK_API_KEY_HEADER = "X-Api-Key";
+	private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+	// stops fetching pages without a total count from a server, that keeps sending full pages
+	private static final int MAX_SEQUENTIAL_FINDINGS_PAGES = 10_000;
+	static final int DEFAULT_TIMEOUT = 30;
 
 	// API Paths
-	private static final String API_V1 = "/api/v1/";
+	static final String API_V1 = "/api/v1/";
+	static final String API_VERSION = "/api/version";
 	private static final String API_UPLOAD_SCAN = "scan";
 	private static final String API_UPLOAD_BOM = "bom";
-	private static final String API_DOWNLOAD_BOM = "bom/cyclonedx/project/";
-	private static final String API_TOKEN_PROCESSING = "bom/token/";
-	private static final String API_PROJECT = "project";
-	private static final String API_PROJECT_LOOKUP = "project/lookup";
-	private static final String API_PROJECT_FINDINGS = "finding/project/";
-	private static final String API_PROJECT_METRICS = "metrics/project/";
-	private static final String API_ANALYSIS = "analysis";
+	static final String API_DOWNLOAD_BOM = "bom/cyclonedx/project/";
+	static final String API_TOKEN_PROCESSING = "bom/token/";
+	static final String API_EVENT_TOKEN = "event/token/";
+	static final String API_PROJECT = "project";
+	static final String API_PROJECT_LOOKUP = "project/lookup";
+	static final String API_PROJECT_FINDINGS = "finding/project/";
+	static final String API_PROJECT_METRICS = "metrics/project/";
+	static final String API_ANALYSIS = "analysis";
+
+	// identical GETs are coalesced across all clients with the same request settings, e.g. of the modules of a parallel build
+	private static final SingleFlight<List<Object>, BufferedResponse> IN_FLIGHT_GETS = new SingleFlight<>();
+
+	private static final ExecutorService SHARED_GETS = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "dtrack-shared-get");
+		thread.setDaemon(true);
+		return thread;
+	});
 
 	private final ObjectMapper objectMapper = new ObjectMapper();
 	private final String dependencyTrackApiKey;
 	private final Log log;
-	private final CloseableHttpClient client;
+	private final HttpTransport baseTransport;
+	// identifies base transports sending requests the same way, e.g. through the same shared client
+	private final Object baseTransportKey;
 	private final URI baseUri;
+	private final String dependencyTrackUrl;
+	// the registry of a client with its own connection pool, which is closed along with the client
+	private SharedHttpClients ownedHttpClients;
+
+	private HttpTransport transport;
+	// the transport without the deadline, for requests shared with clients, that have other deadlines
+	private HttpTransport sharedTransport;
+	private ResponseCache responseCache;
+	private RateLimiter rateLimiter;
+	private AdaptiveConcurrencyLimiter concurrencyLimiter;
+	private HedgingPolicy hedgingPolicy;
+	private List<URI> replicas;
+	private ServerCapabilitiesCache capabilitiesCache;
+	private Deadline deadline = Deadline.none();
+	private RequestTimeouts timeouts;
+	private PollingPolicy pollingPolicy = PollingPolicy.defaults();
+	private volatile ServerCapabilities capabilities;
 
 	private boolean logPayloads;
+	private int findingsPageSize;
+	private int findingsFetchParallelism = 1;
 
 	public DTrackClient(String dependencyTrackUrl, String dependencyTrackApiKey, Log log) throws URISyntaxException {
+		this(dependencyTrackUrl, dependencyTrackApiKey, ConnectionPoolConfig.defaults(), log);
+	}
+
+	/**
+	 * Creates a client with its own connection pool, that isn't shared with other clients and is released by
+	 * {@link #close()}.
+	 */
+	public DTrackClient(String dependencyTrackUrl, String dependencyTrackApiKey, ConnectionPoolConfig poolConfig, Log log) throws URISyntaxException {
+		this(dependencyTrackUrl, dependencyTrackApiKey, new SharedHttpClients(), true, poolConfig, HttpTransportType.APACHE, log);
+	}
+
+	/**
+	 * Creates a client, that shares the pooled connections of the given registry with all other clients using
+	 * the same pool settings.
+	 */
+	public DTrackClient(String dependencyTrackUrl, String dependencyTrackApiKey, SharedHttpClients httpClients, ConnectionPoolConfig poolConfig,
+			HttpTransportType transportType, Log log) throws URISyntaxException {
+		this(dependencyTrackUrl, dependencyTrackApiKey, httpClients, false, poolConfig, transportType, log);
+	}
+
+	private DTrackClient(String dependencyTrackUrl, String dependencyTrackApiKey, SharedHttpClients httpClients, boolean ownsHttpClients,
+			ConnectionPoolConfig poolConfig, HttpTransportType transportType, Log log) throws URISyntaxException {
+		this(dependencyTrackUrl, dependencyTrackApiKey, createTransport(transportType, httpClients, poolConfig, log),
+			Arrays.asList(httpClients, poolConfig, transportType), log);
+		this.ownedHttpClients = ownsHttpClients ? httpClients : null;
+		if (log.isDebugEnabled()) {
+			log.debug("Using shared connection pool: " + poolConfig);
+		}
+	}
+
+	public DTrackClient(String dependencyTrackUrl, String dependencyTrackApiKey, HttpTransport transport, Log log) throws URISyntaxException {
+		this(dependencyTrackUrl, dependencyTrackApiKey, transport, transport, log);
+	}
+
+	private DTrackClient(String dependencyTrackUrl, String dependencyTrackApiKey, HttpTransport transport, Object transportKey, Log log) throws URISyntaxException {
 		this.baseUri = new URI(dependencyTrackUrl).resolve(API_V1);
+		this.dependencyTrackUrl = dependencyTrackUrl;
 		this.dependencyTrackApiKey = dependencyTrackApiKey;
 		this.log = log;
 		this.logPayloads = false;
+		this.baseTransport = transport;
+		this.baseTransportKey = transportKey;
+		this.transport = transport;
+		this.sharedTransport = transport;
+
+		log.info("Using API v1 at: " + baseUri);
+	}
 
-		RequestConfig config = RequestConfig.custom()
-			.setConnectTimeout(DEFAULT_TIMEOUT * 1000)
-			.setConnectionRequestTimeout(DEFAULT_TIMEOUT * 1000)
-			.setSocketTimeout(DEFAULT_TIMEOUT * 1000)
-			.build();
+	private static HttpTransport createTransport(HttpTransportType transportType, SharedHttpClients httpClients, ConnectionPoolConfig poolConfig, Log log) {
+		if (transportType == HttpTransportType.JDK) {
+			if (!JdkHttpTransport.isSupported()) {
+				throw new IllegalStateException("httpTransport JDK requires Java 11 or newer, but runs on Java "
+					+ System.getProperty("java.version"));
+			}
+			log.info("Using JDK HTTP transport with HTTP/2 support");
+			// the JDK's client is released along with the pooled clients, e.g. when the Maven session ends
+			JdkHttpTransport.Client client = httpClients.get(Arrays.asList(JdkHttpTransport.Client.class, DEFAULT_TIMEOUT * 1000),
+				() -> new JdkHttpTransport.Client(DEFAULT_TIMEOUT * 1000));
+			return new ContentEncodingTransport(new JdkHttpTransport(client), log);
+		}
 
-		this.client = HttpClients.custom()
-			.setDefaultRequestConfig(config)
-			.setDefaultHeaders(apiHeaders())
-			.setRedirectStrategy(new LaxRedirectStrategy())
-			.build();
+		// the pooled client is shared across all clients with the same pool config, thus the
+		// API headers are set per request instead of being the client's default headers
+		return new ContentEncodingTransport(new ApacheHttpTransport(httpClients.get(poolConfig, DEFAULT_TIMEOUT * 1000)), log);
+	}
 
-		log.info("Using API v1 at: " + baseUri);
+	/**
+	 * Releases the connection pool of a client, that was created with its own pool. A client sharing the pool of
+	 * a {@link SharedHttpClients} registry leaves it open for the other clients.
+	 */
+	@Override
+	public void close() {
+		if (ownedHttpClients != null) {
+			ownedHttpClients.close();
+		}
 	}
 
 	public void setLogPayloads(boolean logPayloads) {
 		this.logPayloads = logPayloads;
 	}
 
-	public List<Header> apiHeaders() {
-		Header contentType = new BasicHeader(HttpHeaders.CONTENT_TYPE, ContentType.APPLICATION_JSON.toString());
-		Header apiKey = new BasicHeader(DEPENDENCY_TRACK_API_KEY_HEADER, dependencyTrackApiKey);
-		List<Header> headersList = new ArrayList<>();
-		headersList.add(contentType);
-		headersList.add(apiKey);
-		return headersList;
+	/**
+	 * Sets the on-disk cache for GET responses, which are then revalidated by conditional requests instead
+	 * of being downloaded again. Pass <code>null</code> to disable the cache.
+	 *
+	 * @param responseCache the response cache or <code>null</code>
+	 */
+	public void setResponseCache(ResponseCache responseCache) {
+		this.responseCache = responseCache;
+		if (responseCache != null) {
+			log.info("Using response cache at: " + responseCache.getDirectory());
+		}
+		composeTransport();
+	}
+
+	/**
+	 * Sets the rate limiter, which every request has to obtain a permit from. Pass <code>null</code> to
+	 * disable rate limiting.
+	 *
+	 * @param rateLimiter the rate limiter or <code>null</code>
+	 */
+	public void setRateLimiter(RateLimiter rateLimiter) {
+		this.rateLimiter = rateLimiter;
+		composeTransport();
+	}
+
+	/**
+	 * Sets the adaptive concurrency limiter, which every request has to obtain a permit from. Pass
+	 * <code>null</code> to disable it.
+	 *
+	 * @param concurrencyLimiter the concurrency limiter or <code>null</code>
+	 */
+	public void setConcurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+		this.concurrencyLimiter = concurrencyLimiter;
+		composeTransport();
+	}
+
+	/**
+	 * Sets the policy for hedging idempotent requests. Pass <code>null</code> to disable hedging.
+	 *
+	 * @param hedgingPolicy the hedging policy or <code>null</code>
+	 */
+	public void setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+		this.hedgingPolicy = hedgingPolicy;
+		composeTransport();
+	}
+
+	/**
+	 * Sets equivalent replicas of the Dependency-Track server, e.g. several frontends of the same installation.
+	 * Requests are then routed to the healthiest replica and idempotent requests fail over to the others. Pass
+	 * <code>null</code> or an empty list to only use the configured server.
+	 *
+	 * @param replicaUrls the URLs of the replicas, the configured server is always one of them
+	 * @throws URISyntaxException if a URL is invalid
+	 */
+	public void setReplicaUrls(List<String> replicaUrls) throws URISyntaxException {
+		if (replicaUrls == null || replicaUrls.isEmpty()) {
+			this.replicas = null;
+		} else {
+			List<URI> replicas = new ArrayList<>();
+			replicas.add(baseUri);
+			for (String replicaUrl : replicaUrls) {
+				URI replica = new URI(replicaUrl).resolve(API_V1);
+				if (!replicas.contains(replica)) {
+					replicas.add(replica);
+				}
+			}
+			this.replicas = replicas;
+			log.info("Using replicas: " + replicas);
+		}
+		composeTransport();
+	}
+
+	/**
+	 * Sets the deadline of the goal. Every request's timeout is then shortened to the remaining budget, and
+	 * no request is sent anymore once it has expired.
+	 *
+	 * @param deadline the deadline, or {@link Deadline#none()}
+	 */
+	public void setDeadline(Deadline deadline) {
+		this.deadline = deadline != null ? deadline : Deadline.none();
+		composeTransport();
+	}
+
+	public Deadline getDeadline() {
+		return deadline;
+	}
+
+	/**
+	 * Sets the timeouts per class of requests, e.g. short ones for token polls and long ones for BOM transfers,
+	 * and whether they adapt to the endpoints' observed latencies. Pass <code>null</code> to use the transport's
+	 * default timeout for all requests.
+	 *
+	 * @param timeouts the request timeouts or <code>null</code>
+	 */
+	public void setRequestTimeouts(RequestTimeouts timeouts) {
+		this.timeouts = timeouts;
+		composeTransport();
+	}
+
+	/**
+	 * Sets the schedule of polling BOM tokens.
+	 *
+	 * @param pollingPolicy the polling policy, or <code>null</code> for the defaults
+	 */
+	public void setPollingPolicy(PollingPolicy pollingPolicy) {
+		this.pollingPolicy = pollingPolicy != null ? pollingPolicy : PollingPolicy.defaults();
+	}
+
+	public PollingPolicy getPollingPolicy() {
+		return pollingPolicy;
+	}
+
+	public String getDependencyTrackUrl() {
+		return dependencyTrackUrl;
+	}
+
+	/**
+	 * Sets the cache of the probed server capabilities. The server's version is then probed via
+	 * <code>/api/version</code> once per time-to-live, to select the most efficient endpoint per operation.
+	 * Pass <code>null</code> to skip probing and only use endpoints, that every supported server version
+	 * understands.
+	 *
+	 * @param capabilitiesCache the capabilities cache or <code>null</code>
+	 */
+	public void setCapabilitiesCache(ServerCapabilitiesCache capabilitiesCache) {
+		this.capabilitiesCache = capabilitiesCache;
+		this.capabilities = null;
+	}
+
+	/**
+	 * Returns the server's capabilities, probing them on first use, if a capabilities cache is set.
+	 *
+	 * @return the server's capabilities, or {@link ServerCapabilities#UNKNOWN} if they couldn't be probed
+	 */
+	public ServerCapabilities getCapabilities() {
+		ServerCapabilities current = capabilities;
+		if (current != null) {
+			return current;
+		}
+
+		synchronized (this) {
+			if (capabilities != null) {
+				return capabilities;
+			}
+			if (capabilitiesCache == null) {
+				capabilities = ServerCapabilities.UNKNOWN;
+				return capabilities;
+			}
+			try {
+				capabilities = capabilitiesCache.get(dependencyTrackUrl,
+					() -> new ServerCapabilities(getServerVersion().getVersion()), log);
+				log.info("Dependency-Track server version: " + capabilities.getVersion());
+			} catch (IOException e) {
+				log.warn("Could not probe the Dependency-Track server version, using endpoints of all versions: " + e.getMessage());
+				capabilities = ServerCapabilities.UNKNOWN;
+			}
+			return capabilities;
+		}
+	}
+
+	public ServerVersion getServerVersion() throws IOException {
+		URI uri = baseUri.resolve(API_VERSION);
+		TransportRequest request = timeout(httpGet(uri), TimeoutClass.POLL);
+		return execute(request, responseBodyHandler(ServerVersion.class));
+	}
+
+	private void composeTransport() {
+		HttpTransport composed = baseTransport;
+		// latencies are observed per replica and without the waits for permits
+		if (timeouts != null && timeouts.getAdaptiveLatencies() != null) {
+			composed = new AdaptiveTimeoutTransport(composed, timeouts.getAdaptiveLatencies(),
+				timeouts.getAdaptivePercentile(), timeouts.getAdaptiveMultiplier(), timeouts.getAdaptiveMinMillis(), log);
+		}
+		// the failover attempts of a request share its permits
+		if (replicas != null) {
+			composed = new FailoverTransport(composed, baseUri, replicas, log);
+		}
+		if (concurrencyLimiter != null) {
+			composed = new ConcurrencyLimitingTransport(composed, concurrencyLimiter);
+		}
+		// a rate limit permit is obtained before waiting for a free concurrency slot
+		if (rateLimiter != null) {
+			composed = new RateLimitingTransport(composed, rateLimiter, log);
+		}
+		// each hedged request obtains its own permits
+		if (hedgingPolicy != null) {
+			composed = new HedgingTransport(composed, hedgingPolicy.getDelayMillis(), hedgingPolicy.getLatencyPercentile(), log);
+		}
+		// conditional requests still hit the server, thus the cache goes on top of the rate limit
+		if (responseCache != null) {
+			composed = new CachingTransport(composed, responseCache, DEPENDENCY_TRACK_API_KEY_HEADER, log);
+		}
+		this.sharedTransport = composed;
+		// the deadline bounds the whole request, including the waits for permits
+		if (deadline.isBounded()) {
+			composed = new DeadlineTransport(composed, deadline);
+		}
+		this.transport = composed;
+	}
+
+	/**
+	 * Sets the page size for retrieving findings. A value of <code>0</code> or less disables pagination.
+	 *
+	 * @param findingsPageSize the number of findings per page
+	 */
+	public void setFindingsPageSize(int findingsPageSize) {
+		this.findingsPageSize = findingsPageSize;
+	}
+
+	/**
+	 * Sets the number of findings pages, that are fetched concurrently.
+	 *
+	 * @param findingsFetchParallelism the maximum number of concurrent page requests
+	 */
+	public void setFindingsFetchParallelism(int findingsFetchParallelism) {
+		this.findingsFetchParallelism = Math.max(1, findingsFetchParallelism);
+	}
+
+	public Map<String, String> apiHeaders() {
+		Map<String, String> headers = new LinkedHashMap<>();
+		headers.put(HttpHeaders.CONTENT_TYPE, ContentType.APPLICATION_JSON.toString());
+		headers.put(DEPENDENCY_TRACK_API_KEY_HEADER, dependencyTrackApiKey);
+		return headers;
 	}
 
 	public void uploadAnalysis(Analysis payload) throws IOException {
+		execute(analysisRequest(payload), responseBodyHandler());
+	}
+
+	/**
+	 * Uploads the analysis like {@link #uploadAnalysis(Analysis)}, but without waiting for the response.
+	 *
+	 * @param payload the analysis
+	 * @return a future completing once the analysis has been uploaded
+	 */
+	public CompletableFuture<Void> uploadAnalysisAsync(Analysis payload) {
+		try {
+			return executeAsync(analysisRequest(payload), responseBodyHandler());
+		} catch (IOException e) {
+			return failed(e);
+		}
+	}
+
+	private TransportRequest analysisRequest(Analysis payload) throws IOException {
 		URI uri = baseUri.resolve(API_ANALYSIS);
 		String payloadAsString = objectMapper.writeValueAsString(payload);
-		HttpPut request = httpPut(uri, payloadAsString);
+		TransportRequest request = httpPut(uri, payloadAsString);
 		log.info(String.format(
 			"Uploading analysis for project: %s, component=%s, vulnerability=%s",
 			payload.getProjectUuid(), payload.getComponentUuid(), payload.getVulnerabilityUuid()
@@ -129,74 +484,162 @@ public class DTrackClient {
 		if (logPayloads) {
 			log.info("Analysis payload: ");
 		}
-		client.execute(request, responseBodyHandler());
+		return request;
 	}
 
-	public void uploadScan(ScanSubmitRequest payload) throws IOException {
+	/**
+	 * Uploads the scan file as base64 encoded field of a JSON payload, which is encoded
+	 * on the fly while streaming the request.
+	 *
+	 * @param payload the scan submit request describing the target project; its <code>scan</code> field is ignored
+	 * @param scanFile the scan file to upload
+	 * @throws IOException if the upload fails
+	 */
+	public void uploadScan(ScanSubmitRequest payload, Path scanFile) throws IOException {
 		URI uri = baseUri.resolve(API_UPLOAD_SCAN);
-		String payloadAsString = objectMapper.writeValueAsString(payload);
-		HttpPut request = httpPut(uri, payloadAsString);
+		TransportRequest request = timeout(httpPut(uri, new Base64JsonFileEntity(objectMapper, payload, "scan", scanFile)), TimeoutClass.TRANSFER);
 		log.info("Uploading scan artifact to: " + uri);
-		client.execute(request, responseBodyHandler());
+		execute(request, responseBodyHandler());
 	}
 
-	public TokenResponse uploadBom(BomSubmitRequest payload) throws IOException {
+	/**
+	 * Uploads the BOM file as base64 encoded field of a JSON payload, which is encoded
+	 * on the fly while streaming the request.
+	 *
+	 * @param payload the BOM submit request describing the target project; its <code>bom</code> field is ignored
+	 * @param bomFile the BOM file to upload
+	 * @return the token response for the uploaded BOM
+	 * @throws IOException if the upload fails
+	 */
+	public TokenResponse uploadBom(BomSubmitRequest payload, Path bomFile) throws IOException {
+		return uploadBom(payload, EncodedBom.of(bomFile));
+	}
+
+	/**
+	 * Uploads the BOM as base64 encoded field of a JSON payload. A shared BOM is encoded only once
+	 * for all uploads, e.g. to several servers.
+	 *
+	 * @param payload the BOM submit request describing the target project; its <code>bom</code> field is ignored
+	 * @param bom the BOM to upload
+	 * @return the token response for the uploaded BOM
+	 * @throws IOException if the upload fails
+	 */
+	public TokenResponse uploadBom(BomSubmitRequest payload, EncodedBom bom) throws IOException {
 		URI uri = baseUri.resolve(API_UPLOAD_BOM);
-		String payloadAsString = objectMapper.writeValueAsString(payload);
-		HttpPut request = httpPut(uri, payloadAsString);
+		TransportRequest request = timeout(httpPut(uri, bom.jsonEntity(objectMapper, payload)), TimeoutClass.TRANSFER);
 		log.info("Uploading bom artifact to: " + uri);
-		TokenResponse response = client.execute(request, responseBodyHandler(TokenResponse.class));
+		TokenResponse response = execute(request, responseBodyHandler(TokenResponse.class));
 		log.info("BOM response token: " + response.getToken());
 		return response;
 	}
 
+	/**
+	 * Uploads the BOM file as <code>multipart/form-data</code>, streaming its content directly
+	 * from disk, instead of holding a base64 encoded copy of it in memory.
+	 *
+	 * @param payload the BOM submit request describing the target project; its <code>bom</code> field is ignored
+	 * @param bomFile the BOM file to upload
+	 * @return the token response for the uploaded BOM
+	 * @throws IOException if the upload fails
+	 */
+	public TokenResponse uploadBomMultipart(BomSubmitRequest payload, Path bomFile) throws IOException {
+		URI uri = baseUri.resolve(API_UPLOAD_BOM);
+		MultipartEntityBuilder entityBuilder = MultipartEntityBuilder.create()
+			.setMode(HttpMultipartMode.RFC6532);
+		addTextPart(entityBuilder, "project", payload.getProject());
+		addTextPart(entityBuilder, "projectName", payload.getProjectName());
+		addTextPart(entityBuilder, "projectVersion", payload.getProjectVersion());
+		addTextPart(entityBuilder, "parentName", payload.getParentName());
+		addTextPart(entityBuilder, "parentVersion", payload.getParentVersion());
+		addTextPart(entityBuilder, "autoCreate", payload.getAutoCreate());
+		entityBuilder.addPart("bom", new FileBody(bomFile.toFile(), ContentType.APPLICATION_OCTET_STREAM));
+
+		TransportRequest request = timeout(httpPostMultipart(uri, entityBuilder.build()), TimeoutClass.TRANSFER);
+		log.info("Uploading bom artifact as multipart to: " + uri);
+		TokenResponse response = execute(request, responseBodyHandler(TokenResponse.class));
+		log.info("BOM response token: " + response.getToken());
+		return response;
+	}
+
+	private void addTextPart(MultipartEntityBuilder entityBuilder, String name, Object value) {
+		if (value != null) {
+			entityBuilder.addTextBody(name, value.toString(), ContentType.TEXT_PLAIN.withCharset(StandardCharsets.UTF_8));
+		}
+	}
+
 	public File downloadBom(UUID projectId, Path destinationPath, BomFormat format) throws IOException {
 		URI uri = baseUri.resolve(API_DOWNLOAD_BOM + projectId.toString() + "?format=" + format);
-		HttpGet request = httpGet(uri);
-		return client.execute(request, downloadResponseHandler(destinationPath.toFile()));
+		TransportRequest request = timeout(httpGet(uri), TimeoutClass.TRANSFER);
+		return execute(request, downloadResponseHandler(destinationPath.toFile()));
 	}
 
 	public TokenProcessedResponse checkIfTokenIsBeingProcessed(UUID token) throws IOException {
-		URI uri = baseUri.resolve(API_TOKEN_PROCESSING + token.toString());
-		HttpGet request = httpGet(uri);
-		return client.execute(request, responseBodyHandler(TokenProcessedResponse.class));
+		return execute(tokenRequest(token), responseBodyHandler(TokenProcessedResponse.class));
+	}
+
+	/**
+	 * Checks the token like {@link #checkIfTokenIsBeingProcessed(UUID)}, but without waiting for the response.
+	 *
+	 * @param token the token to check
+	 * @return a future completing with the token's processing status
+	 */
+	public CompletableFuture<TokenProcessedResponse> checkIfTokenIsBeingProcessedAsync(UUID token) {
+		return checkIfTokenIsBeingProcessedAsync(token, request -> {});
+	}
+
+	private CompletableFuture<TokenProcessedResponse> checkIfTokenIsBeingProcessedAsync(UUID token, Consumer<TransportRequest> onRequest) {
+		TransportRequest request = tokenRequest(token);
+		onRequest.accept(request);
+		return executeAsync(request, responseBodyHandler(TokenProcessedResponse.class));
+	}
+
+	private TransportRequest tokenRequest(UUID token) {
+		String tokenPath = getCapabilities().isEventTokenSupported() ? API_EVENT_TOKEN : API_TOKEN_PROCESSING;
+		URI uri = baseUri.resolve(tokenPath + token.toString());
+		return timeout(httpGet(uri), TimeoutClass.POLL);
 	}
 
 	public CompletableFuture<Boolean> pollTokenProcessing(UUID token, Executor executor) {
-		Supplier<Boolean> checkToken = () -> {
-			try {
-				log.info("Polling token [" + Instant.now() + "]: " + token);
-				return checkIfTokenIsBeingProcessed(token).isProcessing();
-			} catch (Exception e) {
-				throw new CompletionException("Error during token polling", e);
-			}
-		};
+		return pollTokenProcessing(token, executor, 0);
+	}
 
-		return CompletableFuture.supplyAsync(checkToken, executor)
-			.thenCompose(isProcessing -> {
-				if (isProcessing) {
-					try {
-						log.info("Token is still being processed, will retry in 5 seconds");
-						return pollTokenProcessing(token,
-							CompletableFutureUtils.delayedExecutor(5, TimeUnit.SECONDS));
-					} catch (Exception e) {
-						throw new CompletionException("Error during token polling", e);
-					}
-				}
-				return CompletableFuture.completedFuture(isProcessing);
-			});
+	/**
+	 * Polls the token until it has been processed, backing off between the checks according to the polling policy.
+	 * <p>
+	 * Cancelling the returned future stops the polling: the scheduled next check is removed and a check in
+	 * flight is aborted.
+	 *
+	 * @param token the token to poll
+	 * @param executor the executor of the checks
+	 * @param firstDelayMillis the delay of the first check, e.g. the predicted processing time
+	 * @return a future completing with whether the token is still being processed, i.e. <code>false</code>
+	 */
+	public CompletableFuture<Boolean> pollTokenProcessing(UUID token, Executor executor, long firstDelayMillis) {
+		return pollTokenProcessing(token, executor, firstDelayMillis, pollingPolicy);
+	}
+
+	/**
+	 * Polls the token like {@link #pollTokenProcessing(UUID, Executor, long)}, but with the given polling policy
+	 * instead of the client's one.
+	 */
+	public CompletableFuture<Boolean> pollTokenProcessing(UUID token, Executor executor, long firstDelayMillis, PollingPolicy pollingPolicy) {
+		TokenPolling.Check check = polling -> {
+			log.info("Polling token [" + Instant.now() + "]: " + token);
+			return checkIfTokenIsBeingProcessedAsync(token, polling::register).thenApply(TokenProcessedResponse::isProcessing);
+		};
+		return new TokenPolling(token, check, pollingPolicy, executor, log).start(firstDelayMillis);
 	}
 
 	public Project getProject(UUID uuid) throws IOException {
 		URI uri = baseUri.resolve(API_PROJECT + "/" + uuid.toString());
-		HttpGet request = httpGet(uri);
-		return client.execute(request, responseBodyHandler(Project.class));
+		TransportRequest request = httpGet(uri);
+		return executeShared(request, responseBodyHandler(Project.class));
 	}
 
 	public Project getProject(String name) throws IOException {
 		URI uri = baseUri.resolve(API_PROJECT + "?name=" + URLEncoder.encode(name, StandardCharsets.UTF_8.name()));
-		HttpGet request = httpGet(uri);
-		Project[] projects = client.execute(request, responseBodyHandler(Project[].class));
+		TransportRequest request = httpGet(uri);
+		Project[] projects = executeShared(request, responseBodyHandler(Project[].class));
 
 		if (projects != null && projects.length > 0) {
 			// Maybe we should sort the projects somehow. The most intuitive sort would be by version.
@@ -219,8 +662,8 @@ public class DTrackClient {
 				+ "?name=" + URLEncoder.encode(name, StandardCharsets.UTF_8.name())
 				+ "&version=" + URLEncoder.encode(version, StandardCharsets.UTF_8.name())
 		);
-		HttpGet request = httpGet(uri);
-		return client.execute(request, responseBodyHandler(Project.class));
+		TransportRequest request = httpGet(uri);
+		return executeShared(request, responseBodyHandler(Project.class));
 	}
 
 	public Project createProject(String name, String version, CollectionLogic collectionLogic, Tag collectionTag) throws IOException {
@@ -231,33 +674,13 @@ public class DTrackClient {
 		payload.setCollectionLogic(collectionLogic == null ? CollectionLogic.NONE : collectionLogic);
 		payload.setCollectionTag(collectionTag);
 		String payloadAsString = objectMapper.writeValueAsString(payload);
-		HttpPut request = httpPut(uri, payloadAsString);
+		TransportRequest request = httpPut(uri, payloadAsString);
 		log.info(String.format("Creating project '%s:%s' by: %s", payload.getName(), payload.getVersion(), uri));
-		Project response = client.execute(request, responseBodyHandler(Project.class));
+		Project response = execute(request, responseBodyHandler(Project.class));
 		log.info("Successfully created project: " + response);
 		return response;
 	}
 
-	public Project applyProjectParent(Project project, Project parent) throws IOException {
-		// since there is a bug in DTrack v4.13.0 that resets the collectionLogic and isLatest when PATCHing a project, we POSTing it instead
-		project.setParent(parent);
-		return postProject(project);
-	}
-
-	public Project applyCollectionLogic(Project project, CollectionLogic collectionLogic, String collectionTag) throws IOException {
-		if (collectionLogic == null) throw new IllegalArgumentException("collectionLogic should not be 'null'!");
-		Map<String, Object> payload = new HashMap<>();
-
-		// TODO: remove, when the bug is fixed in dependency track api!
-		// due to a bug in dependency track, patching a project would reset the applied isLatest value
-		// so as a workaround we require to patch this value also!
-		payload.put("isLatest", project.getIsLatest());
-
-		payload.put("collectionLogic", collectionLogic);
-		payload.put("collectionTag", !ObjectUtils.isEmpty(collectionTag) ? new Tag(collectionTag) : null);
-		return patchProject(project, payload);
-	}
-
 	public Project patchProjectActive(UUID projectUuid, boolean active, CollectionLogic collectionLogic, Tag collectionTag) throws IOException {
 		Map<String, Object> payload = new HashMap<>();
 		
@@ -271,50 +694,62 @@ public class DTrackClient {
 		return patchProject(projectUuid, payload);
 	}
 	
-	public Project applyLatest(Project project, boolean latest) throws IOException {
-		Map<String, Object> payload = new HashMap<>();
-
-		// TODO: remove, when the bug is fixed in dependency track api!
-		// due to a bug in dependency track, patching a project would reset the applied collectionLogic and collectionTags!
-		// so as a workaround we require to patch those values also!
-		payload.put("collectionLogic", project.getCollectionLogic());
-		payload.put("collectionTag", project.getCollectionTag());
-
-		payload.put("isLatest", latest);
-		return patchProject(project, payload);
-	}
-
 	public Project patchProject(Project project, Map<String, Object> payload) throws IOException {
 		return patchProject(project.getUuid(), payload);
 	}
 
 	public Project patchProject(UUID projectUuid, Map<String, Object> payload) throws IOException {
-		URI uri = baseUri.resolve(API_PROJECT + "/" + projectUuid.toString());
 		String payloadAsString = objectMapper.writeValueAsString(payload);
-		HttpPatch request = httpPatch(uri, payloadAsString);
+		Project response = execute(patchRequest(projectUuid, payloadAsString), responseBodyHandler(Project.class));
+		logPatched(response, payloadAsString);
+		return response;
+	}
+
+	/**
+	 * Patches the project like {@link #patchProject(UUID, Map)}, but without waiting for the response.
+	 *
+	 * @param projectUuid the UUID of the project
+	 * @param payload the properties to patch
+	 * @return a future completing with the patched project
+	 */
+	public CompletableFuture<Project> patchProjectAsync(UUID projectUuid, Map<String, Object> payload) {
+		String payloadAsString;
+		try {
+			payloadAsString = objectMapper.writeValueAsString(payload);
+		} catch (IOException e) {
+			return failed(e);
+		}
+		return executeAsync(patchRequest(projectUuid, payloadAsString), responseBodyHandler(Project.class)).thenApply(response -> {
+			logPatched(response, payloadAsString);
+			return response;
+		});
+	}
+
+	private TransportRequest patchRequest(UUID projectUuid, String payloadAsString) {
+		URI uri = baseUri.resolve(API_PROJECT + "/" + projectUuid.toString());
 
 		if (log.isDebugEnabled()) {
 			log.debug(String.format("Patching project '%s' by applying payload: '%s'",
 				projectUuid.toString(), payloadAsString
 			));
 		}
+		return httpPatch(uri, payloadAsString);
+	}
 
-		Project response = client.execute(request, responseBodyHandler(Project.class));
-
+	private void logPatched(Project response, String payloadAsString) {
 		if (log.isDebugEnabled()) {
 			log.debug(String.format(
 				"Successfully patched project '%s:%s' by applying payload: '%s'",
 				response.getName(), response.getVersion(), payloadAsString
 			));
 		}
-		return response;
 	}
 
 
 	public Project postProject(Project project) throws IOException {
 		URI uri = baseUri.resolve(API_PROJECT);
 		String payloadAsString = objectMapper.writeValueAsString(project);
-		HttpPost request = httpPost(uri, payloadAsString);
+		TransportRequest request = httpPost(uri, payloadAsString);
 
 		if (log.isDebugEnabled()) {
 			log.debug(String.format("Posting project: '%s'",
@@ -322,7 +757,7 @@ public class DTrackClient {
 			));
 		}
 
-		Project response = client.execute(request, responseBodyHandler(Project.class));
+		Project response = execute(request, responseBodyHandler(Project.class));
 
 		if (log.isDebugEnabled()) {
 			log.debug(String.format(
@@ -335,14 +770,139 @@ public class DTrackClient {
 	}
 
 	public List<Finding> getProjectFindings(UUID projectId) throws IOException {
+		List<Finding> findings = new ArrayList<>();
+		forEachProjectFinding(projectId, findings::add);
+		return findings;
+	}
+
+	/**
+	 * Hands each finding of a project to the consumer in order, without collecting all findings first.
+	 * <p>
+	 * Unpaged responses are parsed as a stream, so each finding reaches the consumer as soon as it is read,
+	 * while paged responses are handed over one page at a time.
+	 *
+	 * @param projectId the UUID of the project
+	 * @param consumer the consumer for each finding
+	 * @return the number of consumed findings
+	 * @throws IOException if the request or parsing fails
+	 */
+	public int forEachProjectFinding(UUID projectId, Consumer<? super Finding> consumer) throws IOException {
+		if (findingsPageSize <= 0 || !getCapabilities().isFindingsPaginationSupported()) {
+			return streamProjectFindings(projectId, consumer);
+		}
+
+		FindingsPage firstPage = getProjectFindingsPage(projectId, 1);
+		firstPage.findings.forEach(consumer);
+		int count = firstPage.findings.size();
+
+		// servers without pagination support return all findings on the first page
+		if (firstPage.findings.size() != findingsPageSize
+			|| (firstPage.totalCount != null && firstPage.totalCount <= firstPage.findings.size())) {
+			return count;
+		}
+
+		if (firstPage.totalCount == null) {
+			// without a total count the remaining pages can only be fetched one after another
+			log.debug("No " + TOTAL_COUNT_HEADER + " header in findings response, fetching remaining pages sequentially");
+			FindingsPage page = firstPage;
+			for (int pageNumber = 2; page.findings.size() == findingsPageSize; pageNumber++) {
+				if (pageNumber > MAX_SEQUENTIAL_FINDINGS_PAGES) {
+					throw new IOException("Findings exceed " + MAX_SEQUENTIAL_FINDINGS_PAGES + " pages of " + findingsPageSize);
+				}
+				FindingsPage nextPage = getProjectFindingsPage(projectId, pageNumber);
+				// servers ignoring the paging parameters return all findings on every page
+				if (!nextPage.findings.isEmpty() && sameFinding(nextPage.findings.get(0), page.findings.get(0))) {
+					log.debug("Findings page " + pageNumber + " repeats the previous page, the server doesn't support pagination");
+					break;
+				}
+				nextPage.findings.forEach(consumer);
+				count += nextPage.findings.size();
+				page = nextPage;
+			}
+			return count;
+		}
+
+		int pageCount = (int) ((firstPage.totalCount + findingsPageSize - 1) / findingsPageSize);
+		log.debug(String.format("Fetching %d findings in %d pages with parallelism %d",
+			firstPage.totalCount, pageCount, findingsFetchParallelism));
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(findingsFetchParallelism, pageCount - 1), runnable -> {
+			Thread thread = new Thread(runnable, "dtrack-findings-page");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		try {
+			List<Future<FindingsPage>> pages = new ArrayList<>();
+			for (int pageNumber = 2; pageNumber <= pageCount; pageNumber++) {
+				int currentPageNumber = pageNumber;
+				pages.add(executor.submit(() -> getProjectFindingsPage(projectId, currentPageNumber)));
+			}
+
+			// merge in page order, regardless of the order in which the pages completed
+			for (Future<FindingsPage> page : pages) {
+				List<Finding> pageFindings = page.get().findings;
+				pageFindings.forEach(consumer);
+				count += pageFindings.size();
+			}
+			return count;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while fetching findings pages", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException("Error fetching findings pages", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static boolean sameFinding(Finding finding, Finding other) {
+		return finding.getComponent() != null && other.getComponent() != null
+			&& finding.getVulnerability() != null && other.getVulnerability() != null
+			&& Objects.equals(finding.getComponent().getUuid(), other.getComponent().getUuid())
+			&& Objects.equals(finding.getVulnerability().getUuid(), other.getVulnerability().getUuid());
+	}
+
+	private FindingsPage getProjectFindingsPage(UUID projectId, int pageNumber) throws IOException {
+		URI uri = baseUri.resolve(API_PROJECT_FINDINGS + projectId.toString()
+			+ "?suppressed=true&pageSize=" + findingsPageSize + "&pageNumber=" + pageNumber);
+		if (log.isDebugEnabled()) {
+			log.debug("Invoking uri => " + uri);
+		}
+
+		TransportRequest request = httpGet(uri);
+		FindingsPage page = new FindingsPage();
+		return execute(request, response -> {
+			String totalCount = response.getFirstHeader(TOTAL_COUNT_HEADER);
+			if (totalCount != null) {
+				try {
+					page.totalCount = Long.parseLong(totalCount.trim());
+				} catch (NumberFormatException e) {
+					log.debug("Ignoring invalid " + TOTAL_COUNT_HEADER + " header: " + totalCount);
+				}
+			}
+			responseArrayHandler(Finding.class, page.findings::add).handle(response);
+			return page;
+		});
+	}
+
+	private static final class FindingsPage {
+
+		private final List<Finding> findings = new ArrayList<>();
+		private Long totalCount;
+	}
+
+	private int streamProjectFindings(UUID projectId, Consumer<? super Finding> consumer) throws IOException {
 		URI uri = baseUri.resolve(API_PROJECT_FINDINGS + projectId.toString() + "?suppressed=true");
 		if (log.isDebugEnabled()) {
 			log.debug("Invoking uri => " + uri);
 		}
 
-		HttpGet request = httpGet(uri);
-		Finding[] findings = client.execute(request, responseBodyHandler(Finding[].class));
-		return Arrays.asList(findings);
+		TransportRequest request = timeout(httpGet(uri), TimeoutClass.TRANSFER);
+		return execute(request, responseArrayHandler(Finding.class, consumer));
 	}
 
 	public ProjectMetrics getProjectMetrics(UUID projectId, int retryDelay, int retryLimit) throws IOException {
@@ -354,6 +914,15 @@ public class DTrackClient {
 			throw new IllegalArgumentException("Project metrics retry delay must be >= 0");
 		}
 
+		if (deadline.isBounded() && retryDelay > 0) {
+			// only retry as long as the deadline allows
+			long affordableRetries = TimeUnit.MILLISECONDS.toSeconds(deadline.remainingMillis()) / retryDelay;
+			if (affordableRetries < retryLimit) {
+				log.info("Limiting project metrics retries to " + affordableRetries + " due to the deadline");
+				retryLimit = (int) affordableRetries;
+			}
+		}
+
 		Supplier<ProjectMetrics> projectMetricsSupplier = () -> {
 			ProjectMetrics metrics = null;
 			try {
@@ -373,106 +942,188 @@ public class DTrackClient {
 			log.debug("Invoking uri => " + uri);
 		}
 
-		HttpGet request = httpGet(uri);
-		return client.execute(request, responseBodyHandler(ProjectMetrics.class));
+		TransportRequest request = httpGet(uri);
+		return executeShared(request, responseBodyHandler(ProjectMetrics.class));
+	}
+
+	private <R> R execute(TransportRequest request, TransportResponseHandler<R> handler) throws IOException {
+		try (TransportResponse response = transport.execute(timeout(request, TimeoutClass.METADATA))) {
+			return handler.handle(response);
+		}
+	}
+
+	/**
+	 * Executes the request like {@link #execute(TransportRequest, TransportResponseHandler)}, but without waiting
+	 * for the response. The handler runs on the thread completing the response, e.g. one of the transport's
+	 * I/O threads, thus it should only be used for small responses.
+	 */
+	private <R> CompletableFuture<R> executeAsync(TransportRequest request, TransportResponseHandler<R> handler) {
+		return transport.executeAsync(timeout(request, TimeoutClass.METADATA)).thenApply(response -> {
+			try (TransportResponse handled = response) {
+				return handler.handle(handled);
+			} catch (IOException e) {
+				throw new CompletionException(e);
+			}
+		});
+	}
+
+	private static <R> CompletableFuture<R> failed(Throwable failure) {
+		CompletableFuture<R> future = new CompletableFuture<>();
+		future.completeExceptionally(failure);
+		return future;
+	}
+
+	/**
+	 * Executes an idempotent GET, sharing its response with all identical GETs in flight at the same time,
+	 * e.g. by the modules of a parallel build looking up their common parent project. The shared response
+	 * is buffered and handled by each caller separately, so every caller gets its own parsed result.
+	 * <p>
+	 * The shared request is only bounded by its timeout, while each caller waits for it at most until its
+	 * own deadline, since the goals of the modules start their deadlines at different times.
+	 */
+	private <R> R executeShared(TransportRequest request, TransportResponseHandler<R> handler) throws IOException {
+		timeout(request, TimeoutClass.METADATA);
+		// followers get the leader's response, thus they have to share all settings affecting how it is requested
+		List<Object> key = Arrays.asList(request.getUri(), dependencyTrackApiKey, baseTransportKey, replicas, timeouts,
+			rateLimiter, concurrencyLimiter, hedgingPolicy, responseCache != null ? responseCache.getDirectory() : null);
+		Thread caller = Thread.currentThread();
+		BufferedResponse shared = IN_FLIGHT_GETS.execute(key, () -> {
+			try (TransportResponse response = sharedTransport.execute(request)) {
+				return new BufferedResponse(response, caller);
+			}
+		}, deadline, SHARED_GETS);
+
+		if (shared.leader != caller && log.isDebugEnabled()) {
+			log.debug("Shared in-flight response of: " + request);
+		}
+		try (TransportResponse response = shared.toResponse()) {
+			return handler.handle(response);
+		}
+	}
+
+	private static final class BufferedResponse {
+
+		private final int statusCode;
+		private final String reasonPhrase;
+		private final Map<String, List<String>> headers;
+		private final byte[] body;
+		private final Thread leader;
+
+		private BufferedResponse(TransportResponse response, Thread leader) throws IOException {
+			this.statusCode = response.getStatusCode();
+			this.reasonPhrase = response.getReasonPhrase();
+			this.headers = response.getHeaders();
+			this.body = response.getBody() != null ? IOUtil.toByteArray(response.getBody()) : null;
+			this.leader = leader;
+		}
+
+		private TransportResponse toResponse() {
+			InputStream content = body != null ? new ByteArrayInputStream(body) : null;
+			return new TransportResponse(statusCode, reasonPhrase, headers, content, null);
+		}
 	}
 
-	private <R> ResponseHandler<R> responseBodyHandler(final Class<R> responseType) {
+	private <R> TransportResponseHandler<R> responseBodyHandler(final Class<R> responseType) {
 		return response -> {
-			processResponseStatus(response);
-			String responseString = EntityUtils.toString(response.getEntity());
-			if (responseString != null) {
-				if (logPayloads) {
-					log.info("Response string " + responseString);
-				}
-				return objectMapper.readValue(responseString, responseType);
-			} else {
+			ResponseStatus.check(response, log);
+			InputStream content = response.getBody();
+			if (content == null) {
 				log.warn("Unable to find response string, returning null ");
 				return null;
 			}
+
+			if (logPayloads) {
+				String responseString = IOUtil.toString(content, StandardCharsets.UTF_8.name());
+				log.info("Response string " + responseString);
+				return objectMapper.readValue(responseString, responseType);
+			}
+
+			// parse directly from the response stream, instead of buffering the whole response as a string first
+			return objectMapper.readValue(content, responseType);
 		};
 	}
 
-	private <R> ResponseHandler<R> responseBodyHandler() {
+	private <R> TransportResponseHandler<Integer> responseArrayHandler(final Class<R> elementType, final Consumer<? super R> consumer) {
 		return response -> {
-			processResponseStatus(response);
+			ResponseStatus.check(response, log);
+			InputStream content = response.getBody();
+			if (content == null) {
+				log.warn("Unable to find response string, returning no elements");
+				return 0;
+			}
+
+			try (JsonParser parser = objectMapper.getFactory().createParser(content)) {
+				if (parser.nextToken() != JsonToken.START_ARRAY) {
+					throw new JsonParseException(parser, "Expected a JSON array of " + elementType.getSimpleName());
+				}
+
+				int count = 0;
+				while (parser.nextToken() == JsonToken.START_OBJECT) {
+					R element = objectMapper.readValue(parser, elementType);
+					if (logPayloads) {
+						log.info("Response element " + objectMapper.writeValueAsString(element));
+					}
+					consumer.accept(element);
+					count++;
+				}
+				return count;
+			}
+		};
+	}
+
+	private <R> TransportResponseHandler<R> responseBodyHandler() {
+		return response -> {
+			ResponseStatus.check(response, log);
 			return null;
 		};
 	}
 
-	private ResponseHandler<File> downloadResponseHandler(File target) {
+	private TransportResponseHandler<File> downloadResponseHandler(File target) {
 		return response -> {
-			InputStreamFacade source = () -> response.getEntity().getContent();
+			InputStreamFacade source = response::getBody;
 			FileUtils.copyStreamToFile(source, target);
 			return target;
 		};
 	}
 
-	private void processResponseStatus(HttpResponse response) throws HttpResponseException {
-		StatusLine statusLine = response.getStatusLine();
-		logResponseCode(statusLine.getStatusCode());
-		if (statusLine.getStatusCode() >= 300) {
-			handleNonSuccessCode(response);
-		}
+	private TransportRequest httpPut(URI uri, String body) {
+		return withApiHeaders(new TransportRequest("PUT", uri, RequestBody.json(body)));
 	}
 
-	private void handleNonSuccessCode(HttpResponse response) throws HttpResponseException {
-		StatusLine statusLine = response.getStatusLine();
-		String detail;
-		try {
-			String body = EntityUtils.toString(response.getEntity());
-			detail = String.format("[%s] %s", statusLine.getReasonPhrase(), body);
-		} catch (Exception e) {
-			detail = statusLine.getReasonPhrase();
-		}
-		throw new HttpResponseException(statusLine.getStatusCode(), detail);
-	}
-
-	private void logResponseCode(int statusCode) {
-		switch (statusCode) {
-			case 200:
-				log.debug("Request successful");
-				break;
-			case 400:
-				log.error("Bad request. Probably an error in the plugin itself.");
-				break;
-			case 401:
-				log.error("Unauthenticated. Check your API Key");
-				break;
-			case 403:
-				log.error("Unauthorized. Check the permissions of the provided API Key. "
-					+ "Required are: SCAN_UPLOAD and either PROJECT_CREATION_UPLOAD or PORTFOLIO_MANAGEMENT");
-				break;
-			default:
-				log.warn("Received status code: " + statusCode);
-				break;
-		}
-	}
-
-	private HttpPut httpPut(URI uri, String body) {
-		HttpPut request = new HttpPut();
-		request.setURI(uri);
-		request.setEntity(EntityBuilder.create().setText(body).build());
-		return request;
+	private TransportRequest httpPut(URI uri, HttpEntity entity) {
+		return withApiHeaders(new TransportRequest("PUT", uri, RequestBody.of(entity)));
 	}
 
-	private HttpPost httpPost(URI uri, String body) {
-		HttpPost request = new HttpPost();
-		request.setURI(uri);
-		request.setEntity(EntityBuilder.create().setText(body).build());
-		return request;
+	private TransportRequest httpPost(URI uri, String body) {
+		return withApiHeaders(new TransportRequest("POST", uri, RequestBody.json(body)));
 	}
 
-	private HttpGet httpGet(URI uri) {
-		HttpGet request = new HttpGet();
-		request.setURI(uri);
+	private TransportRequest httpPostMultipart(URI uri, HttpEntity entity) {
+		// the content type including the multipart boundary is provided by the entity
+		return new TransportRequest("POST", uri, RequestBody.of(entity))
+			.header(DEPENDENCY_TRACK_API_KEY_HEADER, dependencyTrackApiKey);
+	}
+
+	private TransportRequest httpGet(URI uri) {
+		return withApiHeaders(TransportRequest.get(uri));
+	}
+
+	private TransportRequest httpPatch(URI uri, String body) {
+		return withApiHeaders(new TransportRequest("PATCH", uri, RequestBody.json(body)));
+	}
+
+	/**
+	 * Sets the timeout of the given class, unless the request already has one.
+	 */
+	private TransportRequest timeout(TransportRequest request, TimeoutClass timeoutClass) {
+		if (timeouts != null && request.getTimeoutClass() == null) {
+			request.timeout(timeouts.timeoutMillis(timeoutClass), timeoutClass);
+		}
 		return request;
 	}
 
-	private HttpPatch httpPatch(URI uri, String body) {
-		HttpPatch request = new HttpPatch();
-		request.setURI(uri);
-		request.setEntity(EntityBuilder.create().setText(body).build());
+	private TransportRequest withApiHeaders(TransportRequest request) {
+		apiHeaders().forEach(request::header);
 		return request;
 	}
 }
@@ -0,0 +1,100 @@
+package iabudiab.maven.plugins.dependencytrack.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.FileEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import iabudiab.maven.plugins.dependencytrack.client.model.BomSubmitRequest;
+
+/**
+ * A BOM file to be uploaded to one or more Dependency-Track servers.
+ * <p>
+ * A BOM uploaded once is base64 encoded on the fly while streaming the request. A shared BOM, that is
+ * uploaded to several servers, is encoded only once into a temporary file on the first JSON upload,
+ * which is then streamed by all JSON uploads of the same payload. Multipart uploads always stream the
+ * BOM file itself, since they don't need any encoding.
+ */
+public final class EncodedBom implements Closeable {
+
+	private final Path file;
+	private final boolean shared;
+
+	private BomSubmitRequest encodedPayload;
+	private Path encodedFile;
+
+	private EncodedBom(Path file, boolean shared) {
+		this.file = file;
+		this.shared = shared;
+	}
+
+	/**
+	 * @param file the BOM file
+	 * @return a BOM, that is encoded on the fly for each upload
+	 */
+	public static EncodedBom of(Path file) {
+		return new EncodedBom(file, false);
+	}
+
+	/**
+	 * @param file the BOM file
+	 * @return a BOM, that is encoded once and reused by all uploads, until it is closed
+	 */
+	public static EncodedBom shared(Path file) {
+		return new EncodedBom(file, true);
+	}
+
+	public Path getFile() {
+		return file;
+	}
+
+	/**
+	 * Returns the JSON request entity of a <code>PUT /api/v1/bom</code> upload, with the BOM embedded as the
+	 * base64 encoded <code>bom</code> field of the payload.
+	 */
+	synchronized HttpEntity jsonEntity(ObjectMapper objectMapper, BomSubmitRequest payload) throws IOException {
+		Base64JsonFileEntity entity = new Base64JsonFileEntity(objectMapper, payload, "bom", file);
+		if (!shared) {
+			return entity;
+		}
+
+		if (encodedFile == null) {
+			Path target = Files.createTempFile("dependency-track-bom", ".json");
+			try (OutputStream outputStream = Files.newOutputStream(target)) {
+				entity.writeTo(outputStream);
+			} catch (IOException e) {
+				Files.deleteIfExists(target);
+				throw e;
+			}
+			encodedFile = target;
+			encodedPayload = payload;
+		} else if (!encodedPayload.equals(payload)) {
+			// a different envelope, e.g. of another project, can't reuse the encoded request
+			return entity;
+		}
+		return new FileEntity(encodedFile.toFile(), ContentType.APPLICATION_JSON);
+	}
+
+	/**
+	 * Deletes the encoded copy of a shared BOM.
+	 */
+	@Override
+	public synchronized void close() {
+		if (encodedFile == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(encodedFile);
+		} catch (IOException e) {
+			encodedFile.toFile().deleteOnExit();
+		}
+		encodedFile = null;
+	}
+}
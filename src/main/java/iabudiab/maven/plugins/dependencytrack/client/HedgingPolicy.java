@@ -0,0 +1,25 @@
+package iabudiab.maven.plugins.dependencytrack.client;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Settings of hedged requests, i.e. of sending an identical second request for slow idempotent requests.
+ */
+@Value
+@Builder
+public class HedgingPolicy {
+
+	/**
+	 * Fixed delay in milliseconds after which a request is hedged. If <code>0</code>, the delay is
+	 * derived from the recent latencies of the request's endpoint.
+	 */
+	@Builder.Default
+	long delayMillis = 0;
+
+	/**
+	 * Percentile of the endpoint's recent latencies used as delay, if no fixed delay is set.
+	 */
+	@Builder.Default
+	double latencyPercentile = 95;
+}
@@ -0,0 +1,67 @@
+package iabudiab.maven.plugins.dependencytrack.client;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Schedule of polling a BOM token: the first check is immediate, further checks back off exponentially with
+ * jitter up to a maximum delay.
+ */
+@Value
+@Builder
+public class PollingPolicy {
+
+	/**
+	 * Delay in milliseconds between the first and the second check.
+	 */
+	@Builder.Default
+	long initialDelayMillis = 500;
+
+	/**
+	 * Upper limit of the delay in milliseconds between two checks.
+	 */
+	@Builder.Default
+	long maxDelayMillis = 10_000;
+
+	/**
+	 * Factor, by which the delay grows after each check.
+	 */
+	@Builder.Default
+	double multiplier = 2;
+
+	/**
+	 * Fraction of the delay, by which it is randomly shortened or lengthened, so that the polls of concurrent
+	 * builds spread out.
+	 */
+	@Builder.Default
+	double jitter = 0.2;
+
+	/**
+	 * History of processing times, that the delay of the first check is predicted from, or <code>null</code> to
+	 * check immediately.
+	 */
+	ProcessingTimeHistory history;
+
+	public static PollingPolicy defaults() {
+		return PollingPolicy.builder().build();
+	}
+
+	/**
+	 * @param poll the number of checks done so far, starting at <code>1</code> after the first check
+	 * @return the delay in milliseconds before the next check
+	 */
+	public long delayMillis(int poll) {
+		double delay = initialDelayMillis * Math.pow(multiplier, Math.max(0, poll - 1));
+		return Math.min(maxDelayMillis, jittered((long) Math.min(maxDelayMillis, delay)));
+	}
+
+	long jittered(long delayMillis) {
+		if (jitter <= 0 || delayMillis <= 0) {
+			return delayMillis;
+		}
+		double factor = 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+		return Math.round(delayMillis * factor);
+	}
+}
@@ -0,0 +1,127 @@
+package iabudiab.maven.plugins.dependencytrack.client;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.plugin.logging.Log;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * On-disk history of how long each server took to process BOMs of a given size, to predict when an uploaded BOM
+ * will have been processed.
+ * <p>
+ * The prediction takes the samples closest in size to the BOM, scales their processing time linearly to the
+ * BOM's size and uses the median. The history can be shared by concurrent builds, updates are done under an
+ * exclusive lock of a lock file next to it.
+ */
+public class ProcessingTimeHistory {
+
+	static final int MIN_SAMPLES = 3;
+
+	private static final int MAX_SAMPLES = 50;
+	private static final int NEIGHBOURS = 5;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final Path file;
+
+	public ProcessingTimeHistory(Path file) {
+		this.file = file.toAbsolutePath().normalize();
+	}
+
+	/**
+	 * @param serverUrl the server's URL
+	 * @param bomSizeBytes the size of the BOM
+	 * @param log the log
+	 * @return the predicted processing time in milliseconds, or <code>-1</code> if there are too few samples
+	 */
+	public long predictMillis(String serverUrl, long bomSizeBytes, Log log) {
+		List<Sample> samples;
+		try {
+			samples = read().get(serverUrl);
+		} catch (IOException e) {
+			log.debug("Ignoring unreadable processing times: " + e.getMessage());
+			return -1;
+		}
+		if (samples == null || samples.size() < MIN_SAMPLES || bomSizeBytes <= 0) {
+			return -1;
+		}
+
+		List<Sample> neighbours = new ArrayList<>(samples);
+		neighbours.sort(Comparator.comparingDouble(sample -> Math.abs(Math.log((double) Math.max(1, sample.getBomSizeBytes()) / bomSizeBytes))));
+		List<Long> predictions = new ArrayList<>();
+		for (Sample sample : neighbours.subList(0, Math.min(NEIGHBOURS, neighbours.size()))) {
+			predictions.add(Math.round(sample.getProcessingMillis() * (double) bomSizeBytes / Math.max(1, sample.getBomSizeBytes())));
+		}
+		predictions.sort(null);
+		return predictions.get(predictions.size() / 2);
+	}
+
+	/**
+	 * Adds a sample to the history, keeping only the most recent ones per server.
+	 *
+	 * @param serverUrl the server's URL
+	 * @param bomSizeBytes the size of the processed BOM
+	 * @param processingMillis the time it took to process the BOM
+	 * @throws IOException if the history can't be updated
+	 */
+	public void record(String serverUrl, long bomSizeBytes, long processingMillis) throws IOException {
+		Files.createDirectories(file.getParent());
+		Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+		try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+			 FileLock lock = channel.lock()) {
+			Map<String, List<Sample>> history = read();
+			List<Sample> samples = history.computeIfAbsent(serverUrl, key -> new ArrayList<>());
+			samples.add(new Sample(bomSizeBytes, processingMillis));
+			if (samples.size() > MAX_SAMPLES) {
+				samples.subList(0, samples.size() - MAX_SAMPLES).clear();
+			}
+
+			Path temp = Files.createTempFile(file.getParent(), "processing-times", ".tmp");
+			try {
+				objectMapper.writeValue(temp.toFile(), history);
+				try {
+					Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+				}
+			} finally {
+				Files.deleteIfExists(temp);
+			}
+		}
+	}
+
+	private Map<String, List<Sample>> read() throws IOException {
+		if (!Files.exists(file)) {
+			return new LinkedHashMap<>();
+		}
+		return objectMapper.readValue(file.toFile(), new TypeReference<LinkedHashMap<String, List<Sample>>>() {});
+	}
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	@JsonIgnoreProperties(ignoreUnknown = true)
+	static class Sample {
+
+		private long bomSizeBytes;
+		private long processingMillis;
+	}
+}
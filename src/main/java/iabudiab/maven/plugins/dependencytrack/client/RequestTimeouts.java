@@ -0,0 +1,68 @@
+package iabudiab.maven.plugins.dependencytrack.client;
+
+import iabudiab.maven.plugins.dependencytrack.client.transport.LatencyHistograms;
+import iabudiab.maven.plugins.dependencytrack.client.transport.TimeoutClass;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Timeouts of requests per {@link TimeoutClass}, i.e. connect, connection request and socket timeout, and the
+ * settings of adaptive timeouts derived from the endpoints' observed latencies.
+ */
+@Value
+@Builder
+public class RequestTimeouts {
+
+	/**
+	 * Timeout in milliseconds of small and quick requests, e.g. token polls.
+	 */
+	@Builder.Default
+	int pollMillis = 10_000;
+
+	/**
+	 * Timeout in milliseconds of requests for or updates of metadata, e.g. of projects.
+	 */
+	@Builder.Default
+	int metadataMillis = 30_000;
+
+	/**
+	 * Timeout in milliseconds of transfers, e.g. of BOMs and findings.
+	 */
+	@Builder.Default
+	int transferMillis = 300_000;
+
+	/**
+	 * Latency histograms, that the timeouts of polls and metadata requests are derived from, or <code>null</code>
+	 * for fixed timeouts.
+	 */
+	LatencyHistograms adaptiveLatencies;
+
+	/**
+	 * Percentile of an endpoint's latencies, that adaptive timeouts are derived from.
+	 */
+	@Builder.Default
+	double adaptivePercentile = 99;
+
+	/**
+	 * Factor applied to the percentile to get the adaptive timeout.
+	 */
+	@Builder.Default
+	double adaptiveMultiplier = 3;
+
+	/**
+	 * Lower limit of adaptive timeouts in milliseconds.
+	 */
+	@Builder.Default
+	long adaptiveMinMillis = 1000;
+
+	public int timeoutMillis(TimeoutClass timeoutClass) {
+		switch (timeoutClass) {
+			case POLL:
+				return pollMillis;
+			case TRANSFER:
+				return transferMillis;
+			default:
+				return metadataMillis;
+		}
+	}
+}
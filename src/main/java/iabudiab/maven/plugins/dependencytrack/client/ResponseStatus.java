@@ -0,0 +1,72 @@
+package iabudiab.maven.plugins.dependencytrack.client;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.StatusLine;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.util.EntityUtils;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.IOUtil;
+
+import iabudiab.maven.plugins.dependencytrack.client.transport.TransportResponse;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Status handling of Dependency-Track API responses.
+ */
+@UtilityClass
+class ResponseStatus {
+
+	static void check(HttpResponse response, Log log) throws HttpResponseException {
+		StatusLine statusLine = response.getStatusLine();
+		logResponseCode(statusLine.getStatusCode(), log);
+		if (statusLine.getStatusCode() >= 300) {
+			throw nonSuccess(statusLine.getStatusCode(), statusLine.getReasonPhrase(), () -> EntityUtils.toString(response.getEntity()));
+		}
+	}
+
+	static void check(TransportResponse response, Log log) throws HttpResponseException {
+		logResponseCode(response.getStatusCode(), log);
+		if (response.getStatusCode() >= 300) {
+			throw nonSuccess(response.getStatusCode(), response.getReasonPhrase(), () -> {
+				try (InputStream body = response.getBody()) {
+					return IOUtil.toString(body, StandardCharsets.UTF_8.name());
+				}
+			});
+		}
+	}
+
+	private static HttpResponseException nonSuccess(int statusCode, String reasonPhrase, Callable<String> body) {
+		String detail;
+		try {
+			detail = String.format("[%s] %s", reasonPhrase, body.call());
+		} catch (Exception e) {
+			detail = reasonPhrase;
+		}
+		return new HttpResponseException(statusCode, detail);
+	}
+
+	private static void logResponseCode(int statusCode, Log log) {
+		switch (statusCode) {
+			case 200:
+				log.debug("Request successful");
+				break;
+			case 400:
+				log.error("Bad request. Probably an error in the plugin itself.");
+				break;
+			case 401:
+				log.error("Unauthenticated. Check your API Key");
+				break;
+			case 403:
+				log.error("Unauthorized. Check the permissions of the provided API Key. "
+					+ "Required are: SCAN_UPLOAD and either PROJECT_CREATION_UPLOAD or PORTFOLIO_MANAGEMENT");
+				break;
+			default:
+				log.warn("Received status code: " + statusCode);
+				break;
+		}
+	}
+}
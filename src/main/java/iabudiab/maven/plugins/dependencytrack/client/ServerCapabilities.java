@@ -0,0 +1,60 @@
+package iabudiab.maven.plugins.dependencytrack.client;
+
+import org.apache.commons.lang3.tuple.Triple;
+
+import iabudiab.maven.plugins.dependencytrack.util.VersionUtil;
+import lombok.Value;
+
+/**
+ * The capabilities of a Dependency-Track server, derived from its version, which select the most efficient
+ * variant of an endpoint per operation. A server of unknown version is only sent requests, that every
+ * supported server version understands.
+ */
+@Value
+public class ServerCapabilities {
+
+	public static final ServerCapabilities UNKNOWN = new ServerCapabilities(null);
+
+	/**
+	 * The server's version, e.g. <code>4.11.3</code>, or <code>null</code> if unknown
+	 */
+	String version;
+
+	/**
+	 * Whether the processing status of an uploaded BOM can be checked via <code>/api/v1/event/token/{uuid}</code>,
+	 * which covers all processing steps, instead of the deprecated <code>/api/v1/bom/token/{uuid}</code>.
+	 */
+	public boolean isEventTokenSupported() {
+		return isAtLeast(4, 11);
+	}
+
+	/**
+	 * Whether the server includes the BOM's token in its <code>BOM_PROCESSED</code> and
+	 * <code>BOM_PROCESSING_FAILED</code> notifications.
+	 */
+	public boolean isNotificationTokenSupported() {
+		return isAtLeast(4, 11);
+	}
+
+	/**
+	 * Whether findings can be fetched in pages. Servers of unknown version are assumed to support it, since
+	 * servers without pagination support ignore the paging parameters and return all findings at once.
+	 */
+	public boolean isFindingsPaginationSupported() {
+		return version == null || isAtLeast(4, 0);
+	}
+
+	public boolean isAtLeast(int major, int minor) {
+		if (version == null) {
+			return false;
+		}
+		Triple<Integer, Integer, Integer> parsed;
+		try {
+			parsed = VersionUtil.parseVersionString(version, true);
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+		int actualMinor = parsed.getMiddle() != null ? parsed.getMiddle() : 0;
+		return parsed.getLeft() > major || (parsed.getLeft() == major && actualMinor >= minor);
+	}
+}
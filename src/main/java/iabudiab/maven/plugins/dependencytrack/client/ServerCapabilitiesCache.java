@@ -0,0 +1,89 @@
+package iabudiab.maven.plugins.dependencytrack.client;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import org.apache.maven.plugin.logging.Log;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import iabudiab.maven.plugins.dependencytrack.client.transport.ResponseCache;
+import lombok.Data;
+
+/**
+ * On-disk cache of the probed {@link ServerCapabilities} per server URL, so that the server's version is
+ * probed only once per time-to-live, instead of once per build.
+ */
+public class ServerCapabilitiesCache {
+
+	@FunctionalInterface
+	interface Probe {
+
+		ServerCapabilities probe() throws IOException;
+	}
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final Path directory;
+	private final long ttlMillis;
+
+	public ServerCapabilitiesCache(Path directory, long ttlMillis) {
+		this.directory = directory.toAbsolutePath().normalize();
+		this.ttlMillis = ttlMillis;
+	}
+
+	/**
+	 * Returns the cached capabilities of the server, or probes them if they are missing or expired.
+	 *
+	 * @param serverUrl the server's URL
+	 * @param probe probes the server's capabilities
+	 * @param log the log
+	 * @return the server's capabilities
+	 * @throws IOException if probing fails
+	 */
+	ServerCapabilities get(String serverUrl, Probe probe, Log log) throws IOException {
+		Path file = directory.resolve(ResponseCache.key(serverUrl, null) + ".json");
+		try {
+			if (Files.exists(file)) {
+				Entry entry = objectMapper.readValue(file.toFile(), Entry.class);
+				if (System.currentTimeMillis() - entry.getProbedAt() < ttlMillis) {
+					return new ServerCapabilities(entry.getVersion());
+				}
+			}
+		} catch (IOException e) {
+			log.debug("Ignoring unreadable server capabilities: " + e.getMessage());
+		}
+
+		ServerCapabilities capabilities = probe.probe();
+		try {
+			Entry entry = new Entry();
+			entry.setUrl(serverUrl);
+			entry.setVersion(capabilities.getVersion());
+			entry.setProbedAt(System.currentTimeMillis());
+
+			Files.createDirectories(directory);
+			Path temp = Files.createTempFile(directory, "capabilities", ".tmp");
+			objectMapper.writeValue(temp.toFile(), entry);
+			try {
+				Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (IOException e) {
+			log.warn("Could not cache server capabilities: " + e.getMessage());
+		}
+		return capabilities;
+	}
+
+	@Data
+	@JsonIgnoreProperties(ignoreUnknown = true)
+	static class Entry {
+
+		private String url;
+		private String version;
+		private long probedAt;
+	}
+}
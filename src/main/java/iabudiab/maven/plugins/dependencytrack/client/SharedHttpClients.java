@@ -0,0 +1,116 @@
+package iabudiab.maven.plugins.dependencytrack.client;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.client.LaxRedirectStrategy;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import lombok.Value;
+
+/**
+ * Registry of pooled keep-alive HTTP clients.
+ * <p>
+ * The plugin keeps one registry per Maven session and closes it, when the session ends. Thus all
+ * mojo executions of a reactor build, that use the same {@link ConnectionPoolConfig} and timeout,
+ * share one client and reuse its connections instead of opening (and handshaking) new ones for
+ * every module. Clients of other HTTP libraries, e.g. the JDK's one, are registered by key and
+ * closed along with the pooled clients.
+ */
+public class SharedHttpClients implements Closeable {
+
+	private static final int VALIDATE_AFTER_INACTIVITY_MILLIS = 2000;
+
+	private final Map<Object, Closeable> clients = new HashMap<>();
+	private boolean closed;
+
+	/**
+	 * @param config the pool settings
+	 * @param timeoutMillis the default connect, connection request and socket timeout
+	 * @return the client for the given pool settings and timeout
+	 * @throws IllegalStateException if the registry has been closed
+	 */
+	public CloseableHttpClient get(ConnectionPoolConfig config, int timeoutMillis) {
+		return get(new PoolKey(config, timeoutMillis), () -> create(config, timeoutMillis));
+	}
+
+	/**
+	 * @param key the key of the client, which has to differ from the keys of other client types
+	 * @param factory creates the client, if there is none for the key yet
+	 * @return the client for the given key
+	 * @throws IllegalStateException if the registry has been closed
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized <T extends Closeable> T get(Object key, Supplier<T> factory) {
+		if (closed) {
+			throw new IllegalStateException("Shared HTTP clients have already been closed");
+		}
+		return (T) clients.computeIfAbsent(key, ignored -> factory.get());
+	}
+
+	private static CloseableHttpClient create(ConnectionPoolConfig config, int timeoutMillis) {
+		PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(config.getMaxTotal());
+		connectionManager.setDefaultMaxPerRoute(config.getMaxPerRoute());
+		connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MILLIS);
+
+		RequestConfig requestConfig = RequestConfig.custom()
+			.setConnectTimeout(timeoutMillis)
+			.setConnectionRequestTimeout(timeoutMillis)
+			.setSocketTimeout(timeoutMillis)
+			.build();
+
+		return HttpClients.custom()
+			.setConnectionManager(connectionManager)
+			.setDefaultRequestConfig(requestConfig)
+			.setKeepAliveStrategy(keepAliveStrategy(config.getKeepAliveSeconds()))
+			.evictExpiredConnections()
+			.evictIdleConnections(config.getIdleTimeoutSeconds(), TimeUnit.SECONDS)
+			.setRedirectStrategy(new LaxRedirectStrategy())
+			// compression is negotiated by the transport, which also accounts for the bytes on the wire
+			.disableContentCompression()
+			.build();
+	}
+
+	private static ConnectionKeepAliveStrategy keepAliveStrategy(int keepAliveSeconds) {
+		return (response, context) -> {
+			long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+			return serverKeepAlive > 0 ? serverKeepAlive : TimeUnit.SECONDS.toMillis(keepAliveSeconds);
+		};
+	}
+
+	/**
+	 * Closes all clients and their pooled connections.
+	 */
+	@Override
+	public synchronized void close() {
+		closed = true;
+		for (Closeable client : clients.values()) {
+			closeQuietly(client);
+		}
+		clients.clear();
+	}
+
+	private static void closeQuietly(Closeable client) {
+		try {
+			client.close();
+		} catch (Exception e) {
+			// ignore, the build is over anyway
+		}
+	}
+
+	@Value
+	private static class PoolKey {
+
+		ConnectionPoolConfig config;
+		int timeoutMillis;
+	}
+}
@@ -0,0 +1,117 @@
+package iabudiab.maven.plugins.dependencytrack.client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import iabudiab.maven.plugins.dependencytrack.client.transport.Deadline;
+import iabudiab.maven.plugins.dependencytrack.client.transport.DeadlineExceededException;
+
+/**
+ * Coalesces concurrent calls with the same key into a single execution.
+ * <p>
+ * The first caller of a key executes the call, while all callers arriving during its execution wait for
+ * and share its result or failure. Once completed, the next call with the key is executed anew, i.e.
+ * results are never cached beyond the in-flight execution.
+ * <p>
+ * Each caller waits at most until its own deadline. The execution of a caller with a deadline runs apart
+ * from it, so that it still completes for the other callers, once the caller gives up.
+ *
+ * @param <K> the key type
+ * @param <V> the result type
+ */
+class SingleFlight<K, V> {
+
+	@FunctionalInterface
+	interface Call<V> {
+
+		V call() throws IOException;
+	}
+
+	private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * Executes the call, or joins the in-flight execution of a call with the same key.
+	 *
+	 * @param key the key identifying identical calls
+	 * @param call the call to execute
+	 * @return the result of the call
+	 * @throws IOException if the (shared) call failed
+	 */
+	V execute(K key, Call<V> call) throws IOException {
+		return execute(key, call, Deadline.none(), Runnable::run);
+	}
+
+	/**
+	 * Executes the call, or joins the in-flight execution of a call with the same key, and waits for its
+	 * result at most until the deadline.
+	 *
+	 * @param key the key identifying identical calls
+	 * @param call the call to execute
+	 * @param deadline the deadline of the caller
+	 * @param executor the executor of the call, if the caller has a deadline
+	 * @return the result of the call
+	 * @throws DeadlineExceededException if the deadline expired before the call completed
+	 * @throws IOException if the (shared) call failed
+	 */
+	V execute(K key, Call<V> call, Deadline deadline, Executor executor) throws IOException {
+		if (deadline.isExpired()) {
+			throw new DeadlineExceededException("Deadline exceeded, not waiting for in-flight request");
+		}
+
+		CompletableFuture<V> execution = new CompletableFuture<>();
+		CompletableFuture<V> existing = inFlight.putIfAbsent(key, execution);
+		if (existing != null) {
+			return await(existing, deadline);
+		}
+
+		if (deadline.isBounded()) {
+			executor.execute(() -> run(key, call, execution));
+		} else {
+			run(key, call, execution);
+		}
+		return await(execution, deadline);
+	}
+
+	private void run(K key, Call<V> call, CompletableFuture<V> execution) {
+		try {
+			execution.complete(call.call());
+		} catch (Throwable e) {
+			execution.completeExceptionally(e);
+		} finally {
+			inFlight.remove(key, execution);
+		}
+	}
+
+	private V await(CompletableFuture<V> execution, Deadline deadline) throws IOException {
+		try {
+			if (!deadline.isBounded()) {
+				return execution.get();
+			}
+			return execution.get(deadline.remainingMillis(), TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			throw new DeadlineExceededException("Deadline exceeded while waiting for in-flight request");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for in-flight request");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException("In-flight request failed", cause);
+		}
+	}
+}
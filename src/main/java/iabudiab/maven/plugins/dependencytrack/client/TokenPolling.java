@@ -0,0 +1,155 @@
+package iabudiab.maven.plugins.dependencytrack.client;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.logging.Log;
+
+import iabudiab.maven.plugins.dependencytrack.client.transport.TransportRequest;
+
+/**
+ * Polling of a BOM token as a cancellable task, completing with <code>false</code> once the token has been processed.
+ * <p>
+ * Cancelling the polling, e.g. when the caller times out or is interrupted, removes the scheduled next check and
+ * aborts the check in flight, so that no requests are sent afterwards.
+ */
+class TokenPolling extends CompletableFuture<Boolean> {
+
+	@FunctionalInterface
+	interface Check {
+
+		/**
+		 * @param polling the polling, to {@link TokenPolling#register(TransportRequest) register} the request with
+		 * @return a future completing with whether the token is still being processed
+		 */
+		CompletableFuture<Boolean> isProcessing(TokenPolling polling);
+	}
+
+	// only schedules the checks, which are executed by the polling's executor
+	private static final ScheduledThreadPoolExecutor SCHEDULER = new ScheduledThreadPoolExecutor(1, runnable -> {
+		Thread thread = new Thread(runnable, "dtrack-token-polling");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	static {
+		SCHEDULER.setRemoveOnCancelPolicy(true);
+	}
+
+	private final UUID token;
+	private final Check check;
+	private final PollingPolicy policy;
+	private final Executor executor;
+	private final Log log;
+
+	private int polls;
+	private ScheduledFuture<?> next;
+	private TransportRequest inFlight;
+
+	TokenPolling(UUID token, Check check, PollingPolicy policy, Executor executor, Log log) {
+		this.token = token;
+		this.check = check;
+		this.policy = policy;
+		this.executor = executor;
+		this.log = log;
+	}
+
+	/**
+	 * Starts polling.
+	 *
+	 * @param firstDelayMillis the delay of the first check, <code>0</code> to check immediately
+	 * @return this polling
+	 */
+	TokenPolling start(long firstDelayMillis) {
+		schedule(firstDelayMillis);
+		return this;
+	}
+
+	/**
+	 * Registers the request of the current check, so that it is aborted if the polling is cancelled.
+	 */
+	synchronized void register(TransportRequest request) {
+		inFlight = request;
+		if (isDone()) {
+			request.abort();
+		}
+	}
+
+	/**
+	 * @return whether the next check is scheduled, but hasn't started yet
+	 */
+	synchronized boolean hasScheduledCheck() {
+		return next != null && !next.isDone();
+	}
+
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		boolean cancelled = super.cancel(mayInterruptIfRunning);
+		synchronized (this) {
+			if (next != null) {
+				next.cancel(false);
+			}
+			if (inFlight != null) {
+				inFlight.abort();
+			}
+		}
+		if (cancelled) {
+			log.debug("Cancelled polling token: " + token);
+		}
+		return cancelled;
+	}
+
+	private synchronized void schedule(long delayMillis) {
+		if (isDone()) {
+			return;
+		}
+		try {
+			if (delayMillis <= 0) {
+				executor.execute(this::poll);
+			} else {
+				next = SCHEDULER.schedule(() -> executor.execute(this::poll), delayMillis, TimeUnit.MILLISECONDS);
+			}
+		} catch (RejectedExecutionException e) {
+			completeExceptionally(e);
+		}
+	}
+
+	private void poll() {
+		if (isDone()) {
+			return;
+		}
+		CompletableFuture<Boolean> checking;
+		try {
+			checking = check.isProcessing(this);
+		} catch (RuntimeException e) {
+			completeExceptionally(e);
+			return;
+		}
+
+		// the check doesn't occupy a thread while waiting for its response
+		checking.whenComplete((processing, failure) -> {
+			synchronized (this) {
+				inFlight = null;
+			}
+			if (failure != null) {
+				// an aborted check fails, but the polling has already been cancelled then
+				completeExceptionally(failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure);
+				return;
+			}
+			if (!processing) {
+				complete(false);
+				return;
+			}
+
+			long delayMillis = policy.delayMillis(++polls);
+			log.info("Token is still being processed, will retry in " + delayMillis + " ms");
+			schedule(delayMillis);
+		});
+	}
+}
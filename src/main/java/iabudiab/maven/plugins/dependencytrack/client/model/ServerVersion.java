@@ -0,0 +1,13 @@
+package iabudiab.maven.plugins.dependencytrack.client.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ServerVersion {
+
+	private String application;
+
+	private String version;
+}
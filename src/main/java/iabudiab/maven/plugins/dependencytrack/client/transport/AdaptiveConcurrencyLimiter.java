@@ -0,0 +1,241 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Limits the number of concurrent requests with an AIMD (additive increase, multiplicative decrease) limit.
+ * <p>
+ * While requests succeed and the limit is actually used, it grows by about one per round of requests. It is
+ * halved when the server signals overload by <code>429 Too Many Requests</code>, <code>503 Service
+ * Unavailable</code> or a timeout, or when the p90 latency of idempotent requests to an endpoint rises well
+ * above that endpoint's baseline. Only requests started after the last decrease can trigger another one, so a burst of failures of
+ * requests that were in flight at the same time counts as a single signal.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+	private static final Map<String, AdaptiveConcurrencyLimiter> SHARED = new ConcurrentHashMap<>();
+
+	private static final int SC_TOO_MANY_REQUESTS = 429;
+	private static final int SC_SERVICE_UNAVAILABLE = 503;
+
+	private static final double BACKOFF_RATIO = 0.5;
+	private static final double LATENCY_TOLERANCE = 2.0;
+	private static final int LATENCY_WINDOW = 100;
+	private static final int MIN_LATENCY_SAMPLES = 20;
+	private static final int LATENCY_CHECK_INTERVAL = 10;
+	private static final int BASELINE_DRIFT = 20;
+
+	private final int maxLimit;
+	private final Log log;
+	private final Deque<CompletableFuture<Permit>> waiters = new ArrayDeque<>();
+	// endpoints differ by orders of magnitude, e.g. looking up a project vs. fetching all its findings
+	private final Map<String, LatencyBaseline> baselines = new HashMap<>();
+
+	private double limit;
+	private int inFlight;
+	private long lastDecreaseNanos;
+
+	public AdaptiveConcurrencyLimiter(int initialLimit, int maxLimit, Log log) {
+		this.maxLimit = Math.max(1, maxLimit);
+		this.limit = Math.max(1, Math.min(initialLimit, this.maxLimit));
+		this.lastDecreaseNanos = System.nanoTime();
+		this.log = log;
+	}
+
+	/**
+	 * Returns the limiter shared by all clients of the JVM for the given server, so that the limit applies
+	 * to all modules of a (parallel) build together.
+	 *
+	 * @param server identifies the server, e.g. its URL
+	 * @param maxLimit the maximum number of concurrent requests
+	 * @param log the log
+	 * @return the shared limiter
+	 */
+	public static AdaptiveConcurrencyLimiter shared(String server, int maxLimit, Log log) {
+		return SHARED.computeIfAbsent(server + "#" + maxLimit,
+			key -> new AdaptiveConcurrencyLimiter(Math.max(1, maxLimit / 2), maxLimit, log));
+	}
+
+	public synchronized int getLimit() {
+		return (int) limit;
+	}
+
+	/**
+	 * Acquires a permit, waiting until the number of in-flight requests is below the limit.
+	 */
+	public Permit acquire() throws IOException {
+		CompletableFuture<Permit> permit = acquireAsync();
+		try {
+			return permit.get();
+		} catch (InterruptedException e) {
+			if (!permit.cancel(false)) {
+				permit.join().release();
+			}
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for a concurrency permit");
+		} catch (ExecutionException e) {
+			throw new IOException("Error acquiring a concurrency permit", e.getCause());
+		}
+	}
+
+	/**
+	 * Acquires a permit without blocking.
+	 *
+	 * @return a future completing with the permit, once the number of in-flight requests is below the limit
+	 */
+	public synchronized CompletableFuture<Permit> acquireAsync() {
+		if (inFlight < (int) limit) {
+			inFlight++;
+			return CompletableFuture.completedFuture(new Permit());
+		}
+		CompletableFuture<Permit> waiter = new CompletableFuture<>();
+		waiters.add(waiter);
+		return waiter;
+	}
+
+	private void release() {
+		List<CompletableFuture<Permit>> granted = new ArrayList<>();
+		synchronized (this) {
+			inFlight--;
+			while (inFlight < (int) limit && !waiters.isEmpty()) {
+				CompletableFuture<Permit> waiter = waiters.poll();
+				if (!waiter.isDone()) {
+					inFlight++;
+					granted.add(waiter);
+				}
+			}
+		}
+
+		// complete outside the lock, since completing runs the waiters' continuations
+		for (CompletableFuture<Permit> waiter : granted) {
+			Permit permit = new Permit();
+			if (!waiter.complete(permit)) {
+				permit.release();
+			}
+		}
+	}
+
+	private synchronized void onResponse(Permit permit, int statusCode, String endpoint, long latencyNanos) {
+		if (statusCode == SC_TOO_MANY_REQUESTS || statusCode == SC_SERVICE_UNAVAILABLE) {
+			decrease(permit, "status " + statusCode);
+			return;
+		}
+
+		if (endpoint != null && baselines.computeIfAbsent(endpoint, key -> new LatencyBaseline()).increased(latencyNanos)) {
+			decrease(permit, "rising latency of " + endpoint);
+			return;
+		}
+
+		// only grow, if the limit is actually used, otherwise it would grow without bounds
+		if (inFlight >= limit / 2 && limit < maxLimit) {
+			limit = Math.min(maxLimit, limit + 1 / limit);
+		}
+	}
+
+	private synchronized void onFailure(Permit permit, Throwable failure) {
+		if (failure instanceof SocketTimeoutException) {
+			decrease(permit, "timeout");
+		}
+	}
+
+	private void decrease(Permit permit, String reason) {
+		if (permit.startNanos - lastDecreaseNanos < 0) {
+			// the request was already in flight at the last decrease
+			return;
+		}
+		limit = Math.max(1, limit * BACKOFF_RATIO);
+		lastDecreaseNanos = System.nanoTime();
+		if (log.isDebugEnabled()) {
+			log.debug(String.format("Reduced concurrency limit to %d due to %s", (int) limit, reason));
+		}
+	}
+
+	/**
+	 * Permit for a single request. The response, or failure, should be reported before releasing it.
+	 */
+	public final class Permit {
+
+		private final long startNanos = System.nanoTime();
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private Permit() {
+		}
+
+		/**
+		 * Reports the response's status, once the response has been received.
+		 *
+		 * @param statusCode the status code
+		 * @param uri the request's URI, whose endpoint the latency is compared with
+		 * @param sampleLatency whether the request's latency is comparable to that of other requests,
+		 *                      e.g. for idempotent requests as opposed to uploads
+		 */
+		public void onResponse(int statusCode, URI uri, boolean sampleLatency) {
+			onResponse(statusCode, sampleLatency ? HedgingTransport.endpoint(uri) : null, System.nanoTime() - startNanos);
+		}
+
+		void onResponse(int statusCode, String endpoint, long latencyNanos) {
+			AdaptiveConcurrencyLimiter.this.onResponse(this, statusCode, endpoint, latencyNanos);
+		}
+
+		public void onFailure(Throwable failure) {
+			AdaptiveConcurrencyLimiter.this.onFailure(this, failure);
+		}
+
+		/**
+		 * Releases the permit. Releasing it more than once has no effect.
+		 */
+		public void release() {
+			if (released.compareAndSet(false, true)) {
+				AdaptiveConcurrencyLimiter.this.release();
+			}
+		}
+	}
+
+	/**
+	 * Sliding window of an endpoint's recent latencies and the baseline of their p90.
+	 */
+	private static class LatencyBaseline {
+
+		private final long[] latencies = new long[LATENCY_WINDOW];
+
+		private int samples;
+		private long baselineP90Nanos;
+
+		boolean increased(long latencyNanos) {
+			latencies[samples % LATENCY_WINDOW] = latencyNanos;
+			samples++;
+			if (samples < MIN_LATENCY_SAMPLES || samples % LATENCY_CHECK_INTERVAL != 0) {
+				return false;
+			}
+
+			long[] window = Arrays.copyOf(latencies, Math.min(samples, LATENCY_WINDOW));
+			Arrays.sort(window);
+			long p90 = window[(int) Math.ceil(window.length * 0.9) - 1];
+
+			boolean increased = baselineP90Nanos > 0 && p90 > baselineP90Nanos * LATENCY_TOLERANCE;
+			// the baseline follows improvements immediately, but degradations only slowly
+			if (baselineP90Nanos == 0 || p90 < baselineP90Nanos) {
+				baselineP90Nanos = p90;
+			} else {
+				baselineP90Nanos += (p90 - baselineP90Nanos) / BASELINE_DRIFT;
+			}
+			return increased;
+		}
+	}
+}
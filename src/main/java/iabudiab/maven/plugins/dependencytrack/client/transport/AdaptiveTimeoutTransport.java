@@ -0,0 +1,104 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Decorates a transport with timeouts derived from the observed latencies of each endpoint.
+ * <p>
+ * Once an endpoint has enough samples, the timeout of its requests is a multiple of the configured percentile
+ * of its latencies, bounded by the request's own timeout as upper limit. Thus a hung request to an endpoint,
+ * that usually answers within milliseconds, fails fast instead of blocking for the full timeout. Only
+ * requests of an adaptive {@link TimeoutClass} are affected, transfers keep their timeout. A timed out request
+ * is recorded with its timeout as latency, so that the timeout grows again, if the endpoint became slower.
+ */
+public class AdaptiveTimeoutTransport implements HttpTransport {
+
+	static final int MIN_SAMPLES = 20;
+
+	private final HttpTransport delegate;
+	private final LatencyHistograms histograms;
+	private final double percentile;
+	private final double multiplier;
+	private final long minTimeoutMillis;
+	private final Log log;
+
+	/**
+	 * @param delegate the transport to decorate
+	 * @param histograms the latency histograms of the endpoints
+	 * @param percentile the percentile of the endpoint's latencies, that the timeout is derived from
+	 * @param multiplier the factor applied to the percentile
+	 * @param minTimeoutMillis the lower limit of derived timeouts
+	 * @param log the log
+	 */
+	public AdaptiveTimeoutTransport(HttpTransport delegate, LatencyHistograms histograms, double percentile,
+									double multiplier, long minTimeoutMillis, Log log) {
+		this.delegate = delegate;
+		this.histograms = histograms;
+		this.percentile = percentile;
+		this.multiplier = multiplier;
+		this.minTimeoutMillis = minTimeoutMillis;
+		this.log = log;
+	}
+
+	@Override
+	public TransportResponse execute(TransportRequest request) throws IOException {
+		String endpoint = adapt(request);
+		if (endpoint == null) {
+			return delegate.execute(request);
+		}
+
+		long startNanos = System.nanoTime();
+		try {
+			TransportResponse response = delegate.execute(request);
+			histograms.record(endpoint, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+			return response;
+		} catch (SocketTimeoutException e) {
+			histograms.record(endpoint, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+			throw e;
+		}
+	}
+
+	@Override
+	public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+		String endpoint = adapt(request);
+		if (endpoint == null) {
+			return delegate.executeAsync(request);
+		}
+
+		long startNanos = System.nanoTime();
+		return delegate.executeAsync(request).whenComplete((response, failure) -> {
+			if (failure == null || AsyncTransports.unwrap(failure) instanceof SocketTimeoutException) {
+				histograms.record(endpoint, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+			}
+		});
+	}
+
+	/**
+	 * Shortens the request's timeout to the observed latencies of its endpoint.
+	 *
+	 * @return the endpoint, whose latencies the request is recorded in, or null if its timeout isn't adaptive
+	 */
+	private String adapt(TransportRequest request) {
+		if (request.getTimeoutClass() == null || !request.getTimeoutClass().isAdaptive()) {
+			return null;
+		}
+
+		String endpoint = request.getMethod() + " " + HedgingTransport.endpoint(request.getUri());
+		long observedMillis = histograms.percentile(endpoint, percentile, MIN_SAMPLES);
+		if (observedMillis >= 0) {
+			long adaptiveMillis = Math.max(minTimeoutMillis, (long) Math.ceil(observedMillis * multiplier));
+			if (request.getTimeoutMillis() <= 0 || adaptiveMillis < request.getTimeoutMillis()) {
+				if (log.isDebugEnabled()) {
+					log.debug(String.format("Using adaptive timeout of %d ms: %s", adaptiveMillis, request));
+				}
+				request.timeout((int) Math.min(Integer.MAX_VALUE, adaptiveMillis));
+			}
+		}
+		return endpoint;
+	}
+}
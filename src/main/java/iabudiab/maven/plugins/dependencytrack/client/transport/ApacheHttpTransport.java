@@ -0,0 +1,124 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+
+/**
+ * Transport backed by a (pooled) Apache HTTP client, which speaks HTTP/1.1 only.
+ * <p>
+ * The client blocks while waiting for a response, thus asynchronous requests are executed by a small pool of
+ * threads, which bounds how many of them are in flight at once.
+ */
+public class ApacheHttpTransport implements HttpTransport {
+
+	private static final int ASYNC_THREADS = 4;
+
+	private static final ThreadPoolExecutor ASYNC_REQUESTS = new ThreadPoolExecutor(ASYNC_THREADS, ASYNC_THREADS,
+		60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+			Thread thread = new Thread(runnable, "dtrack-apache-request");
+			thread.setDaemon(true);
+			return thread;
+		});
+
+	static {
+		ASYNC_REQUESTS.allowCoreThreadTimeOut(true);
+	}
+
+	private final CloseableHttpClient client;
+
+	public ApacheHttpTransport(CloseableHttpClient client) {
+		this.client = client;
+	}
+
+	@Override
+	public TransportResponse execute(TransportRequest request) throws IOException {
+		RequestBuilder builder = RequestBuilder.create(request.getMethod())
+			.setUri(request.getUri());
+		request.getHeaders().forEach(builder::setHeader);
+		if (request.getBody() != null) {
+			builder.setEntity(new RequestBodyEntity(request.getBody()));
+		}
+		if (request.getTimeoutMillis() > 0) {
+			// the shared clients' default config only consists of the timeouts, so nothing else is lost
+			builder.setConfig(RequestConfig.custom()
+				.setConnectTimeout(request.getTimeoutMillis())
+				.setConnectionRequestTimeout(request.getTimeoutMillis())
+				.setSocketTimeout(request.getTimeoutMillis())
+				.build());
+		}
+
+		HttpUriRequest httpRequest = builder.build();
+		request.onAbort(httpRequest::abort);
+
+		CloseableHttpResponse response = client.execute(httpRequest);
+		Map<String, List<String>> headers = new LinkedHashMap<>();
+		for (Header header : response.getAllHeaders()) {
+			headers.computeIfAbsent(header.getName(), name -> new ArrayList<>()).add(header.getValue());
+		}
+
+		HttpEntity entity = response.getEntity();
+		InputStream body = entity != null ? entity.getContent() : null;
+		return new TransportResponse(
+			response.getStatusLine().getStatusCode(),
+			response.getStatusLine().getReasonPhrase(),
+			headers, body, response);
+	}
+
+	@Override
+	public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+		return AsyncTransports.supply(() -> execute(request), ASYNC_REQUESTS);
+	}
+
+	private static final class RequestBodyEntity extends AbstractHttpEntity {
+
+		private final RequestBody body;
+
+		private RequestBodyEntity(RequestBody body) {
+			this.body = body;
+			setContentType(body.getContentType());
+		}
+
+		@Override
+		public boolean isRepeatable() {
+			return body.isRepeatable();
+		}
+
+		@Override
+		public long getContentLength() {
+			return body.getContentLength();
+		}
+
+		@Override
+		public InputStream getContent() throws IOException {
+			return body.getContent();
+		}
+
+		@Override
+		public void writeTo(OutputStream outputStream) throws IOException {
+			body.writeTo(outputStream);
+		}
+
+		@Override
+		public boolean isStreaming() {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Helpers of the transports' asynchronous executions, which target Java 8 and thus lack e.g.
+ * <code>CompletableFuture.failedFuture</code> and <code>delayedExecutor</code>.
+ */
+final class AsyncTransports {
+
+	// only delays the continuations, e.g. of rate limited or hedged requests, which must not block
+	private static final ScheduledThreadPoolExecutor DELAYS = new ScheduledThreadPoolExecutor(1, runnable -> {
+		Thread thread = new Thread(runnable, "dtrack-transport-delay");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	static {
+		DELAYS.setRemoveOnCancelPolicy(true);
+	}
+
+	@FunctionalInterface
+	interface Execution {
+
+		TransportResponse execute() throws IOException;
+	}
+
+	private AsyncTransports() {
+	}
+
+	static <T> CompletableFuture<T> failed(Throwable failure) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		future.completeExceptionally(failure);
+		return future;
+	}
+
+	/**
+	 * Runs the blocking execution on the executor.
+	 */
+	static CompletableFuture<TransportResponse> supply(Execution execution, Executor executor) {
+		CompletableFuture<TransportResponse> response = new CompletableFuture<>();
+		try {
+			executor.execute(() -> {
+				try {
+					response.complete(execution.execute());
+				} catch (IOException | RuntimeException e) {
+					response.completeExceptionally(e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			response.completeExceptionally(e);
+		}
+		return response;
+	}
+
+	/**
+	 * @return a future completing after the delay, without occupying a thread while waiting
+	 */
+	static CompletableFuture<Void> delay(long delayMillis) {
+		if (delayMillis <= 0) {
+			return CompletableFuture.completedFuture(null);
+		}
+		CompletableFuture<Void> delayed = new CompletableFuture<>();
+		DELAYS.schedule(() -> delayed.complete(null), delayMillis, TimeUnit.MILLISECONDS);
+		return delayed;
+	}
+
+	/**
+	 * @return the actual failure of a dependent stage, which wraps it in a {@link CompletionException}
+	 */
+	static Throwable unwrap(Throwable failure) {
+		if ((failure instanceof CompletionException || failure instanceof ExecutionException) && failure.getCause() != null) {
+			return failure.getCause();
+		}
+		return failure;
+	}
+}
@@ -0,0 +1,264 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Decorates a transport with conditional GETs backed by a {@link ResponseCache}.
+ * <p>
+ * Successful GET responses carrying an <code>ETag</code> or <code>Last-Modified</code> validator are
+ * written to the cache while the handler reads them. Subsequent GETs of the same URI send the stored
+ * validators, and a <code>304 Not Modified</code> response is answered with the cached body, so unchanged
+ * data is not transferred again, not even across builds.
+ */
+public class CachingTransport implements HttpTransport {
+
+	private static final int SC_OK = 200;
+	private static final int SC_NOT_MODIFIED = 304;
+
+	private final HttpTransport delegate;
+	private final ResponseCache cache;
+	private final String credentialHeader;
+	private final Log log;
+
+	/**
+	 * @param delegate the transport to decorate
+	 * @param cache the response cache
+	 * @param credentialHeader the name of the request header, whose value is part of the cache key
+	 * @param log the log
+	 */
+	public CachingTransport(HttpTransport delegate, ResponseCache cache, String credentialHeader, Log log) {
+		this.delegate = delegate;
+		this.cache = cache;
+		this.credentialHeader = credentialHeader;
+		this.log = log;
+	}
+
+	@Override
+	public TransportResponse execute(TransportRequest request) throws IOException {
+		if (!"GET".equals(request.getMethod())) {
+			return delegate.execute(request);
+		}
+
+		String key = ResponseCache.key(request.getUri().toString(), request.getHeaders().get(credentialHeader));
+		ResponseCache.Entry entry = conditional(key, request);
+
+		TransportResponse response = delegate.execute(request);
+		if (entry != null && response.getStatusCode() == SC_NOT_MODIFIED) {
+			try {
+				return cached(entry, request, response);
+			} catch (IOException e) {
+				// evicted in the meantime, fetch it again without validators
+				log.debug("Cached response is gone, fetching again: " + request);
+				return store(key, request, delegate.execute(unconditional(request)));
+			}
+		}
+
+		return store(key, request, response);
+	}
+
+	@Override
+	public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+		if (!"GET".equals(request.getMethod())) {
+			return delegate.executeAsync(request);
+		}
+
+		String key = ResponseCache.key(request.getUri().toString(), request.getHeaders().get(credentialHeader));
+		ResponseCache.Entry entry = conditional(key, request);
+
+		return delegate.executeAsync(request).thenCompose(response -> {
+			if (entry != null && response.getStatusCode() == SC_NOT_MODIFIED) {
+				try {
+					return CompletableFuture.completedFuture(cached(entry, request, response));
+				} catch (IOException e) {
+					log.debug("Cached response is gone, fetching again: " + request);
+					return delegate.executeAsync(unconditional(request)).thenApply(fetched -> store(key, request, fetched));
+				}
+			}
+			return CompletableFuture.completedFuture(store(key, request, response));
+		});
+	}
+
+	/**
+	 * Adds the validators of the cached response, if any, to the request.
+	 *
+	 * @return the cached response, or null if there is none
+	 */
+	private ResponseCache.Entry conditional(String key, TransportRequest request) {
+		ResponseCache.Entry entry = lookup(key);
+		if (entry != null) {
+			if (entry.getEtag() != null) {
+				request.header("If-None-Match", entry.getEtag());
+			}
+			if (entry.getLastModified() != null) {
+				request.header("If-Modified-Since", entry.getLastModified());
+			}
+		}
+		return entry;
+	}
+
+	/**
+	 * Answers a <code>304 Not Modified</code> response with the cached one.
+	 *
+	 * @throws IOException if the cached body is gone
+	 */
+	private TransportResponse cached(ResponseCache.Entry entry, TransportRequest request, TransportResponse response) throws IOException {
+		response.close();
+		InputStream body = cache.openBody(entry);
+		if (log.isDebugEnabled()) {
+			log.debug("Not modified, using cached response for: " + request);
+		}
+		return new TransportResponse(entry.getStatusCode(), entry.getReasonPhrase(), entry.getHeaders(), body, null);
+	}
+
+	private static TransportRequest unconditional(TransportRequest request) {
+		TransportRequest unconditional = new TransportRequest(request.getMethod(), request.getUri(), request.getBody());
+		request.getHeaders().forEach((name, value) -> {
+			if (!"If-None-Match".equals(name) && !"If-Modified-Since".equals(name)) {
+				unconditional.header(name, value);
+			}
+		});
+		return unconditional;
+	}
+
+	private ResponseCache.Entry lookup(String key) {
+		try {
+			return cache.lookup(key);
+		} catch (IOException e) {
+			log.warn("Could not read response cache, continuing without it: " + e.getMessage());
+			return null;
+		}
+	}
+
+	private TransportResponse store(String key, TransportRequest request, TransportResponse response) {
+		String etag = response.getFirstHeader("ETag");
+		String lastModified = response.getFirstHeader("Last-Modified");
+		if (response.getStatusCode() != SC_OK || response.getBody() == null || (etag == null && lastModified == null)) {
+			return response;
+		}
+
+		Path tempBody;
+		OutputStream tempStream;
+		try {
+			tempBody = cache.createTempBody();
+			tempStream = new BufferedOutputStream(Files.newOutputStream(tempBody));
+		} catch (IOException e) {
+			log.warn("Could not write response cache, continuing without it: " + e.getMessage());
+			return response;
+		}
+
+		ResponseCache.Entry entry = new ResponseCache.Entry();
+		entry.setUri(request.getUri().toString());
+		entry.setEtag(etag);
+		entry.setLastModified(lastModified);
+		entry.setStatusCode(response.getStatusCode());
+		entry.setReasonPhrase(response.getReasonPhrase());
+		entry.setHeaders(response.getHeaders());
+
+		TeeInputStream body = new TeeInputStream(response.getBody(), tempStream);
+		return new TransportResponse(response.getStatusCode(), response.getReasonPhrase(), response.getHeaders(), body, () -> {
+			try {
+				response.close();
+			} finally {
+				body.closeCopy();
+				// only store completely read bodies
+				if (body.complete) {
+					try {
+						cache.store(key, entry, tempBody);
+					} catch (IOException e) {
+						log.warn("Could not store response in cache: " + e.getMessage());
+					}
+				}
+				Files.deleteIfExists(tempBody);
+			}
+		});
+	}
+
+	/**
+	 * Copies everything read from the stream to the cache file. Failing to write the copy only stops
+	 * the copying, but never fails reading the response.
+	 */
+	private static final class TeeInputStream extends FilterInputStream {
+
+		private OutputStream copy;
+		private boolean complete;
+
+		private TeeInputStream(InputStream in, OutputStream copy) {
+			super(in);
+			this.copy = copy;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int read = super.read();
+			if (read == -1) {
+				complete = copy != null;
+			} else {
+				copy(new byte[] { (byte) read }, 0, 1);
+			}
+			return read;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			int read = super.read(buffer, offset, length);
+			if (read == -1) {
+				complete = copy != null;
+			} else {
+				copy(buffer, offset, read);
+			}
+			return read;
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				// parsers stop reading after the JSON value, so read the rest up to EOF for the copy to be complete
+				byte[] buffer = new byte[8192];
+				while (copy != null && read(buffer, 0, buffer.length) != -1) {
+					// drain
+				}
+			} finally {
+				super.close();
+			}
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			// skipped content can't be copied
+			closeCopy();
+			return super.skip(n);
+		}
+
+		private void copy(byte[] buffer, int offset, int length) {
+			if (copy == null) {
+				return;
+			}
+			try {
+				copy.write(buffer, offset, length);
+			} catch (IOException e) {
+				closeCopy();
+			}
+		}
+
+		private void closeCopy() {
+			if (copy == null) {
+				return;
+			}
+			try {
+				copy.close();
+			} catch (IOException e) {
+				complete = false;
+			}
+			copy = null;
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decorates a transport with an {@link AdaptiveConcurrencyLimiter}. A permit is held from sending the
+ * request until the response is closed, i.e. as long as the request occupies a connection. Asynchronous
+ * requests wait for their permit without occupying a thread.
+ */
+public class ConcurrencyLimitingTransport implements HttpTransport {
+
+	private final HttpTransport delegate;
+	private final AdaptiveConcurrencyLimiter limiter;
+
+	public ConcurrencyLimitingTransport(HttpTransport delegate, AdaptiveConcurrencyLimiter limiter) {
+		this.delegate = delegate;
+		this.limiter = limiter;
+	}
+
+	@Override
+	public TransportResponse execute(TransportRequest request) throws IOException {
+		AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+		TransportResponse response;
+		try {
+			response = delegate.execute(request);
+		} catch (IOException | RuntimeException e) {
+			permit.onFailure(e);
+			permit.release();
+			throw e;
+		}
+		return limited(request, response, permit);
+	}
+
+	@Override
+	public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+		CompletableFuture<AdaptiveConcurrencyLimiter.Permit> waiting = limiter.acquireAsync();
+		// until the permit is granted, aborting the request gives up waiting for it
+		request.onAbort(() -> waiting.cancel(false));
+
+		return waiting.handle((permit, failure) -> {
+			if (failure != null) {
+				return AsyncTransports.<TransportResponse>failed(failure instanceof CancellationException
+					? new IOException("Request aborted: " + request, failure)
+					: AsyncTransports.unwrap(failure));
+			}
+
+			CompletableFuture<TransportResponse> execution;
+			try {
+				execution = delegate.executeAsync(request);
+			} catch (RuntimeException e) {
+				execution = AsyncTransports.failed(e);
+			}
+			return execution.whenComplete((response, executionFailure) -> {
+				if (executionFailure != null) {
+					permit.onFailure(AsyncTransports.unwrap(executionFailure));
+					permit.release();
+				}
+			}).thenApply(response -> limited(request, response, permit));
+		}).thenCompose(result -> result);
+	}
+
+	private static TransportResponse limited(TransportRequest request, TransportResponse response, AdaptiveConcurrencyLimiter.Permit permit) {
+		permit.onResponse(response.getStatusCode(), request.getUri(), request.isIdempotent());
+		return new TransportResponse(response.getStatusCode(), response.getReasonPhrase(), response.getHeaders(), response.getBody(), () -> {
+			try {
+				response.close();
+			} finally {
+				permit.release();
+			}
+		});
+	}
+}
@@ -0,0 +1,174 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.http.client.entity.DeflateInputStream;
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Decorates a transport with compressed response negotiation.
+ * <p>
+ * Requests advertise <code>gzip</code> and <code>deflate</code>, and compressed response bodies are
+ * decompressed on the fly while they are read, so the handlers, e.g. the JSON parsers or the BOM download,
+ * stream the decompressed content without buffering it. The number of bytes received on the wire and
+ * the decompressed size are logged at debug level, once the response is closed.
+ */
+public class ContentEncodingTransport implements HttpTransport {
+
+	private static final String ACCEPT_ENCODING = "gzip, deflate";
+
+	private final HttpTransport delegate;
+	private final Log log;
+
+	public ContentEncodingTransport(HttpTransport delegate, Log log) {
+		this.delegate = delegate;
+		this.log = log;
+	}
+
+	@Override
+	public TransportResponse execute(TransportRequest request) throws IOException {
+		return decode(request, delegate.execute(acceptEncoding(request)));
+	}
+
+	@Override
+	public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+		return delegate.executeAsync(acceptEncoding(request)).thenApply(response -> decode(request, response));
+	}
+
+	private static TransportRequest acceptEncoding(TransportRequest request) {
+		if (!request.getHeaders().containsKey("Accept-Encoding")) {
+			request.header("Accept-Encoding", ACCEPT_ENCODING);
+		}
+		return request;
+	}
+
+	private TransportResponse decode(TransportRequest request, TransportResponse response) {
+		String contentEncoding = response.getFirstHeader("Content-Encoding");
+		if (response.getBody() == null || contentEncoding == null || "identity".equalsIgnoreCase(contentEncoding.trim())) {
+			return response;
+		}
+
+		String encoding = contentEncoding.trim().toLowerCase(Locale.ROOT);
+		if (!"gzip".equals(encoding) && !"x-gzip".equals(encoding) && !"deflate".equals(encoding)) {
+			log.warn("Unsupported content encoding '" + contentEncoding + "', passing response body as is");
+			return response;
+		}
+
+		CountingInputStream wire = new CountingInputStream(response.getBody());
+		CountingInputStream decoded = new CountingInputStream(new DecodingInputStream(wire, encoding));
+
+		// the body is decoded, thus its encoding and length headers don't apply anymore
+		Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		headers.putAll(response.getHeaders());
+		headers.remove("Content-Encoding");
+		headers.remove("Content-Length");
+
+		return new TransportResponse(response.getStatusCode(), response.getReasonPhrase(), headers, decoded, () -> {
+			try {
+				response.close();
+			} finally {
+				if (log.isDebugEnabled()) {
+					log.debug(String.format("Received %d bytes on the wire, %d bytes decompressed (%s) for: %s",
+						wire.count, decoded.count, encoding, request));
+				}
+			}
+		});
+	}
+
+	/**
+	 * Creates the decompressing stream on the first read, so that empty bodies, e.g. of <code>HEAD</code>
+	 * requests or <code>304</code> responses, don't fail on a missing compression header.
+	 */
+	private static final class DecodingInputStream extends InputStream {
+
+		private final InputStream encoded;
+		private final String encoding;
+		private InputStream decoded;
+
+		private DecodingInputStream(InputStream encoded, String encoding) {
+			this.encoded = encoded;
+			this.encoding = encoding;
+		}
+
+		private InputStream decoded() throws IOException {
+			if (decoded == null) {
+				PushbackInputStream pushback = new PushbackInputStream(encoded, 1);
+				int first = pushback.read();
+				if (first == -1) {
+					decoded = pushback;
+				} else {
+					pushback.unread(first);
+					decoded = "deflate".equals(encoding) ? new DeflateInputStream(pushback) : new GZIPInputStream(pushback);
+				}
+			}
+			return decoded;
+		}
+
+		@Override
+		public int read() throws IOException {
+			return decoded().read();
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			return decoded().read(buffer, offset, length);
+		}
+
+		@Override
+		public int available() throws IOException {
+			return decoded == null ? 0 : decoded.available();
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (decoded != null) {
+				decoded.close();
+			} else {
+				encoded.close();
+			}
+		}
+	}
+
+	private static final class CountingInputStream extends FilterInputStream {
+
+		private long count;
+
+		private CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int read = super.read();
+			if (read != -1) {
+				count++;
+			}
+			return read;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			int read = super.read(buffer, offset, length);
+			if (read > 0) {
+				count += read;
+			}
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = super.skip(n);
+			count += skipped;
+			return skipped;
+		}
+	}
+}
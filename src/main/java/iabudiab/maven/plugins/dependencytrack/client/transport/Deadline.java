@@ -0,0 +1,80 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A wall-clock budget shared by all steps of a goal, e.g. uploading a BOM, polling its token and loading the
+ * findings, so that the goal as a whole finishes within predictable bounds.
+ */
+public final class Deadline {
+
+	private static final Deadline NONE = new Deadline(0);
+
+	private final long budgetNanos;
+	private final long startNanos;
+
+	private Deadline(long budgetNanos) {
+		this.budgetNanos = budgetNanos;
+		this.startNanos = System.nanoTime();
+	}
+
+	/**
+	 * @return a deadline, that never expires
+	 */
+	public static Deadline none() {
+		return NONE;
+	}
+
+	/**
+	 * @param budget the budget from now on
+	 * @param unit the budget's unit
+	 * @return a deadline expiring after the budget
+	 */
+	public static Deadline after(long budget, TimeUnit unit) {
+		return new Deadline(Math.max(1, unit.toNanos(budget)));
+	}
+
+	/**
+	 * @return whether the deadline expires at all
+	 */
+	public boolean isBounded() {
+		return budgetNanos > 0;
+	}
+
+	/**
+	 * @return the remaining budget in milliseconds, which is <code>0</code> once expired, or {@link Long#MAX_VALUE}
+	 * if the deadline isn't bounded
+	 */
+	public long remainingMillis() {
+		if (!isBounded()) {
+			return Long.MAX_VALUE;
+		}
+		return Math.max(0, TimeUnit.NANOSECONDS.toMillis(budgetNanos - (System.nanoTime() - startNanos)));
+	}
+
+	public boolean isExpired() {
+		return remainingMillis() == 0;
+	}
+
+	/**
+	 * @param millis the time needed, e.g. by an optional step
+	 * @return whether at least the given time remains
+	 */
+	public boolean hasAtLeast(long millis) {
+		return remainingMillis() >= millis;
+	}
+
+	/**
+	 * @param timeoutMillis a timeout, where <code>0</code> or less means none
+	 * @return the timeout shortened to the remaining budget
+	 */
+	public long clamp(long timeoutMillis) {
+		long remaining = remainingMillis();
+		return timeoutMillis > 0 ? Math.min(timeoutMillis, remaining) : remaining;
+	}
+
+	@Override
+	public String toString() {
+		return isBounded() ? TimeUnit.MILLISECONDS.toSeconds(remainingMillis()) + " seconds remaining" : "none";
+	}
+}
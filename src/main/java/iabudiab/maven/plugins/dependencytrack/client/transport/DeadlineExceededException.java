@@ -0,0 +1,13 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.io.InterruptedIOException;
+
+/**
+ * Signals, that a request wasn't sent, because the goal's {@link Deadline} has expired.
+ */
+public class DeadlineExceededException extends InterruptedIOException {
+
+	public DeadlineExceededException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,45 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decorates a transport with a {@link Deadline}. Each request's timeout is shortened to the remaining
+ * budget, and no request is sent at all once the deadline has expired.
+ */
+public class DeadlineTransport implements HttpTransport {
+
+	private final HttpTransport delegate;
+	private final Deadline deadline;
+
+	public DeadlineTransport(HttpTransport delegate, Deadline deadline) {
+		this.delegate = delegate;
+		this.deadline = deadline;
+	}
+
+	@Override
+	public TransportResponse execute(TransportRequest request) throws IOException {
+		return delegate.execute(bounded(request));
+	}
+
+	@Override
+	public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+		try {
+			return delegate.executeAsync(bounded(request));
+		} catch (DeadlineExceededException e) {
+			return AsyncTransports.failed(e);
+		}
+	}
+
+	private TransportRequest bounded(TransportRequest request) throws DeadlineExceededException {
+		if (!deadline.isBounded()) {
+			return request;
+		}
+
+		long timeoutMillis = deadline.clamp(request.getTimeoutMillis());
+		if (timeoutMillis <= 0) {
+			throw new DeadlineExceededException("Deadline exceeded, not sending: " + request);
+		}
+		return request.timeout((int) Math.min(Integer.MAX_VALUE, timeoutMillis));
+	}
+}
@@ -0,0 +1,192 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Decorates a transport with routing to the healthiest of several equivalent Dependency-Track replicas.
+ * <p>
+ * Requests are built against the base URI of the configured server and are sent to the replica with the best
+ * health score, derived from the EWMA of its latency and error rate. Idempotent requests fail over to the next
+ * healthiest replica on connection failures, timeouts and <code>502</code>, <code>503</code> or <code>504</code>
+ * responses, while other requests are sent only once.
+ */
+public class FailoverTransport implements HttpTransport {
+
+	// health is shared by all clients, e.g. of the modules of a build
+	private static final Map<URI, ReplicaHealth> HEALTH = new ConcurrentHashMap<>();
+
+	private static final int SC_BAD_GATEWAY = 502;
+	private static final int SC_SERVICE_UNAVAILABLE = 503;
+	private static final int SC_GATEWAY_TIMEOUT = 504;
+
+	private final HttpTransport delegate;
+	private final String baseUri;
+	private final List<URI> replicas;
+	private final Log log;
+
+	/**
+	 * @param delegate the transport to decorate
+	 * @param baseUri the base URI, that requests are built against
+	 * @param replicas the base URIs of all replicas, including the <code>baseUri</code> itself, if it should be used
+	 * @param log the log
+	 */
+	public FailoverTransport(HttpTransport delegate, URI baseUri, List<URI> replicas, Log log) {
+		this.delegate = delegate;
+		this.baseUri = baseUri.toString();
+		this.replicas = new ArrayList<>(replicas);
+		this.log = log;
+	}
+
+	@Override
+	public TransportResponse execute(TransportRequest request) throws IOException {
+		String uri = request.getUri().toString();
+		if (!uri.startsWith(baseUri)) {
+			return delegate.execute(request);
+		}
+
+		String path = uri.substring(baseUri.length());
+		List<URI> ranked = ranked();
+		int attempts = request.isIdempotent() ? ranked.size() : 1;
+
+		IOException failure = null;
+		for (int i = 0; i < attempts; i++) {
+			URI replica = ranked.get(i);
+			boolean lastAttempt = i == attempts - 1;
+			ReplicaHealth health = HEALTH.computeIfAbsent(replica, key -> new ReplicaHealth());
+			TransportRequest attempt = request.withUri(URI.create(replica + path));
+			request.onAbort(attempt::abort);
+
+			long startMillis = nowMillis();
+			try {
+				TransportResponse response = delegate.execute(attempt);
+				long nowMillis = nowMillis();
+				if (!isUnavailable(response.getStatusCode())) {
+					health.onSuccess(nowMillis - startMillis, nowMillis);
+					return response;
+				}
+
+				health.onFailure(nowMillis - startMillis, nowMillis);
+				if (lastAttempt) {
+					return response;
+				}
+				response.close();
+				log.warn(String.format("Replica %s responded with %d, failing over: %s", replica, response.getStatusCode(), request));
+			} catch (IOException e) {
+				if (request.isAborted() || isInterruption(e)) {
+					throw e;
+				}
+				long nowMillis = nowMillis();
+				health.onFailure(nowMillis - startMillis, nowMillis);
+				failure = e;
+				if (!lastAttempt) {
+					log.warn(String.format("Replica %s failed (%s), failing over: %s", replica, e.getMessage(), request));
+				}
+			}
+		}
+		throw failure;
+	}
+
+	@Override
+	public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+		String uri = request.getUri().toString();
+		if (!uri.startsWith(baseUri)) {
+			return delegate.executeAsync(request);
+		}
+
+		List<URI> ranked = ranked();
+		int attempts = request.isIdempotent() ? ranked.size() : 1;
+		return attemptAsync(request, uri.substring(baseUri.length()), ranked.subList(0, attempts));
+	}
+
+	/**
+	 * Sends the request to the first of the replicas, and on failure to the remaining ones, one after another.
+	 */
+	private CompletableFuture<TransportResponse> attemptAsync(TransportRequest request, String path, List<URI> replicas) {
+		URI replica = replicas.get(0);
+		boolean lastAttempt = replicas.size() == 1;
+		ReplicaHealth health = HEALTH.computeIfAbsent(replica, key -> new ReplicaHealth());
+		TransportRequest attempt = request.withUri(URI.create(replica + path));
+		request.onAbort(attempt::abort);
+
+		long startMillis = nowMillis();
+		return delegate.executeAsync(attempt).handle((response, failure) -> {
+			long nowMillis = nowMillis();
+			if (failure == null) {
+				if (!isUnavailable(response.getStatusCode())) {
+					health.onSuccess(nowMillis - startMillis, nowMillis);
+					return CompletableFuture.completedFuture(response);
+				}
+
+				health.onFailure(nowMillis - startMillis, nowMillis);
+				if (lastAttempt) {
+					return CompletableFuture.completedFuture(response);
+				}
+				closeQuietly(response);
+				log.warn(String.format("Replica %s responded with %d, failing over: %s", replica, response.getStatusCode(), request));
+				return attemptAsync(request, path, replicas.subList(1, replicas.size()));
+			}
+
+			Throwable cause = AsyncTransports.unwrap(failure);
+			if (!(cause instanceof IOException) || request.isAborted() || isInterruption((IOException) cause)) {
+				return AsyncTransports.<TransportResponse>failed(cause);
+			}
+			health.onFailure(nowMillis - startMillis, nowMillis);
+			if (lastAttempt) {
+				return AsyncTransports.<TransportResponse>failed(cause);
+			}
+			log.warn(String.format("Replica %s failed (%s), failing over: %s", replica, cause.getMessage(), request));
+			return attemptAsync(request, path, replicas.subList(1, replicas.size()));
+		}).thenCompose(next -> next);
+	}
+
+	/**
+	 * @return the replicas ordered by their health, ties keep the configured order
+	 */
+	List<URI> ranked() {
+		long nowMillis = nowMillis();
+		List<URI> ranked = new ArrayList<>(replicas);
+		ranked.sort(Comparator.comparingDouble(replica -> HEALTH.computeIfAbsent(replica, key -> new ReplicaHealth()).score(nowMillis)));
+		if (log.isDebugEnabled()) {
+			StringBuilder scores = new StringBuilder("Replica health:");
+			for (URI replica : ranked) {
+				ReplicaHealth health = HEALTH.get(replica);
+				scores.append(String.format(" %s (latency %.0f ms, error rate %.2f)", replica, health.getLatencyMillis(), health.getErrorRate(nowMillis)));
+			}
+			log.debug(scores.toString());
+		}
+		return ranked;
+	}
+
+	private static boolean isUnavailable(int statusCode) {
+		return statusCode == SC_BAD_GATEWAY || statusCode == SC_SERVICE_UNAVAILABLE || statusCode == SC_GATEWAY_TIMEOUT;
+	}
+
+	private static boolean isInterruption(IOException e) {
+		// a socket timeout is a replica failure, while other interruptions come from the caller
+		return e instanceof InterruptedIOException && !(e instanceof SocketTimeoutException);
+	}
+
+	private static void closeQuietly(TransportResponse response) {
+		try {
+			response.close();
+		} catch (IOException e) {
+			// ignore, the response isn't used anyway
+		}
+	}
+
+	private static long nowMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+	}
+}
@@ -0,0 +1,80 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token bucket rate limiter shared by several JVMs on one host, e.g. concurrent CI jobs on a build agent.
+ * <p>
+ * The bucket's state lives in a small file, which is read and updated under an exclusive file lock for
+ * every reservation. Waiting for a reserved permit happens outside the lock. Since the state is shared
+ * across processes, it is based on the wall clock.
+ */
+public class FileTokenBucketRateLimiter implements RateLimiter {
+
+	private static final Map<Path, FileTokenBucketRateLimiter> SHARED = new ConcurrentHashMap<>();
+
+	// tokens as double and last refill time as long
+	private static final int STATE_SIZE = Double.BYTES + Long.BYTES;
+
+	private final Path stateFile;
+	private final TokenBucket bucket;
+
+	public FileTokenBucketRateLimiter(Path stateFile, double permitsPerSecond, int burst) {
+		this.stateFile = stateFile.toAbsolutePath().normalize();
+		this.bucket = new TokenBucket(permitsPerSecond, burst, System.currentTimeMillis());
+	}
+
+	/**
+	 * Returns the limiter of the JVM for the given state file. File locks are held per JVM, thus all
+	 * threads of a JVM must use the same instance.
+	 *
+	 * @param stateFile the file holding the shared state
+	 * @param permitsPerSecond the sustained request rate
+	 * @param burst the number of requests allowed at once, after being idle
+	 * @return the shared limiter
+	 */
+	public static FileTokenBucketRateLimiter shared(Path stateFile, double permitsPerSecond, int burst) {
+		return SHARED.computeIfAbsent(stateFile.toAbsolutePath().normalize(),
+			key -> new FileTokenBucketRateLimiter(key, permitsPerSecond, burst));
+	}
+
+	@Override
+	public synchronized long reserve() throws IOException {
+		if (stateFile.getParent() != null) {
+			Files.createDirectories(stateFile.getParent());
+		}
+
+		try (FileChannel channel = FileChannel.open(stateFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			 FileLock lock = channel.lock()) {
+			ByteBuffer state = ByteBuffer.allocate(STATE_SIZE);
+			while (state.hasRemaining() && channel.read(state) != -1) {
+				// read the complete state
+			}
+
+			// a new or corrupt state file starts with a full bucket
+			if (!state.hasRemaining()) {
+				state.flip();
+				bucket.tokens = state.getDouble();
+				bucket.lastRefillMillis = state.getLong();
+			}
+
+			long waitMillis = bucket.reserve(System.currentTimeMillis());
+
+			state.clear();
+			state.putDouble(bucket.tokens).putLong(bucket.lastRefillMillis).flip();
+			channel.position(0);
+			while (state.hasRemaining()) {
+				channel.write(state);
+			}
+			return waitMillis;
+		}
+	}
+}
@@ -0,0 +1,265 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Decorates a transport with hedging of idempotent requests.
+ * <p>
+ * If an idempotent request hasn't received a response after the hedge delay, an identical request is sent,
+ * e.g. to be served by another instance behind a load balancer. The first response wins and the other
+ * request is aborted. The hedge delay is either fixed or a percentile of the recent latencies of the
+ * request's endpoint, so only the slowest requests are hedged.
+ */
+public class HedgingTransport implements HttpTransport {
+
+	private static final ExecutorService ATTEMPTS = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "dtrack-hedged-request");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private static final Pattern UUID_SEGMENT = Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+	// latencies are shared by all clients, e.g. of the modules of a build
+	private static final Map<String, LatencyWindow> LATENCIES = new ConcurrentHashMap<>();
+
+	private static final int LATENCY_WINDOW = 100;
+	private static final int MIN_LATENCY_SAMPLES = 10;
+	private static final long DEFAULT_HEDGE_DELAY_MILLIS = 1000;
+	private static final long MIN_HEDGE_DELAY_MILLIS = 10;
+
+	private final HttpTransport delegate;
+	private final long fixedDelayMillis;
+	private final double latencyPercentile;
+	private final Log log;
+
+	/**
+	 * @param delegate the transport to decorate
+	 * @param fixedDelayMillis the fixed hedge delay, or <code>0</code> to derive it from the endpoint's latencies
+	 * @param latencyPercentile the percentile of the endpoint's recent latencies used as hedge delay
+	 * @param log the log
+	 */
+	public HedgingTransport(HttpTransport delegate, long fixedDelayMillis, double latencyPercentile, Log log) {
+		this.delegate = delegate;
+		this.fixedDelayMillis = fixedDelayMillis;
+		this.latencyPercentile = latencyPercentile;
+		this.log = log;
+	}
+
+	@Override
+	public TransportResponse execute(TransportRequest request) throws IOException {
+		if (!request.isIdempotent()) {
+			return delegate.execute(request);
+		}
+
+		String endpoint = endpoint(request.getUri());
+		long hedgeDelayMillis = hedgeDelay(endpoint);
+
+		TransportRequest primary = request.copy();
+		request.onAbort(primary::abort);
+		CompletableFuture<TransportResponse> first = attempt(primary, endpoint);
+		try {
+			return first.get(hedgeDelayMillis, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			// too slow, hedge below
+		} catch (InterruptedException e) {
+			primary.abort();
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while executing request: " + request);
+		} catch (ExecutionException e) {
+			throw unwrap(e.getCause());
+		}
+
+		if (log.isDebugEnabled()) {
+			log.debug(String.format("No response after %d ms, hedging: %s", hedgeDelayMillis, request));
+		}
+		TransportRequest hedge = request.copy();
+		request.onAbort(() -> {
+			primary.abort();
+			hedge.abort();
+		});
+		CompletableFuture<TransportResponse> second = attempt(hedge, endpoint);
+
+		// the first response wins, a failure only counts once both attempts failed
+		CompletableFuture<TransportResponse> winner = new CompletableFuture<>();
+		AtomicReference<TransportRequest> winningRequest = new AtomicReference<>();
+		AtomicInteger failures = new AtomicInteger();
+		race(first, primary, winner, winningRequest, failures);
+		race(second, hedge, winner, winningRequest, failures);
+
+		TransportResponse response;
+		try {
+			response = winner.get();
+		} catch (InterruptedException e) {
+			primary.abort();
+			hedge.abort();
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while executing request: " + request);
+		} catch (ExecutionException e) {
+			throw unwrap(e.getCause());
+		}
+
+		TransportRequest loser = winningRequest.get() == primary ? hedge : primary;
+		loser.abort();
+		if (log.isDebugEnabled()) {
+			log.debug((loser == hedge ? "Primary" : "Hedged") + " request won: " + request);
+		}
+		return response;
+	}
+
+	@Override
+	public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+		if (!request.isIdempotent()) {
+			return delegate.executeAsync(request);
+		}
+
+		String endpoint = endpoint(request.getUri());
+		long hedgeDelayMillis = hedgeDelay(endpoint);
+
+		TransportRequest primary = request.copy();
+		TransportRequest hedge = request.copy();
+		request.onAbort(() -> {
+			primary.abort();
+			hedge.abort();
+		});
+		CompletableFuture<TransportResponse> first = attemptAsync(primary, endpoint);
+
+		CompletableFuture<TransportResponse> winner = new CompletableFuture<>();
+		AtomicReference<TransportRequest> winningRequest = new AtomicReference<>();
+		AtomicInteger failures = new AtomicInteger();
+		// either the first attempt completes before the hedge delay and decides alone, or both attempts race
+		AtomicBoolean decided = new AtomicBoolean();
+		first.whenComplete((response, failure) -> {
+			if (!decided.compareAndSet(false, true)) {
+				return;
+			}
+			if (failure != null) {
+				winner.completeExceptionally(AsyncTransports.unwrap(failure));
+			} else {
+				winner.complete(response);
+			}
+		});
+		AsyncTransports.delay(hedgeDelayMillis).thenRun(() -> {
+			if (!decided.compareAndSet(false, true)) {
+				return;
+			}
+			if (log.isDebugEnabled()) {
+				log.debug(String.format("No response after %d ms, hedging: %s", hedgeDelayMillis, request));
+			}
+			CompletableFuture<TransportResponse> second = attemptAsync(hedge, endpoint);
+			race(first, primary, winner, winningRequest, failures);
+			race(second, hedge, winner, winningRequest, failures);
+		});
+
+		return winner.whenComplete((response, failure) -> {
+			TransportRequest winning = winningRequest.get();
+			if (winning == null) {
+				return;
+			}
+			TransportRequest loser = winning == primary ? hedge : primary;
+			loser.abort();
+			if (log.isDebugEnabled()) {
+				log.debug((loser == hedge ? "Primary" : "Hedged") + " request won: " + request);
+			}
+		});
+	}
+
+	private static void race(CompletableFuture<TransportResponse> attempt, TransportRequest attemptRequest,
+							 CompletableFuture<TransportResponse> winner, AtomicReference<TransportRequest> winningRequest,
+							 AtomicInteger failures) {
+		attempt.whenComplete((response, failure) -> {
+			if (failure != null) {
+				if (failures.incrementAndGet() == 2) {
+					winner.completeExceptionally(failure);
+				}
+				return;
+			}
+
+			synchronized (winner) {
+				if (!winner.isDone()) {
+					winningRequest.set(attemptRequest);
+					winner.complete(response);
+					return;
+				}
+			}
+			// lost the race, release its connection
+			closeQuietly(response);
+		});
+	}
+
+	private CompletableFuture<TransportResponse> attempt(TransportRequest request, String endpoint) {
+		return CompletableFuture.supplyAsync(() -> {
+			long startNanos = System.nanoTime();
+			try {
+				TransportResponse response = delegate.execute(request);
+				LATENCIES.computeIfAbsent(endpoint, key -> new LatencyWindow(LATENCY_WINDOW))
+					.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+				return response;
+			} catch (IOException e) {
+				throw new CompletionException(e);
+			}
+		}, ATTEMPTS);
+	}
+
+	private CompletableFuture<TransportResponse> attemptAsync(TransportRequest request, String endpoint) {
+		long startNanos = System.nanoTime();
+		return delegate.executeAsync(request).whenComplete((response, failure) -> {
+			if (failure == null) {
+				LATENCIES.computeIfAbsent(endpoint, key -> new LatencyWindow(LATENCY_WINDOW))
+					.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+			}
+		});
+	}
+
+	private long hedgeDelay(String endpoint) {
+		if (fixedDelayMillis > 0) {
+			return fixedDelayMillis;
+		}
+		LatencyWindow window = LATENCIES.get(endpoint);
+		if (window == null || window.size() < MIN_LATENCY_SAMPLES) {
+			return DEFAULT_HEDGE_DELAY_MILLIS;
+		}
+		return Math.max(MIN_HEDGE_DELAY_MILLIS, window.percentile(latencyPercentile));
+	}
+
+	/**
+	 * @return the URI's authority and path with all UUIDs replaced, so that e.g. the metrics of all projects
+	 * share one endpoint
+	 */
+	static String endpoint(URI uri) {
+		return uri.getAuthority() + UUID_SEGMENT.matcher(uri.getPath()).replaceAll("{uuid}");
+	}
+
+	private static IOException unwrap(Throwable failure) {
+		Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+		if (cause instanceof IOException) {
+			return (IOException) cause;
+		}
+		return new IOException("Request failed", cause);
+	}
+
+	private static void closeQuietly(TransportResponse response) {
+		try {
+			response.close();
+		} catch (IOException e) {
+			// ignore, the response isn't used anyway
+		}
+	}
+}
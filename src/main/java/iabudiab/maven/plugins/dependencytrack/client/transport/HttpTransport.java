@@ -0,0 +1,41 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The HTTP engine underneath {@link iabudiab.maven.plugins.dependencytrack.client.DTrackClient}.
+ * <p>
+ * Implementations must be thread-safe, since a single transport is shared by concurrent requests.
+ */
+public interface HttpTransport {
+
+	/**
+	 * Executes the request and returns the response once its status and headers have been received.
+	 * The caller must close the response to release the underlying connection.
+	 *
+	 * @param request the request to execute
+	 * @return the response, whose body can be streamed
+	 * @throws IOException if the request fails or is aborted
+	 */
+	TransportResponse execute(TransportRequest request) throws IOException;
+
+	/**
+	 * Executes the request without waiting for its response, like {@link #execute(TransportRequest)}.
+	 * <p>
+	 * Transports with non-blocking I/O send the request without occupying a thread until the response arrives.
+	 * By default, the request is executed on the calling thread and the returned future is already completed.
+	 *
+	 * @param request the request to execute
+	 * @return a future completing with the response, or failing with the {@link IOException} of the request
+	 */
+	default CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+		CompletableFuture<TransportResponse> response = new CompletableFuture<>();
+		try {
+			response.complete(execute(request));
+		} catch (IOException | RuntimeException e) {
+			response.completeExceptionally(e);
+		}
+		return response;
+	}
+}
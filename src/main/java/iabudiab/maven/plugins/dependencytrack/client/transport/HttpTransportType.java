@@ -0,0 +1,18 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+/**
+ * The available {@link HttpTransport} implementations.
+ */
+public enum HttpTransportType {
+
+	/**
+	 * Apache HTTP client with a pool of HTTP/1.1 keep-alive connections.
+	 */
+	APACHE,
+
+	/**
+	 * The JDK's <code>java.net.http</code> client, which negotiates HTTP/2 and multiplexes concurrent
+	 * requests over a single connection. Requires Java 11 or newer, the execution fails otherwise.
+	 */
+	JDK
+}
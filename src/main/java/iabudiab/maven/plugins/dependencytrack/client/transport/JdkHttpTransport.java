@@ -0,0 +1,45 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Placeholder of the <code>java.net.http</code> based transport for Java 8.
+ * <p>
+ * The actual implementation lives in <code>src/main/java11</code> and is packaged as a multi-release
+ * class, which replaces this one when running on Java 11 or newer. Callers check {@link #isSupported()}
+ * up front, so that an unsupported configuration fails before any request is made.
+ */
+public class JdkHttpTransport implements HttpTransport {
+
+	public JdkHttpTransport(Client client) {
+		throw new IllegalStateException("The JDK HTTP transport requires Java 11 or newer");
+	}
+
+	/**
+	 * @return whether the JDK HTTP client is available in the running JVM
+	 */
+	public static boolean isSupported() {
+		return false;
+	}
+
+	@Override
+	public TransportResponse execute(TransportRequest request) throws IOException {
+		throw new IllegalStateException("The JDK HTTP transport requires Java 11 or newer");
+	}
+
+	/**
+	 * Placeholder of the shared JDK HTTP client.
+	 */
+	public static final class Client implements Closeable {
+
+		public Client(int timeoutMillis) {
+			throw new IllegalStateException("The JDK HTTP transport requires Java 11 or newer");
+		}
+
+		@Override
+		public void close() {
+			// nothing to release
+		}
+	}
+}
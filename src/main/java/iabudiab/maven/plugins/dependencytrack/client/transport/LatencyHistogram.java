@@ -0,0 +1,89 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of latencies with exponentially growing buckets, from <code>10</code> milliseconds up to several
+ * hours, each bucket being <code>√2</code> times as wide as the previous one.
+ * <p>
+ * The histogram is rolling: once it holds more than {@link #MAX_SAMPLES} samples, all counts are halved, so that
+ * older samples fade out and the histogram follows changes of the server's latency.
+ */
+class LatencyHistogram {
+
+	static final int MAX_SAMPLES = 1000;
+
+	private static final int BUCKETS = 48;
+	private static final double MIN_BOUND_MILLIS = 10;
+	private static final double GROWTH = Math.sqrt(2);
+
+	private final long[] counts;
+	private long total;
+
+	LatencyHistogram() {
+		this(new long[BUCKETS]);
+	}
+
+	/**
+	 * @param counts the counts per bucket, e.g. of a persisted histogram
+	 */
+	LatencyHistogram(long[] counts) {
+		this.counts = Arrays.copyOf(counts, BUCKETS);
+		for (long count : this.counts) {
+			total += Math.max(0, count);
+		}
+	}
+
+	synchronized void record(long latencyMillis) {
+		counts[bucket(latencyMillis)]++;
+		total++;
+		if (total > MAX_SAMPLES) {
+			total = 0;
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] /= 2;
+				total += counts[i];
+			}
+		}
+	}
+
+	synchronized long size() {
+		return total;
+	}
+
+	/**
+	 * @param percentile the percentile between <code>0</code> and <code>100</code>
+	 * @return the upper bound in milliseconds of the bucket holding the given percentile, or <code>-1</code> if
+	 * there are no samples
+	 */
+	synchronized long percentile(double percentile) {
+		if (total == 0) {
+			return -1;
+		}
+		long rank = (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100);
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= Math.max(1, rank)) {
+				return upperBound(i);
+			}
+		}
+		return upperBound(counts.length - 1);
+	}
+
+	synchronized long[] getCounts() {
+		return counts.clone();
+	}
+
+	private static int bucket(long latencyMillis) {
+		if (latencyMillis <= MIN_BOUND_MILLIS) {
+			return 0;
+		}
+		// tolerate rounding errors, so that latencies on a bucket's upper bound stay in it
+		int bucket = (int) Math.ceil(Math.log(latencyMillis / MIN_BOUND_MILLIS) / Math.log(GROWTH) - 1e-9);
+		return Math.min(BUCKETS - 1, bucket);
+	}
+
+	private static long upperBound(int bucket) {
+		return Math.round(MIN_BOUND_MILLIS * Math.pow(GROWTH, bucket));
+	}
+}
@@ -0,0 +1,109 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.plugin.logging.Log;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Rolling latency histograms per endpoint, optionally persisted in a file, so that the observed latencies
+ * survive the build and later builds start with them.
+ * <p>
+ * The file is read once per JVM and written back by {@link #save()}, replacing it atomically. Concurrent
+ * builds using the same file don't merge their samples, the last one to save wins.
+ */
+public class LatencyHistograms {
+
+	private static final Map<Path, LatencyHistograms> SHARED = new ConcurrentHashMap<>();
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+	private final Path file;
+
+	/**
+	 * Creates histograms, that live in memory only.
+	 */
+	public LatencyHistograms() {
+		this.file = null;
+	}
+
+	private LatencyHistograms(Path file, Log log) {
+		this.file = file;
+		if (Files.exists(file)) {
+			try {
+				Map<String, long[]> persisted = objectMapper.readValue(file.toFile(), new TypeReference<Map<String, long[]>>() {});
+				persisted.forEach((endpoint, counts) -> histograms.put(endpoint, new LatencyHistogram(counts)));
+				log.debug("Loaded latencies of " + histograms.size() + " endpoints from: " + file);
+			} catch (IOException e) {
+				log.warn("Ignoring unreadable latencies file " + file + ": " + e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Returns the histograms of the JVM for the given file, which are loaded from it on first use.
+	 *
+	 * @param file the file to persist the histograms in
+	 * @param log the log
+	 * @return the shared histograms
+	 */
+	public static LatencyHistograms shared(Path file, Log log) {
+		return SHARED.computeIfAbsent(file.toAbsolutePath().normalize(), key -> new LatencyHistograms(key, log));
+	}
+
+	public void record(String endpoint, long latencyMillis) {
+		histograms.computeIfAbsent(endpoint, key -> new LatencyHistogram()).record(latencyMillis);
+	}
+
+	/**
+	 * @param endpoint the endpoint
+	 * @param percentile the percentile between <code>0</code> and <code>100</code>
+	 * @param minSamples the number of samples required for a meaningful percentile
+	 * @return the endpoint's latency in milliseconds at the given percentile, or <code>-1</code> if there are
+	 * fewer samples than required
+	 */
+	public long percentile(String endpoint, double percentile, int minSamples) {
+		LatencyHistogram histogram = histograms.get(endpoint);
+		if (histogram == null || histogram.size() < minSamples) {
+			return -1;
+		}
+		return histogram.percentile(percentile);
+	}
+
+	/**
+	 * Writes the histograms to their file, if they have one.
+	 *
+	 * @throws IOException if writing fails
+	 */
+	public void save() throws IOException {
+		if (file == null) {
+			return;
+		}
+
+		Map<String, long[]> persisted = new TreeMap<>();
+		histograms.forEach((endpoint, histogram) -> persisted.put(endpoint, histogram.getCounts()));
+
+		Path directory = file.getParent() != null ? file.getParent() : file.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		Path temp = Files.createTempFile(directory, "latencies", ".tmp");
+		try {
+			objectMapper.writeValue(temp.toFile(), persisted);
+			try {
+				Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window of the most recent latency samples, e.g. of one endpoint, to compute percentiles from.
+ */
+public class LatencyWindow {
+
+	private final long[] samples;
+	private int count;
+
+	public LatencyWindow(int size) {
+		this.samples = new long[size];
+	}
+
+	public synchronized void record(long latencyMillis) {
+		samples[count % samples.length] = latencyMillis;
+		count++;
+	}
+
+	/**
+	 * @return the number of samples in the window
+	 */
+	public synchronized int size() {
+		return Math.min(count, samples.length);
+	}
+
+	/**
+	 * @param percentile the percentile between <code>0</code> and <code>100</code>
+	 * @return the latency in milliseconds at the given percentile, or <code>-1</code> if there are no samples
+	 */
+	public synchronized long percentile(double percentile) {
+		int size = size();
+		if (size == 0) {
+			return -1;
+		}
+		long[] sorted = Arrays.copyOf(samples, size);
+		Arrays.sort(sorted);
+		int index = (int) Math.ceil(size * Math.min(100, Math.max(0, percentile)) / 100) - 1;
+		return sorted[Math.max(0, index)];
+	}
+}
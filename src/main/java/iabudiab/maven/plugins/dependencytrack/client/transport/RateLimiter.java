@@ -0,0 +1,41 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the rate of outbound requests.
+ * <p>
+ * Permits are reserved ahead of time: {@link #reserve()} never blocks, but returns how long the caller has
+ * to wait before using its permit. Thus blocking callers can simply sleep, while non-blocking callers can
+ * delay their request without occupying a thread.
+ */
+public interface RateLimiter {
+
+	/**
+	 * Reserves a permit for one request.
+	 *
+	 * @return the time in milliseconds to wait before the permit may be used, <code>0</code> if immediately
+	 * @throws IOException if the limiter's shared state can't be accessed
+	 */
+	long reserve() throws IOException;
+
+	/**
+	 * Reserves a permit and waits until it may be used.
+	 *
+	 * @throws IOException if the limiter's shared state can't be accessed or if interrupted while waiting
+	 */
+	default void acquire() throws IOException {
+		long waitMillis = reserve();
+		if (waitMillis <= 0) {
+			return;
+		}
+		try {
+			TimeUnit.MILLISECONDS.sleep(waitMillis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for rate limit permit");
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Decorates a transport with a {@link RateLimiter}, waiting for a permit before each request. Asynchronous
+ * requests are delayed until their permit may be used, instead of sleeping.
+ */
+public class RateLimitingTransport implements HttpTransport {
+
+	private final HttpTransport delegate;
+	private final RateLimiter rateLimiter;
+	private final Log log;
+
+	public RateLimitingTransport(HttpTransport delegate, RateLimiter rateLimiter, Log log) {
+		this.delegate = delegate;
+		this.rateLimiter = rateLimiter;
+		this.log = log;
+	}
+
+	@Override
+	public TransportResponse execute(TransportRequest request) throws IOException {
+		long startNanos = System.nanoTime();
+		rateLimiter.acquire();
+		if (log.isDebugEnabled()) {
+			long waitedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+			if (waitedMillis > 0) {
+				log.debug("Rate limited, waited " + waitedMillis + " ms before: " + request);
+			}
+		}
+		return delegate.execute(request);
+	}
+
+	@Override
+	public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+		long waitMillis;
+		try {
+			waitMillis = rateLimiter.reserve();
+		} catch (IOException e) {
+			return AsyncTransports.failed(e);
+		}
+
+		if (waitMillis <= 0) {
+			return delegate.executeAsync(request);
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Rate limited, delaying by " + waitMillis + " ms: " + request);
+		}
+		return AsyncTransports.delay(waitMillis).thenCompose(ignored -> delegate.executeAsync(request));
+	}
+}
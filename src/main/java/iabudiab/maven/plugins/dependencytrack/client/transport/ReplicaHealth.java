@@ -0,0 +1,60 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+/**
+ * Health of a single replica, tracked as exponentially weighted moving averages (EWMA) of its latency and
+ * error rate.
+ * <p>
+ * The error rate decays while the replica isn't used, so that a replica, that failed in the past, is tried
+ * again eventually instead of being avoided forever.
+ */
+class ReplicaHealth {
+
+	private static final double SMOOTHING = 0.3;
+	private static final double ERROR_PENALTY = 100;
+	private static final long ERROR_HALF_LIFE_MILLIS = 30_000;
+
+	private double latencyMillis;
+	private double errorRate;
+	private long lastUpdateMillis;
+	private boolean sampled;
+
+	synchronized void onSuccess(long latencyMillis, long nowMillis) {
+		update(latencyMillis, 0, nowMillis);
+	}
+
+	synchronized void onFailure(long latencyMillis, long nowMillis) {
+		update(latencyMillis, 1, nowMillis);
+	}
+
+	private void update(long latencyMillis, double error, long nowMillis) {
+		if (!sampled) {
+			this.latencyMillis = latencyMillis;
+			this.errorRate = error;
+			sampled = true;
+		} else {
+			this.latencyMillis += SMOOTHING * (latencyMillis - this.latencyMillis);
+			this.errorRate = decayedErrorRate(nowMillis) + SMOOTHING * (error - decayedErrorRate(nowMillis));
+		}
+		lastUpdateMillis = nowMillis;
+	}
+
+	/**
+	 * @return the replica's score, lower is healthier; replicas without samples score best, so they are tried
+	 */
+	synchronized double score(long nowMillis) {
+		return (latencyMillis + 1) * (1 + ERROR_PENALTY * decayedErrorRate(nowMillis));
+	}
+
+	synchronized double getLatencyMillis() {
+		return latencyMillis;
+	}
+
+	synchronized double getErrorRate(long nowMillis) {
+		return decayedErrorRate(nowMillis);
+	}
+
+	private double decayedErrorRate(long nowMillis) {
+		long idleMillis = Math.max(0, nowMillis - lastUpdateMillis);
+		return errorRate * Math.pow(0.5, (double) idleMillis / ERROR_HALF_LIFE_MILLIS);
+	}
+}
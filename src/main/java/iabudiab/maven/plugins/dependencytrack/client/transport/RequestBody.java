@@ -0,0 +1,100 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ContentType;
+
+/**
+ * The body of a {@link TransportRequest}, which is written to the transport's output stream.
+ */
+public interface RequestBody {
+
+	/**
+	 * @return the content type including any parameters, or null if unknown
+	 */
+	String getContentType();
+
+	/**
+	 * @return the content length in bytes, or a negative value if unknown
+	 */
+	long getContentLength();
+
+	/**
+	 * @return whether the body can be written more than once
+	 */
+	boolean isRepeatable();
+
+	void writeTo(OutputStream outputStream) throws IOException;
+
+	/**
+	 * @return the body as a stream, for consumers that read rather than write it
+	 */
+	InputStream getContent() throws IOException;
+
+	static RequestBody json(String json) {
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		return new RequestBody() {
+			@Override
+			public String getContentType() {
+				return ContentType.APPLICATION_JSON.toString();
+			}
+
+			@Override
+			public long getContentLength() {
+				return bytes.length;
+			}
+
+			@Override
+			public boolean isRepeatable() {
+				return true;
+			}
+
+			@Override
+			public void writeTo(OutputStream outputStream) throws IOException {
+				outputStream.write(bytes);
+			}
+
+			@Override
+			public InputStream getContent() {
+				return new ByteArrayInputStream(bytes);
+			}
+		};
+	}
+
+	/**
+	 * Adapts an entity, e.g. a streaming multipart entity, as a request body.
+	 */
+	static RequestBody of(HttpEntity entity) {
+		return new RequestBody() {
+			@Override
+			public String getContentType() {
+				return entity.getContentType() != null ? entity.getContentType().getValue() : null;
+			}
+
+			@Override
+			public long getContentLength() {
+				return entity.getContentLength();
+			}
+
+			@Override
+			public boolean isRepeatable() {
+				return entity.isRepeatable();
+			}
+
+			@Override
+			public void writeTo(OutputStream outputStream) throws IOException {
+				entity.writeTo(outputStream);
+			}
+
+			@Override
+			public InputStream getContent() throws IOException {
+				return entity.getContent();
+			}
+		};
+	}
+}
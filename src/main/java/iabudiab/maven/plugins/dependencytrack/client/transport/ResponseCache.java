@@ -0,0 +1,255 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.Data;
+
+/**
+ * On-disk store of GET responses and their validators, i.e. <code>ETag</code> and <code>Last-Modified</code>.
+ * <p>
+ * The cache directory can be shared by several processes, e.g. parallel CI jobs on one agent. Bookkeeping
+ * is done under an exclusive lock of a lock file in the directory. Each stored body gets a new file, that
+ * is never written again, and the entry's metadata, which names that file, is replaced by a single atomic
+ * move. Thus readers of an entry never see a partially written body or one, that doesn't match the entry's
+ * validators. The total size of the cached bodies is bounded, the least recently used entries are evicted
+ * first.
+ */
+public class ResponseCache {
+
+	private static final String LOCK_FILE = ".lock";
+	private static final String BODY_SUFFIX = ".body";
+	private static final String META_SUFFIX = ".json";
+
+	// file locks are held per JVM, thus threads of this JVM have to be serialized separately
+	private static final Map<Path, Object> MONITORS = new ConcurrentHashMap<>();
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final Path directory;
+	private final long maxSizeBytes;
+
+	public ResponseCache(Path directory, long maxSizeBytes) {
+		this.directory = directory.toAbsolutePath().normalize();
+		this.maxSizeBytes = maxSizeBytes;
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * Computes the key of a cache entry from the request's URI and the credential, so that responses
+	 * are never shared between API keys with different permissions.
+	 */
+	public static String key(String uri, String credential) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(uri.getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			if (credential != null) {
+				digest.update(credential.getBytes(StandardCharsets.UTF_8));
+			}
+			StringBuilder hex = new StringBuilder();
+			for (byte b : digest.digest()) {
+				hex.append(String.format("%02x", b));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	/**
+	 * @return the cached entry for the key, or null if there is none
+	 */
+	public Entry lookup(String key) throws IOException {
+		return locked(() -> {
+			Entry entry = readEntry(directory.resolve(key + META_SUFFIX));
+			if (entry == null || !Files.exists(bodyOf(entry))) {
+				return null;
+			}
+			return entry;
+		});
+	}
+
+	/**
+	 * Opens the cached body of the entry and marks the entry as recently used.
+	 *
+	 * @throws IOException if the body has been evicted or replaced since the entry was looked up
+	 */
+	public InputStream openBody(Entry entry) throws IOException {
+		return locked(() -> {
+			Path body = bodyOf(entry);
+			InputStream stream = Files.newInputStream(body);
+			try {
+				Files.setLastModifiedTime(body, FileTime.fromMillis(System.currentTimeMillis()));
+			} catch (IOException e) {
+				// only affects the eviction order
+			}
+			return stream;
+		});
+	}
+
+	/**
+	 * @return a new temporary file in the cache directory, to which a body can be written before storing it
+	 */
+	public Path createTempBody() throws IOException {
+		Files.createDirectories(directory);
+		return Files.createTempFile(directory, "response-", ".tmp");
+	}
+
+	/**
+	 * Stores the fully written temporary body along with its entry, replacing any previous one, and
+	 * evicts the least recently used entries exceeding the size bound.
+	 */
+	public void store(String key, Entry entry, Path tempBody) throws IOException {
+		locked(() -> {
+			Path meta = directory.resolve(key + META_SUFFIX);
+			Entry previous = readEntry(meta);
+
+			Path body = Files.createTempFile(directory, key + ".", BODY_SUFFIX);
+			move(tempBody, body);
+			entry.setBody(body.getFileName().toString());
+			Path tempMeta = Files.createTempFile(directory, "meta-", ".tmp");
+			objectMapper.writeValue(tempMeta.toFile(), entry);
+			move(tempMeta, meta);
+
+			if (previous != null) {
+				deleteQuietly(bodyOf(previous));
+			}
+			evict();
+			return null;
+		});
+	}
+
+	private Entry readEntry(Path meta) {
+		if (!Files.exists(meta)) {
+			return null;
+		}
+		try {
+			Entry entry = objectMapper.readValue(meta.toFile(), Entry.class);
+			return entry.getBody() != null ? entry : null;
+		} catch (IOException e) {
+			// a corrupt entry is as good as none
+			return null;
+		}
+	}
+
+	private Path bodyOf(Entry entry) {
+		return directory.resolve(entry.getBody());
+	}
+
+	private void evict() throws IOException {
+		List<Path> bodies = new ArrayList<>();
+		long totalSize = 0;
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + BODY_SUFFIX)) {
+			for (Path body : stream) {
+				bodies.add(body);
+				totalSize += sizeOf(body);
+			}
+		}
+		if (totalSize <= maxSizeBytes) {
+			return;
+		}
+
+		bodies.sort(Comparator.comparing(ResponseCache::lastModified));
+		for (Path body : bodies) {
+			if (totalSize <= maxSizeBytes) {
+				break;
+			}
+			long size = sizeOf(body);
+			String name = body.getFileName().toString();
+			Path meta = directory.resolve(name.substring(0, name.indexOf('.')) + META_SUFFIX);
+			Entry entry = readEntry(meta);
+			if (entry != null && name.equals(entry.getBody())) {
+				deleteQuietly(meta);
+			}
+			if (deleteQuietly(body)) {
+				totalSize -= size;
+			}
+		}
+	}
+
+	private static boolean deleteQuietly(Path file) {
+		try {
+			Files.deleteIfExists(file);
+			return true;
+		} catch (IOException e) {
+			// e.g. still opened by a reader on a platform that doesn't allow deleting open files
+			return false;
+		}
+	}
+
+	private <T> T locked(Callable<T> action) throws IOException {
+		Files.createDirectories(directory);
+		synchronized (MONITORS.computeIfAbsent(directory, key -> new Object())) {
+			try (FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+				 FileLock lock = channel.lock()) {
+				return action.call();
+			} catch (IOException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new IOException("Error accessing response cache: " + directory, e);
+			}
+		}
+	}
+
+	private static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static long sizeOf(Path file) {
+		try {
+			return Files.size(file);
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	private static FileTime lastModified(Path file) {
+		try {
+			return Files.getLastModifiedTime(file);
+		} catch (IOException e) {
+			return FileTime.fromMillis(0);
+		}
+	}
+
+	/**
+	 * The metadata of a cached response.
+	 */
+	@Data
+	public static class Entry {
+
+		private String uri;
+		private String body;
+		private String etag;
+		private String lastModified;
+		private int statusCode;
+		private String reasonPhrase;
+		private Map<String, List<String>> headers;
+	}
+}
@@ -0,0 +1,35 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+/**
+ * Class of a request's expected duration, which selects its timeout.
+ */
+public enum TimeoutClass {
+
+	/**
+	 * Small and quick requests, e.g. checking whether a token is still being processed.
+	 */
+	POLL(true),
+
+	/**
+	 * Requests for or updates of metadata, e.g. of projects and their metrics.
+	 */
+	METADATA(true),
+
+	/**
+	 * Transfers of whole BOMs, scans or findings, whose duration depends on their size rather than on the endpoint.
+	 */
+	TRANSFER(false);
+
+	private final boolean adaptive;
+
+	TimeoutClass(boolean adaptive) {
+		this.adaptive = adaptive;
+	}
+
+	/**
+	 * @return whether the timeout may be derived from the endpoint's observed latencies
+	 */
+	public boolean isAdaptive() {
+		return adaptive;
+	}
+}
@@ -0,0 +1,47 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * State and arithmetic of a token bucket with reservations.
+ * <p>
+ * The bucket refills continuously at the given rate up to the burst size. A reservation takes one token,
+ * even if none is available; the bucket then goes into debt, and the reservation has to wait until the
+ * debt is paid off by refilling. This spaces out requests evenly once the burst is used up.
+ */
+final class TokenBucket {
+
+	private final double permitsPerSecond;
+	private final int burst;
+
+	double tokens;
+	long lastRefillMillis;
+
+	TokenBucket(double permitsPerSecond, int burst, long nowMillis) {
+		if (permitsPerSecond <= 0) {
+			throw new IllegalArgumentException("Rate limit must be > 0");
+		}
+		this.permitsPerSecond = permitsPerSecond;
+		this.burst = Math.max(1, burst);
+		this.tokens = this.burst;
+		this.lastRefillMillis = nowMillis;
+	}
+
+	/**
+	 * Reserves one token.
+	 *
+	 * @param nowMillis the current time
+	 * @return the time in milliseconds to wait before the token may be used
+	 */
+	long reserve(long nowMillis) {
+		long elapsedMillis = Math.max(0, nowMillis - lastRefillMillis);
+		tokens = Math.min(burst, tokens + elapsedMillis * permitsPerSecond / TimeUnit.SECONDS.toMillis(1));
+		lastRefillMillis = Math.max(lastRefillMillis, nowMillis);
+
+		tokens -= 1;
+		if (tokens >= 0) {
+			return 0;
+		}
+		return (long) Math.ceil(-tokens / permitsPerSecond * TimeUnit.SECONDS.toMillis(1));
+	}
+}
@@ -0,0 +1,55 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Value;
+
+/**
+ * Token bucket rate limiter within a single JVM.
+ * <p>
+ * Limiters obtained by {@link #shared(String, double, int)} are shared by all mojo executions of the
+ * Maven session, so the limit applies to all modules of a (parallel) build together.
+ */
+public class TokenBucketRateLimiter implements RateLimiter {
+
+	private static final Map<Key, TokenBucketRateLimiter> SHARED = new ConcurrentHashMap<>();
+
+	private final TokenBucket bucket;
+
+	public TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+		this.bucket = new TokenBucket(permitsPerSecond, burst, nowMillis());
+	}
+
+	/**
+	 * Returns the limiter shared by all clients of the JVM for the given server and settings.
+	 *
+	 * @param server identifies the rate limited server, e.g. its URL
+	 * @param permitsPerSecond the sustained request rate
+	 * @param burst the number of requests allowed at once, after being idle
+	 * @return the shared limiter
+	 */
+	public static TokenBucketRateLimiter shared(String server, double permitsPerSecond, int burst) {
+		return SHARED.computeIfAbsent(new Key(server, permitsPerSecond, burst),
+			key -> new TokenBucketRateLimiter(permitsPerSecond, burst));
+	}
+
+	@Override
+	public synchronized long reserve() {
+		return bucket.reserve(nowMillis());
+	}
+
+	private static long nowMillis() {
+		// monotonic, unlike the wall clock
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+	}
+
+	@Value
+	private static class Key {
+
+		String server;
+		double permitsPerSecond;
+		int burst;
+	}
+}
@@ -0,0 +1,124 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * A transport-neutral HTTP request.
+ * <p>
+ * A request can be aborted from any thread while it is executed; the transport then fails the
+ * execution with an {@link java.io.IOException}.
+ */
+@Getter
+public class TransportRequest {
+
+	private final String method;
+	private final URI uri;
+	private final Map<String, String> headers = new LinkedHashMap<>();
+	private final RequestBody body;
+
+	private int timeoutMillis;
+	private TimeoutClass timeoutClass;
+
+	private volatile boolean aborted;
+	private volatile Runnable abortAction;
+
+	public TransportRequest(String method, URI uri, RequestBody body) {
+		this.method = method;
+		this.uri = uri;
+		this.body = body;
+	}
+
+	public static TransportRequest get(URI uri) {
+		return new TransportRequest("GET", uri, null);
+	}
+
+	public TransportRequest header(String name, String value) {
+		headers.put(name, value);
+		return this;
+	}
+
+	/**
+	 * Sets the request's connect and socket timeout, overriding the transport's default.
+	 *
+	 * @param timeoutMillis the timeout in milliseconds, or <code>0</code> for the transport's default
+	 * @return this request
+	 */
+	public TransportRequest timeout(int timeoutMillis) {
+		this.timeoutMillis = timeoutMillis;
+		return this;
+	}
+
+	/**
+	 * Sets the request's timeout and the class of its expected duration, which decides whether the timeout may
+	 * be shortened to the endpoint's observed latencies.
+	 *
+	 * @param timeoutMillis the timeout in milliseconds, or <code>0</code> for the transport's default
+	 * @param timeoutClass the class of the request's expected duration
+	 * @return this request
+	 */
+	public TransportRequest timeout(int timeoutMillis, TimeoutClass timeoutClass) {
+		this.timeoutClass = timeoutClass;
+		return timeout(timeoutMillis);
+	}
+
+	/**
+	 * @return a new, not yet executed request with the same method, URI, headers, body and timeout
+	 */
+	public TransportRequest copy() {
+		return withUri(uri);
+	}
+
+	/**
+	 * @return a new, not yet executed request with the same method, headers, body and timeout, but the given URI
+	 */
+	public TransportRequest withUri(URI uri) {
+		TransportRequest copy = new TransportRequest(method, uri, body);
+		copy.headers.putAll(headers);
+		copy.timeoutMillis = timeoutMillis;
+		copy.timeoutClass = timeoutClass;
+		return copy;
+	}
+
+	public Map<String, String> getHeaders() {
+		return Collections.unmodifiableMap(headers);
+	}
+
+	/**
+	 * Whether the request is safe to repeat, e.g. for retries, without any side effects on the server.
+	 */
+	public boolean isIdempotent() {
+		return "GET".equals(method) || "HEAD".equals(method);
+	}
+
+	/**
+	 * Registers the transport specific action, which aborts the in-flight execution of this request.
+	 * If the request has already been aborted, the action is run immediately.
+	 */
+	public void onAbort(Runnable action) {
+		this.abortAction = action;
+		if (aborted) {
+			action.run();
+		}
+	}
+
+	/**
+	 * Aborts the execution of this request, if it is in-flight, or prevents it, if not yet started.
+	 */
+	public void abort() {
+		aborted = true;
+		Runnable action = abortAction;
+		if (action != null) {
+			action.run();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return method + " " + uri;
+	}
+}
@@ -0,0 +1,56 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import lombok.Getter;
+
+/**
+ * A transport-neutral HTTP response with a streamable body.
+ * <p>
+ * Closing the response releases the underlying connection.
+ */
+@Getter
+public class TransportResponse implements Closeable {
+
+	private final int statusCode;
+	private final String reasonPhrase;
+	private final Map<String, List<String>> headers;
+	private final InputStream body;
+	private final Closeable release;
+
+	public TransportResponse(int statusCode, String reasonPhrase, Map<String, List<String>> headers, InputStream body, Closeable release) {
+		this.statusCode = statusCode;
+		this.reasonPhrase = reasonPhrase;
+		this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		this.headers.putAll(headers);
+		this.body = body;
+		this.release = release;
+	}
+
+	/**
+	 * @return the first value of the header with the given case-insensitive name, or null if not present
+	 */
+	public String getFirstHeader(String name) {
+		List<String> values = headers.getOrDefault(name, Collections.emptyList());
+		return values.isEmpty() ? null : values.get(0);
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			if (body != null) {
+				body.close();
+			}
+		} finally {
+			if (release != null) {
+				release.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,12 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.io.IOException;
+
+/**
+ * Processes a {@link TransportResponse} into a result, e.g. by parsing its body.
+ */
+@FunctionalInterface
+public interface TransportResponseHandler<R> {
+
+	R handle(TransportResponse response) throws IOException;
+}
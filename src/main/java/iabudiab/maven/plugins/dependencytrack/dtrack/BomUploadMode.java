@@ -0,0 +1,18 @@
+package iabudiab.maven.plugins.dependencytrack.dtrack;
+
+/**
+ * The way a BOM is uploaded to Dependency-Track.
+ */
+public enum BomUploadMode {
+
+	/**
+	 * <code>POST /api/v1/bom</code> as <code>multipart/form-data</code>, streaming the BOM file from disk.
+	 * Falls back to {@link #JSON}, if the server doesn't accept multipart uploads.
+	 */
+	MULTIPART,
+
+	/**
+	 * <code>PUT /api/v1/bom</code> with the base64 encoded BOM embedded in a JSON payload.
+	 */
+	JSON
+}
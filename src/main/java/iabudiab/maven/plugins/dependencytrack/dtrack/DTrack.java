@@ -4,17 +4,30 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Base64;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.http.client.HttpResponseException;
 
+import iabudiab.maven.plugins.dependencytrack.client.BomProcessedWebhook;
 import iabudiab.maven.plugins.dependencytrack.client.DTrackClient;
+import iabudiab.maven.plugins.dependencytrack.client.EncodedBom;
+import iabudiab.maven.plugins.dependencytrack.client.PollingPolicy;
+import iabudiab.maven.plugins.dependencytrack.client.ProcessingTimeHistory;
+import iabudiab.maven.plugins.dependencytrack.client.ServerCapabilities;
 import iabudiab.maven.plugins.dependencytrack.client.model.Analysis;
 import iabudiab.maven.plugins.dependencytrack.client.model.AnalysisJustification;
 import iabudiab.maven.plugins.dependencytrack.client.model.AnalysisResponse;
@@ -27,6 +40,7 @@ import iabudiab.maven.plugins.dependencytrack.client.model.ScanSubmitRequest;
 import iabudiab.maven.plugins.dependencytrack.client.model.State;
 import iabudiab.maven.plugins.dependencytrack.client.model.Tag;
 import iabudiab.maven.plugins.dependencytrack.client.model.TokenResponse;
+import iabudiab.maven.plugins.dependencytrack.client.transport.Deadline;
 import iabudiab.maven.plugins.dependencytrack.cyclone.BomFormat;
 import iabudiab.maven.plugins.dependencytrack.suppressions.Suppression;
 import iabudiab.maven.plugins.dependencytrack.suppressions.Suppressions;
@@ -42,6 +56,16 @@ import org.apache.maven.plugin.logging.Log;
  */
 public class DTrack {
 
+	// loads independent results concurrently, waiting for them may block, e.g. between metrics retries
+	private static final ExecutorService RESULTS = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "dtrack-results");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	// bounds the concurrent analysis uploads, which all go through the client's transport chain without blocking
+	private static final int MAX_ANALYSIS_UPLOADS = 4;
+
 	private final DTrackClient client;
 	private final Suppressions suppressions;
 	private final String projectName;
@@ -52,6 +76,19 @@ public class DTrack {
 	private List<Finding> findings;
 	private ProjectMetrics projectMetrics;
 
+	// sizes of the BOMs uploaded by this instance, to predict their processing time
+	private final Map<UUID, Long> uploadedBomSizes = new ConcurrentHashMap<>();
+	private final Map<UUID, Long> uploadTimes = new ConcurrentHashMap<>();
+
+	private BomProcessedWebhook webhook;
+	private long webhookFallbackDelayMillis;
+
+	// projects looked up or written by this instance, concurrent lookups already share a single request in the client
+	private final Map<UUID, Project> projectsByUuid = new ConcurrentHashMap<>();
+	private final Map<Pair<String, String>, Project> projectsByName = new ConcurrentHashMap<>();
+	// lookups by name only find any of the project's versions, thus they are kept apart from those by name and version
+	private final Map<String, UUID> uuidsByNameOnly = new ConcurrentHashMap<>();
+
 	/**
 	 * Constructs a new DTrack instance.
 	 *
@@ -74,6 +111,31 @@ public class DTrack {
 		this.log = log;
 	}
 
+	/**
+	 * Sets the listener for <code>BOM_PROCESSED</code> notifications. Polling a token then waits for its notification
+	 * and only polls as fallback, e.g. if the notification gets lost.
+	 *
+	 * @param webhook The listener, or null to only poll
+	 * @param fallbackDelayMillis The delay between the fallback polls
+	 */
+	public void setWebhook(BomProcessedWebhook webhook, long fallbackDelayMillis) {
+		this.webhook = webhook;
+		this.webhookFallbackDelayMillis = fallbackDelayMillis;
+	}
+
+	/**
+	 * Sets the deadline of the goal, which bounds all requests and waits of this instance.
+	 *
+	 * @param deadline The deadline, or {@link Deadline#none()}
+	 */
+	public void setDeadline(Deadline deadline) {
+		client.setDeadline(deadline);
+	}
+
+	public Deadline getDeadline() {
+		return client.getDeadline();
+	}
+
 	/**
 	 * Gets the suppressions configured for this DTrack instance.
 	 *
@@ -97,17 +159,16 @@ public class DTrack {
 		log.info("Uploading scan for project: " + projectName + ":" + projectVersion);
 		log.debug("Scan file path: " + path);
 
-		String encodeArtifact = loadAndEncodeArtifactFile(path);
+		requireArtifactFile(path);
 
 		ScanSubmitRequest payload = ScanSubmitRequest.builder() //
 			.projectName(projectName) //
 			.projectVersion(projectVersion) //
-			.scan(encodeArtifact) //
 			.autoCreate(true) //
 			.build();
 
 		try {
-			client.uploadScan(payload);
+			client.uploadScan(payload, path);
 			log.info("Successfully uploaded scan for project: " + projectName + ":" + projectVersion);
 		} catch (HttpResponseException e) {
 			log.error("Failed to upload scan: " + e.getMessage());
@@ -118,35 +179,97 @@ public class DTrack {
 		}
 	}
 
+	/**
+	 * Uploads a BOM to Dependency-Track using {@link BomUploadMode#JSON}.
+	 *
+	 * @param path The path to the BOM file to upload
+	 * @return A TokenResponse containing the token for the uploaded BOM
+	 * @throws DTrackException If an error occurs during the upload process
+	 * @see #uploadBom(Path, BomUploadMode)
+	 */
+	public TokenResponse uploadBom(Path path) throws DTrackException {
+		return uploadBom(path, BomUploadMode.JSON);
+	}
+
 	/**
 	 * Uploads a BOM to Dependency-Track.
 	 * <p>
 	 * The BOM is uploaded for the project specified in the constructor.
 	 * If the project doesn't exist, it will be created automatically.
 	 * </p>
+	 * <p>
+	 * In {@link BomUploadMode#MULTIPART} mode the BOM is streamed from disk. If the server rejects
+	 * the multipart request as unsupported, the upload falls back to {@link BomUploadMode#JSON}.
+	 * </p>
 	 *
 	 * @param path The path to the BOM file to upload
+	 * @param uploadMode The upload mode to use
 	 * @return A TokenResponse containing the token for the uploaded BOM
 	 * @throws DTrackException If an error occurs during the upload process
 	 */
-	public TokenResponse uploadBom(Path path) throws DTrackException {
+	public TokenResponse uploadBom(Path path, BomUploadMode uploadMode) throws DTrackException {
+		return uploadBom(EncodedBom.of(path), uploadMode);
+	}
+
+	/**
+	 * Uploads a BOM to Dependency-Track, like {@link #uploadBom(Path, BomUploadMode)}.
+	 * <p>
+	 * A {@link EncodedBom#shared(Path) shared} BOM is encoded only once for all JSON uploads, e.g. when
+	 * uploading the same BOM to several Dependency-Track servers.
+	 * </p>
+	 *
+	 * @param bom The BOM to upload
+	 * @param uploadMode The upload mode to use
+	 * @return A TokenResponse containing the token for the uploaded BOM
+	 * @throws DTrackException If an error occurs during the upload process
+	 */
+	public TokenResponse uploadBom(EncodedBom bom, BomUploadMode uploadMode) throws DTrackException {
+		Path path = bom.getFile();
 		log.info("Uploading BOM for project: " + projectName + ":" + projectVersion);
 		log.debug("BOM file path: " + path);
+		log.debug("BOM upload mode: " + uploadMode);
+
+		if (uploadMode == BomUploadMode.MULTIPART) {
+			requireArtifactFile(path);
+
+			BomSubmitRequest payload = BomSubmitRequest.builder() //
+				.projectName(projectName) //
+				.projectVersion(projectVersion) //
+				.autoCreate(true) //
+				.build();
+
+			try {
+				TokenResponse response = client.uploadBomMultipart(payload, path);
+				log.info("Successfully uploaded BOM for project: " + projectName + ":" + projectVersion);
+				log.debug("BOM token: " + response.getToken());
+				rememberUpload(response, path);
+				return response;
+			} catch (HttpResponseException e) {
+				if (!isUnsupportedRequest(e)) {
+					log.error("Failed to upload BOM: " + e.getMessage());
+					throw handleCommonErrors(e);
+				}
+				log.warn("Server does not accept multipart BOM uploads (" + e.getStatusCode() + "), falling back to JSON upload");
+			} catch (IOException e) {
+				log.error("Error uploading BOM: " + e.getMessage());
+				throw new DTrackException("Error uploading bom: ", e);
+			}
+		}
 
-		String encodeArtifact = loadAndEncodeArtifactFile(path);
+		requireArtifactFile(path);
 
 		BomSubmitRequest payload = BomSubmitRequest.builder() //
 			.projectName(projectName) //
 			.projectVersion(projectVersion) //
-			.bom(encodeArtifact) //
 			.autoCreate(true) //
 			.build();
 
 		TokenResponse response = null;
 		try {
-			response = client.uploadBom(payload);
+			response = client.uploadBom(payload, bom);
 			log.info("Successfully uploaded BOM for project: " + projectName + ":" + projectVersion);
 			log.debug("BOM token: " + response.getToken());
+			rememberUpload(response, path);
 		} catch (HttpResponseException e) {
 			log.error("Failed to upload BOM: " + e.getMessage());
 			throw handleCommonErrors(e);
@@ -158,6 +281,18 @@ public class DTrack {
 		return response;
 	}
 
+	private void rememberUpload(TokenResponse response, Path path) {
+		if (response == null || response.getToken() == null) {
+			return;
+		}
+		uploadTimes.put(response.getToken(), System.currentTimeMillis());
+		try {
+			uploadedBomSizes.put(response.getToken(), Files.size(path));
+		} catch (IOException e) {
+			log.debug("Could not determine the size of the BOM: " + e.getMessage());
+		}
+	}
+
 	/**
 	 * Downloads a BOM from Dependency-Track.
 	 * <p>
@@ -195,14 +330,24 @@ public class DTrack {
 	/**
 	 * Finds a project in Dependency-Track by its UUID.
 	 *
+	 * <p>
+	 * Projects are looked up only once per instance, later calls return the project as last looked up or written.
+	 * </p>
+	 *
 	 * @param uuid The UUID of the project to find
 	 * @return The project if found, null otherwise
 	 * @throws DTrackException If an error occurs during the request
 	 */
 	public Project findProject(UUID uuid) throws DTrackException {
+		Project known = projectsByUuid.get(uuid);
+		if (known != null) {
+			log.debug("Using known project: " + known.getName() + ":" + known.getVersion());
+			return known;
+		}
+
 		log.debug("Finding project with UUID: " + uuid);
 		try {
-			Project project = client.getProject(uuid);
+			Project project = remember(client.getProject(uuid));
 			if (project != null) {
 				log.debug("Found project: " + project.getName() + ":" + project.getVersion());
 			} else {
@@ -227,15 +372,34 @@ public class DTrack {
 	/**
 	 * Finds a project in Dependency-Track by its name and version.
 	 *
+	 * <p>
+	 * Projects are looked up only once per instance, later calls return the project as last looked up or written.
+	 * Projects, that weren't found, are looked up again, since uploading a BOM may create them. Without a
+	 * version, the version found first by name is kept.
+	 * </p>
+	 *
 	 * @param projectName The name of the project to find
 	 * @param projectVersion The version of the project to find
 	 * @return The project if found, null otherwise
 	 * @throws DTrackException If an error occurs during the request
 	 */
 	public Project findProject(String projectName, String projectVersion) throws DTrackException {
+		boolean nameOnly = ObjectUtils.isEmpty(projectVersion);
+		UUID knownUuid = nameOnly ? uuidsByNameOnly.get(projectName) : null;
+		Project known = nameOnly
+			? (knownUuid != null ? projectsByUuid.get(knownUuid) : null)
+			: projectsByName.get(Pair.of(projectName, projectVersion));
+		if (known != null) {
+			log.debug("Using known project: " + projectName + ":" + known.getVersion());
+			return known;
+		}
+
 		log.debug("Finding project: " + projectName + ":" + projectVersion);
 		try {
-			Project project = client.getProject(projectName, projectVersion);
+			Project project = remember(client.getProject(projectName, projectVersion));
+			if (project != null && project.getUuid() != null && nameOnly) {
+				uuidsByNameOnly.put(projectName, project.getUuid());
+			}
 			if (project != null) {
 				log.debug("Found project: " + projectName + ":" + projectVersion);
 			} else {
@@ -304,7 +468,7 @@ public class DTrack {
 			(collectionLogic != null ? " with collection logic: " + collectionLogic : "") +
 			(collectionTag != null ? " and collection tag: " + collectionTag.getName() : ""));
 		try {
-			Project project = client.createProject(projectName, projectVersion, collectionLogic, collectionTag);
+			Project project = remember(client.createProject(projectName, projectVersion, collectionLogic, collectionTag));
 			log.info("Successfully created project: " + projectName + ":" + projectVersion);
 			return project;
 		} catch (HttpResponseException e) {
@@ -317,58 +481,46 @@ public class DTrack {
 	}
 
 	/**
-	 * Applies a parent project to a child project in Dependency-Track.
+	 * Starts an update of a project, that applies all changed settings with a single request.
 	 *
-	 * @param project The child project to which the parent will be applied
-	 * @param parentProject The parent project to apply
-	 * @return The updated child project
-	 * @throws DTrackException If an error occurs during the request
+	 * @param project The loaded project to update
+	 * @return The update, to collect the desired settings
 	 */
-	public Project applyParentProject(Project project, Project parentProject) {
-		log.info("Applying parent project " + parentProject.getName() + ":" + parentProject.getVersion() + 
-			" to project " + project.getName() + ":" + project.getVersion());
+	public ProjectUpdate updateProject(Project project) {
+		return new ProjectUpdate(this, project, log);
+	}
+
+	Project postProject(Project project) throws DTrackException {
 		try {
-			Project updatedProject = client.applyProjectParent(project, parentProject);
-			log.info("Successfully applied parent project");
+			Project updatedProject = remember(client.postProject(project));
+			log.info("Successfully updated project " + project.getName() + ":" + project.getVersion());
 			return updatedProject;
 		} catch (HttpResponseException e) {
-			log.error("Failed to apply parent project: " + e.getMessage());
+			log.error("Failed to update project: " + e.getMessage());
 			throw handleCommonErrors(e);
 		} catch (IOException e) {
-			log.error("Error applying parent project: " + e.getMessage());
-			throw new DTrackException("Error applying parent: ", e);
+			log.error("Error updating project: " + e.getMessage());
+			throw new DTrackException("Error updating project: ", e);
 		}
 	}
 
-	/**
-	 * Applies collection logic and tag to a project in Dependency-Track.
-	 *
-	 * @param project The project to which the collection logic will be applied
-	 * @param collectionLogic The collection logic to apply
-	 * @param collectionTag The collection tag to apply
-	 * @return The updated project
-	 * @throws DTrackException If an error occurs during the request
-	 */
-	public Project applyCollectionLogic(Project project, CollectionLogic collectionLogic, String collectionTag) {
-		log.info("Applying collection logic " + collectionLogic + 
-			(collectionTag != null ? " with tag: " + collectionTag : "") + 
-			" to project " + project.getName() + ":" + project.getVersion());
+	Project patchProject(Project project, Map<String, Object> payload) throws DTrackException {
 		try {
-			Project updatedProject = client.applyCollectionLogic(project, collectionLogic, collectionTag);
-			log.info("Successfully applied collection logic to project");
+			Project updatedProject = remember(client.patchProject(project, payload));
+			log.info("Successfully updated project " + project.getName() + ":" + project.getVersion());
 			return updatedProject;
 		} catch (HttpResponseException e) {
-			log.error("Failed to apply collection logic: " + e.getMessage());
+			log.error("Failed to update project: " + e.getMessage());
 			throw handleCommonErrors(e);
 		} catch (IOException e) {
-			log.error("Error applying collection logic: " + e.getMessage());
-			throw new DTrackException("Error applying collection logic: ", e);
+			log.error("Error updating project: " + e.getMessage());
+			throw new DTrackException("Error updating project: ", e);
 		}
 	}
 
 	public Project applyActive(UUID projectUuid, boolean active, CollectionLogic collectionLogic, Tag collectionTag) {
 		try {
-			Project updatedProject = client.patchProjectActive(projectUuid, active, collectionLogic, collectionTag);
+			Project updatedProject = remember(client.patchProjectActive(projectUuid, active, collectionLogic, collectionTag));
 			log.info(String.format("Successfully applied active='%s' to project (uuid='%s')", active, projectUuid));
 			return updatedProject;
 		} catch (HttpResponseException e) {
@@ -380,60 +532,125 @@ public class DTrack {
 		}
 	}
 
-
-	/**
-	 * Applies given latest value to a project in Dependency-Track.
-	 *
-	 * @param project The project to which the latest value will be applied
-	 * @param latest the boolean value that should be applied
-	 * @return The updated project
-	 * @throws DTrackException If an error occurs during the request
-	 */
-	public Project applyLatest(Project project, boolean latest) {
-		log.info("Applying latest = " + latest + " to project " + project.getName() + ":" + project.getVersion());
-		try {
-			Project updatedProject = client.applyLatest(project, latest);
-			log.info("Successfully applied latest='"+ latest +"' to project");
-			return updatedProject;
-		} catch (HttpResponseException e) {
-			log.error("Failed to apply latest state: " + e.getMessage());
-			throw handleCommonErrors(e);
-		} catch (IOException e) {
-			log.error("Error applying latest state: " + e.getMessage());
-			throw new DTrackException("Error applying latest state: ", e);
-		}
-	}
-
 	/**
 	 * Polls a token for processing status in Dependency-Track.
 	 * <p>
-	 * This method waits for the token to be processed for the specified duration.
+	 * This method waits for the token to be processed for the specified duration. The first check is
+	 * immediate, further checks back off according to the client's polling policy. If the policy has a
+	 * history of processing times and the token belongs to a BOM uploaded by this instance, the first check
+	 * is delayed by the BOM's predicted processing time instead.
+	 * </p>
+	 * <p>
+	 * If a webhook is set, this method waits for the token's <code>BOM_PROCESSED</code> notification, while
+	 * polling only with the webhook's fallback delay.
 	 * </p>
 	 *
 	 * @param token The token to poll
 	 * @param durationSeconds The maximum duration to wait for the token to be processed, in seconds
-	 * @return true if the token was processed successfully, false otherwise
+	 * @return true if the token is still being processed, false once it has been processed
 	 * @throws DTrackException If an error occurs during the polling process
 	 */
 	public boolean pollToken(UUID token, int durationSeconds) {
-		log.info("Polling token: " + token + " with timeout: " + durationSeconds + " seconds");
-		try { 
-			boolean result = client.pollTokenProcessing(token, ForkJoinPool.commonPool())
-				.get(durationSeconds, TimeUnit.SECONDS);
+		long timeoutMillis = getDeadline().clamp(TimeUnit.SECONDS.toMillis(durationSeconds));
+		log.info("Polling token: " + token + " with timeout: " + TimeUnit.MILLISECONDS.toSeconds(timeoutMillis) + " seconds");
+		ProcessingTimeHistory history = client.getPollingPolicy().getHistory();
+		Long bomSizeBytes = uploadedBomSizes.get(token);
+		Long uploadMillis = uploadTimes.get(token);
+		long firstDelayMillis = 0;
+		if (history != null && bomSizeBytes != null && uploadMillis != null) {
+			long predictedMillis = history.predictMillis(client.getDependencyTrackUrl(), bomSizeBytes, log);
+			if (predictedMillis > 0) {
+				// the BOM is being processed since its upload, and time is left for further checks, if the prediction is off
+				long remainingMillis = predictedMillis - (System.currentTimeMillis() - uploadMillis);
+				firstDelayMillis = Math.max(0, Math.min(remainingMillis, timeoutMillis / 2));
+				log.info("Predicted processing time of " + predictedMillis + " ms, first check in " + firstDelayMillis + " ms");
+			}
+		}
+
+		CompletableFuture<Boolean> notified = null;
+		CompletableFuture<Boolean> polling;
+		if (webhook != null) {
+			log.info("Waiting for the BOM_PROCESSED notification of token, polling every " + webhookFallbackDelayMillis + " ms as fallback: " + token);
+			ServerCapabilities capabilities = client.getCapabilities();
+			if (capabilities.getVersion() != null && !capabilities.isNotificationTokenSupported()) {
+				// notifications received before the upload can only be of another BOM of the same project
+				notified = webhook.await(token, projectName, projectVersion, uploadMillis != null ? uploadMillis : Long.MAX_VALUE);
+			} else {
+				// a notification without a token may be of any BOM of the project, e.g. of a concurrent build
+				notified = webhook.await(token);
+			}
+			PollingPolicy fallbackPolicy = PollingPolicy.builder()
+				.initialDelayMillis(webhookFallbackDelayMillis)
+				.maxDelayMillis(webhookFallbackDelayMillis)
+				.build();
+			polling = client.pollTokenProcessing(token, ForkJoinPool.commonPool(), firstDelayMillis, fallbackPolicy);
+		} else {
+			polling = client.pollTokenProcessing(token, ForkJoinPool.commonPool(), firstDelayMillis);
+		}
+
+		CompletableFuture<Boolean> processed = notified != null ? eitherProcessed(token, notified, polling) : polling;
+		try {
+			boolean result = processed.get(timeoutMillis, TimeUnit.MILLISECONDS);
+			// the result tells whether the token is still being processed
 			if (result) {
-				log.info("Token processing completed successfully: " + token);
+				log.warn("Token processing did not complete: " + token);
 			} else {
-				log.warn("Token processing did not complete successfully: " + token);
+				log.info("Token processing completed: " + token);
+				recordProcessingTime(history, bomSizeBytes, uploadMillis);
 			}
 			return result;
 		} catch (TimeoutException e) {
 			log.error("Timeout while polling token: " + token);
-			Thread.currentThread().interrupt();
 			throw new DTrackException("Timeout polling token: ", e);
-		} catch (InterruptedException | ExecutionException e) {
-			log.error("Error polling token: " + e.getMessage());
+		} catch (InterruptedException e) {
+			log.error("Interrupted while polling token: " + token);
 			Thread.currentThread().interrupt();
+			throw new DTrackException("Interrupted polling token: ", e);
+		} catch (ExecutionException e) {
+			log.error("Error polling token: " + e.getMessage());
 			throw new DTrackException("Error polling token: ", e);
+		} finally {
+			// stops the scheduled and in-flight checks on timeout or interruption
+			polling.cancel(true);
+			if (notified != null) {
+				notified.cancel(true);
+			}
+		}
+	}
+
+	/**
+	 * @return a future completing with the notification, or with the fallback polling once it succeeds; a failed poll,
+	 * e.g. due to a transient server error, leaves the notification to decide
+	 */
+	private CompletableFuture<Boolean> eitherProcessed(UUID token, CompletableFuture<Boolean> notified, CompletableFuture<Boolean> polling) {
+		CompletableFuture<Boolean> processed = new CompletableFuture<>();
+		notified.whenComplete((result, failure) -> {
+			if (failure != null) {
+				processed.completeExceptionally(failure);
+			} else {
+				processed.complete(result);
+			}
+		});
+		polling.whenComplete((result, failure) -> {
+			if (failure == null) {
+				processed.complete(result);
+			} else if (!polling.isCancelled()) {
+				log.warn("Fallback polling of token " + token + " failed, waiting for the notification only: " + failure.getMessage());
+			}
+		});
+		return processed;
+	}
+
+	private void recordProcessingTime(ProcessingTimeHistory history, Long bomSizeBytes, Long uploadMillis) {
+		if (history == null || bomSizeBytes == null || uploadMillis == null) {
+			return;
+		}
+		try {
+			// measured from the upload, since the project's update or other uploads may have delayed the polling
+			long processingMillis = Math.max(0, System.currentTimeMillis() - uploadMillis);
+			history.record(client.getDependencyTrackUrl(), bomSizeBytes, processingMillis);
+		} catch (IOException e) {
+			log.warn("Could not record the processing time of the BOM: " + e.getMessage());
 		}
 	}
 
@@ -467,6 +684,40 @@ public class DTrack {
 		}
 	}
 
+	/**
+	 * Checks the findings of the project specified in the constructor against the security gate, while they
+	 * are being loaded.
+	 * <p>
+	 * Unlike {@link #loadFindings()}, the findings aren't kept, so that only the effective findings of the
+	 * gate's report are held in memory. If the project hasn't been loaded yet, it will be loaded first.
+	 * </p>
+	 *
+	 * @param securityGate The security gate to check the findings against
+	 * @return The decision of the security gate
+	 * @throws DTrackException If an error occurs during the request or if the project doesn't exist
+	 */
+	public SecurityGateDecision checkFindings(FindingsThresholdSecurityGate securityGate) throws DTrackException {
+		log.info("Checking findings for project: " + projectName + ":" + projectVersion);
+
+		if (project == null) {
+			log.debug("Project not loaded, loading project");
+			loadProject();
+		}
+
+		try {
+			FindingsThresholdSecurityGate.Evaluation evaluation = securityGate.evaluate(suppressions);
+			int count = client.forEachProjectFinding(project.getUuid(), evaluation);
+			log.info("Successfully checked " + count + " findings for project: " + projectName + ":" + projectVersion);
+			return evaluation.decide();
+		} catch (HttpResponseException e) {
+			log.error("Failed to load findings: " + e.getMessage());
+			throw handleCommonErrors(e);
+		} catch (IOException e) {
+			log.error("Error loading project findings: " + e.getMessage());
+			throw new DTrackException("Error loading project findings: ", e);
+		}
+	}
+
 	/**
 	 * Loads the metrics for the project specified in the constructor.
 	 * <p>
@@ -540,6 +791,43 @@ public class DTrack {
 		return projectMetrics;
 	}
 
+	/**
+	 * Loads the findings and the metrics of the project specified in the constructor concurrently.
+	 * <p>
+	 * The project is loaded first, if it hasn't been loaded yet. Callers can then e.g. check the findings
+	 * against the security gate as soon as they have arrived, while the metrics are still being loaded.
+	 * </p>
+	 *
+	 * @param retryDelay The delay between retries of loading the metrics, in seconds
+	 * @param retryLimit The maximum number of retries of loading the metrics, or null for no retries
+	 * @return The findings and metrics being loaded
+	 * @throws DTrackException If an error occurs while loading the project or if the project doesn't exist
+	 * @see #loadFindings()
+	 * @see #loadProjectMetrics(Integer, Integer)
+	 */
+	public ProjectResults loadResults(Integer retryDelay, Integer retryLimit) throws DTrackException {
+		if (project == null) {
+			log.debug("Project not loaded, loading project");
+			loadProject();
+		}
+
+		CompletableFuture<List<Finding>> findingsFuture = CompletableFuture.supplyAsync(this::loadFindings, RESULTS);
+		CompletableFuture<ProjectMetrics> metricsFuture = CompletableFuture.supplyAsync(() -> retryLimit != null
+			? loadProjectMetrics(retryDelay, retryLimit)
+			: loadProjectMetrics(), RESULTS);
+		return new ProjectResults(findingsFuture, metricsFuture);
+	}
+
+	/**
+	 * Loads the findings and the metrics of the project without retries, like {@link #loadResults(Integer, Integer)}.
+	 *
+	 * @return The findings and metrics being loaded
+	 * @throws DTrackException If an error occurs while loading the project or if the project doesn't exist
+	 */
+	public ProjectResults loadResults() throws DTrackException {
+		return loadResults(null, null);
+	}
+
 	/**
 	 * Applies suppressions to findings in Dependency-Track.
 	 * <p>
@@ -570,6 +858,7 @@ public class DTrack {
 
 		int appliedCount = 0;
 		int resetCount = 0;
+		List<Analysis> analyses = new ArrayList<>();
 
 		for (Finding finding : findings) {
 			Suppression suppression = suppressions.suppressionFor(finding);
@@ -602,15 +891,17 @@ public class DTrack {
 				appliedCount++;
 			}
 
-			try {
-				client.uploadAnalysis(analysis);
-			} catch (HttpResponseException e) {
-				log.error("Failed to upload suppression analysis: " + e.getMessage());
-				throw handleCommonErrors(e);
-			} catch (IOException e) {
-				log.error("Error uploading suppression analysis: " + e.getMessage());
-				throw new DTrackException("Error uploading suppression analysis: ", e);
-			}
+			analyses.add(analysis);
+		}
+
+		try {
+			uploadAnalyses(analyses);
+		} catch (HttpResponseException e) {
+			log.error("Failed to upload suppression analysis: " + e.getMessage());
+			throw handleCommonErrors(e);
+		} catch (IOException e) {
+			log.error("Error uploading suppression analysis: " + e.getMessage());
+			throw new DTrackException("Error uploading suppression analysis: ", e);
 		}
 
 		log.info("Successfully applied " + appliedCount + " suppressions" + 
@@ -619,31 +910,90 @@ public class DTrack {
 	}
 
 	/**
-	 * Loads a file from the specified path and encodes it as a Base64 string.
+	 * Uploads the analyses concurrently, but at most {@value #MAX_ANALYSIS_UPLOADS} at once. The uploads don't
+	 * occupy a thread while waiting for their responses, instead each of the concurrent lanes starts its next
+	 * upload once the previous one has completed.
 	 *
-	 * @param path The path to the file to load and encode
-	 * @return The Base64-encoded content of the file
-	 * @throws DTrackException If the file doesn't exist or an error occurs during loading or encoding
+	 * @param analyses The analyses to upload
+	 * @throws IOException The first error of the uploads, in order of the analyses
 	 */
-	private String loadAndEncodeArtifactFile(Path path) throws DTrackException {
-		log.debug("Loading and encoding artifact file: " + path);
+	private void uploadAnalyses(List<Analysis> analyses) throws IOException {
+		List<CompletableFuture<Void>> uploads = new ArrayList<>();
+		List<CompletableFuture<Void>> lanes = new ArrayList<>();
+		for (Analysis analysis : analyses) {
+			CompletableFuture<Void> upload;
+			if (lanes.size() < MAX_ANALYSIS_UPLOADS) {
+				upload = client.uploadAnalysisAsync(analysis);
+				lanes.add(upload);
+			} else {
+				int lane = uploads.size() % MAX_ANALYSIS_UPLOADS;
+				// a failed upload doesn't stop the others of its lane
+				upload = lanes.get(lane).handle((result, failure) -> null)
+					.thenCompose(previous -> client.uploadAnalysisAsync(analysis));
+				lanes.set(lane, upload);
+			}
+			uploads.add(upload);
+		}
 
+		try {
+			for (CompletableFuture<Void> upload : uploads) {
+				upload.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while uploading suppression analyses", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+				? e.getCause().getCause()
+				: e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new IOException("Error uploading suppression analyses", cause);
+		}
+	}
+
+	/**
+	 * Ensures that the artifact file at the specified path exists.
+	 *
+	 * @param path The path to the artifact file
+	 * @throws DTrackException If the file doesn't exist
+	 */
+	private void requireArtifactFile(Path path) throws DTrackException {
 		if (!path.toFile().exists()) {
 			log.error("Could not find artifact: " + path);
 			throw new DTrackException("Could not find artifact: " + path);
 		}
+	}
 
-		try {
-			String encoded = Base64.getEncoder().encodeToString(Files.readAllBytes(path));
-			log.debug("Successfully loaded and encoded artifact file: " + path);
-			return encoded;
-		} catch (HttpResponseException e) {
-			log.error("Failed to encode artifact: " + e.getMessage());
-			throw handleCommonErrors(e);
-		} catch (IOException e) {
-			log.error("Error encoding artifact: " + e.getMessage());
-			throw new DTrackException("Error encoding artifact", e);
+	/**
+	 * Checks whether the server rejected a request because it doesn't support the endpoint, method or media type.
+	 *
+	 * @param e The HttpResponseException to check
+	 * @return true if the response status is 404, 405 or 415
+	 */
+	private static boolean isUnsupportedRequest(HttpResponseException e) {
+		return e.getStatusCode() == 404 || e.getStatusCode() == 405 || e.getStatusCode() == 415;
+	}
+
+	/**
+	 * Keeps a looked up or written project for later lookups. The project's other versions are kept from the known
+	 * project, if the response doesn't list them. Kept projects are shared, so they must not be modified.
+	 *
+	 * @param project The project, may be null
+	 * @return The given project
+	 */
+	private Project remember(Project project) {
+		if (project == null || project.getUuid() == null) {
+			return project;
+		}
+		Project known = projectsByUuid.get(project.getUuid());
+		if (project.getVersions() == null && known != null) {
+			project.setVersions(known.getVersions());
 		}
+		projectsByUuid.put(project.getUuid(), project);
+		projectsByName.put(Pair.of(project.getName(), project.getVersion()), project);
+		return project;
 	}
 
 	/**
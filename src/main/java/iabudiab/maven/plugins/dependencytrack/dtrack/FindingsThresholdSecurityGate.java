@@ -1,12 +1,11 @@
 package iabudiab.maven.plugins.dependencytrack.dtrack;
 
-import static java.util.stream.Collectors.counting;
-import static java.util.stream.Collectors.groupingBy;
-
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import iabudiab.maven.plugins.dependencytrack.client.model.Finding;
 import iabudiab.maven.plugins.dependencytrack.client.model.Severity;
@@ -31,34 +30,39 @@ public class FindingsThresholdSecurityGate implements SecurityGate {
 
 	@Override
 	public SecurityGateDecision checkAgainst(List<Finding> findings, Suppressions suppressions) {
-		SecurityReport securityReport = processSuppressions(findings, suppressions);
-		SecurityGateDecision decision = new SecurityGateDecision(SecurityGateDecision.Decision.PASS, securityReport);
-
-		Map<Severity, Long> statistics = securityReport.getEffectiveFindings()
-			.stream()
-			.collect(
-				groupingBy(finding -> finding.getVulnerability().getSeverity(), counting())
-			);
-
-		if (statistics.getOrDefault(Severity.CRITICAL, 0L) > critical ||
-			statistics.getOrDefault(Severity.HIGH, 0L) > high ||
-			statistics.getOrDefault(Severity.MEDIUM, 0L) > medium ||
-			statistics.getOrDefault(Severity.LOW, 0L) > low) {
-			decision.fail();
-		}
+		Evaluation evaluation = evaluate(suppressions);
+		findings.forEach(evaluation);
+		return evaluation.decide();
+	}
 
-		return decision;
+	/**
+	 * Starts an incremental evaluation of this security gate, which processes findings one
+	 * at a time, e.g. while they are streamed from Dependency-Track.
+	 *
+	 * @param suppressions the local suppressions to apply
+	 * @return the evaluation accepting the findings
+	 */
+	public Evaluation evaluate(Suppressions suppressions) {
+		return new Evaluation(suppressions);
 	}
 
-	private SecurityReport processSuppressions(List<Finding> findings, Suppressions suppressions) {
-		StringBuilder reportBuilder = new StringBuilder();
-		reportBuilder.append("--- Report ---");
-		reportBuilder.append("\n");
+	public class Evaluation implements Consumer<Finding> {
 
-		List<Finding> effectiveFindings = new ArrayList<>();
-		List<Suppression> remainingSuppression = new ArrayList<>(suppressions.getSuppressions());
+		private final Suppressions suppressions;
+		private final StringBuilder reportBuilder = new StringBuilder();
+		private final List<Finding> effectiveFindings = new ArrayList<>();
+		private final List<Suppression> remainingSuppression;
+		private final Map<Severity, Long> statistics = new EnumMap<>(Severity.class);
+
+		private Evaluation(Suppressions suppressions) {
+			this.suppressions = suppressions;
+			this.remainingSuppression = new ArrayList<>(suppressions.getSuppressions());
+			reportBuilder.append("--- Report ---");
+			reportBuilder.append("\n");
+		}
 
-		for (Finding finding : findings) {
+		@Override
+		public void accept(Finding finding) {
 			Suppression suppression = suppressions.suppressionFor(finding);
 
 			String purl = finding.getComponent().getPurl();
@@ -71,22 +75,22 @@ public class FindingsThresholdSecurityGate implements SecurityGate {
 				reportBuilder.append(" [cve: ").append(vulnId).append("]");
 				reportBuilder.append(" [severity: ").append(severity).append("]");
 				reportBuilder.append("\n");
-				continue;
+				return;
 			}
 
 			if (suppression == null) {
-				effectiveFindings.add(finding);
+				addEffectiveFinding(finding);
 				reportBuilder.append("- Active finding for: [").append(purl).append("]");
 				reportBuilder.append(" [cve: ").append(vulnId).append("]");
 				reportBuilder.append(" [severity: ").append(severity).append("]");
 				reportBuilder.append("\n");
-				continue;
+				return;
 			}
 
 			remainingSuppression.remove(suppression);
 
 			if (suppression.isExpired()) {
-				effectiveFindings.add(finding);
+				addEffectiveFinding(finding);
 				reportBuilder.append("- Active finding with expired custom suppression for: [").append(purl).append("]");
 			} else {
 				reportBuilder.append("- Suppressed finding via custom suppression for: [").append(purl).append("]");
@@ -107,14 +111,36 @@ public class FindingsThresholdSecurityGate implements SecurityGate {
 			reportBuilder.append("\n");
 		}
 
-		for (Suppression suppression : remainingSuppression) {
-			reportBuilder.append("- Unnecessary suppression for: ").append(suppression.printIdentifier()).append("\n");
+		private void addEffectiveFinding(Finding finding) {
+			effectiveFindings.add(finding);
+			statistics.merge(finding.getVulnerability().getSeverity(), 1L, Long::sum);
 		}
 
-		List<Suppression> effectiveSuppressions = new ArrayList<>(suppressions.getSuppressions());
-		effectiveSuppressions.removeAll(remainingSuppression);
+		/**
+		 * Completes the evaluation after all findings have been accepted.
+		 *
+		 * @return the security gate decision
+		 */
+		public SecurityGateDecision decide() {
+			for (Suppression suppression : remainingSuppression) {
+				reportBuilder.append("- Unnecessary suppression for: ").append(suppression.printIdentifier()).append("\n");
+			}
+
+			List<Suppression> effectiveSuppressions = new ArrayList<>(suppressions.getSuppressions());
+			effectiveSuppressions.removeAll(remainingSuppression);
+
+			SecurityReport securityReport = new SecurityReport(reportBuilder.toString(), effectiveFindings, effectiveSuppressions);
+			SecurityGateDecision decision = new SecurityGateDecision(SecurityGateDecision.Decision.PASS, securityReport);
 
-		return new SecurityReport(reportBuilder.toString(), effectiveFindings, effectiveSuppressions);
+			if (statistics.getOrDefault(Severity.CRITICAL, 0L) > critical ||
+				statistics.getOrDefault(Severity.HIGH, 0L) > high ||
+				statistics.getOrDefault(Severity.MEDIUM, 0L) > medium ||
+				statistics.getOrDefault(Severity.LOW, 0L) > low) {
+				decision.fail();
+			}
+
+			return decision;
+		}
 	}
 
 	public CharSequence print() {
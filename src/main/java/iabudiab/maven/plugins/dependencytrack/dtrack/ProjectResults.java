@@ -0,0 +1,63 @@
+package iabudiab.maven.plugins.dependencytrack.dtrack;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import iabudiab.maven.plugins.dependencytrack.client.model.Finding;
+import iabudiab.maven.plugins.dependencytrack.client.model.ProjectMetrics;
+
+/**
+ * The findings and metrics of a project, which are loaded concurrently.
+ *
+ * @see DTrack#loadResults(Integer, Integer)
+ */
+public class ProjectResults {
+
+	private final CompletableFuture<List<Finding>> findings;
+	private final CompletableFuture<ProjectMetrics> metrics;
+
+	ProjectResults(CompletableFuture<List<Finding>> findings, CompletableFuture<ProjectMetrics> metrics) {
+		this.findings = findings;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Waits for the findings, while the metrics may still be loading.
+	 *
+	 * @return The findings of the project
+	 * @throws DTrackException If the findings couldn't be loaded
+	 */
+	public List<Finding> awaitFindings() throws DTrackException {
+		return await(findings);
+	}
+
+	/**
+	 * Waits for the metrics.
+	 *
+	 * @return The metrics of the project
+	 * @throws DTrackException If the metrics couldn't be loaded
+	 */
+	public ProjectMetrics awaitMetrics() throws DTrackException {
+		return await(metrics);
+	}
+
+	public CompletableFuture<List<Finding>> getFindings() {
+		return findings;
+	}
+
+	public CompletableFuture<ProjectMetrics> getMetrics() {
+		return metrics;
+	}
+
+	private static <T> T await(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof DTrackException) {
+				throw (DTrackException) e.getCause();
+			}
+			throw new DTrackException("Error loading project results: ", e.getCause());
+		}
+	}
+}
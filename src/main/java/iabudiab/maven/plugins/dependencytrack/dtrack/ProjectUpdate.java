@@ -0,0 +1,150 @@
+package iabudiab.maven.plugins.dependencytrack.dtrack;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.commons.lang3.ObjectUtils;
+import org.apache.maven.plugin.logging.Log;
+
+import iabudiab.maven.plugins.dependencytrack.client.model.CollectionLogic;
+import iabudiab.maven.plugins.dependencytrack.client.model.Project;
+import iabudiab.maven.plugins.dependencytrack.client.model.Tag;
+
+/**
+ * Collects the desired settings of a project and applies those, that differ from the loaded project, with a single
+ * request.
+ * <p>
+ * A new parent is applied by POSTing the whole project, since PATCHing it resets the collection logic and the latest
+ * flag in Dependency-Track v4.13.0. Other changes are PATCHed, always along with the collection logic, collection tag
+ * and latest flag, which Dependency-Track resets otherwise.
+ *
+ * @see DTrack#updateProject(Project)
+ */
+public class ProjectUpdate {
+
+	private final DTrack dtrack;
+	private final Project project;
+	private final Log log;
+
+	private Project parent;
+	private boolean collectionLogicSet;
+	private CollectionLogic collectionLogic;
+	private Tag collectionTag;
+	private Boolean latest;
+	private Boolean active;
+
+	ProjectUpdate(DTrack dtrack, Project project, Log log) {
+		this.dtrack = dtrack;
+		this.project = project;
+		this.log = log;
+	}
+
+	public Project getProject() {
+		return project;
+	}
+
+	/**
+	 * @param parent the parent project, which must have been loaded or created
+	 * @return this update
+	 */
+	public ProjectUpdate parent(Project parent) {
+		this.parent = parent;
+		return this;
+	}
+
+	/**
+	 * @param collectionLogic the collection logic
+	 * @param collectionTag the collection tag, <code>null</code> or empty for none
+	 * @return this update
+	 */
+	public ProjectUpdate collectionLogic(CollectionLogic collectionLogic, String collectionTag) {
+		if (collectionLogic == null) throw new IllegalArgumentException("collectionLogic should not be 'null'!");
+		this.collectionLogicSet = true;
+		this.collectionLogic = collectionLogic;
+		this.collectionTag = !ObjectUtils.isEmpty(collectionTag) ? new Tag(collectionTag) : null;
+		return this;
+	}
+
+	public ProjectUpdate latest(boolean latest) {
+		this.latest = latest;
+		return this;
+	}
+
+	public ProjectUpdate active(boolean active) {
+		this.active = active;
+		return this;
+	}
+
+	/**
+	 * @return the names of the settings, that differ from the loaded project
+	 */
+	public List<String> changes() {
+		List<String> changes = new ArrayList<>();
+		if (parentChanged()) {
+			changes.add("parent");
+		}
+		if (collectionLogicSet && collectionLogic != project.getCollectionLogic()) {
+			changes.add("collectionLogic");
+		}
+		if (collectionLogicSet && !Objects.equals(collectionTag, project.getCollectionTag())) {
+			changes.add("collectionTag");
+		}
+		if (latest != null && !latest.equals(project.getIsLatest())) {
+			changes.add("isLatest");
+		}
+		if (active != null && !active.equals(project.getActive())) {
+			changes.add("active");
+		}
+		return changes;
+	}
+
+	/**
+	 * Applies the changed settings, if any.
+	 *
+	 * @return the updated project, or the loaded project if nothing has changed
+	 * @throws DTrackException If an error occurs during the request
+	 */
+	public Project apply() throws DTrackException {
+		List<String> changes = changes();
+		if (changes.isEmpty()) {
+			log.info("Project " + project.getName() + ":" + project.getVersion() + " is up to date");
+			return project;
+		}
+
+		log.info("Updating " + String.join(", ", changes) + " of project " + project.getName() + ":" + project.getVersion());
+		if (parentChanged()) {
+			return dtrack.postProject(updatedProject());
+		}
+
+		// Dependency-Track v4.13.0 resets the collection logic, collection tag and latest flag, that a PATCH doesn't include
+		Map<String, Object> payload = new HashMap<>();
+		payload.put("collectionLogic", collectionLogicSet ? collectionLogic : project.getCollectionLogic());
+		payload.put("collectionTag", collectionLogicSet ? collectionTag : project.getCollectionTag());
+		payload.put("isLatest", latest != null ? latest : project.getIsLatest());
+		if (changes.contains("active")) {
+			payload.put("active", active);
+		}
+		return dtrack.patchProject(project, payload);
+	}
+
+	private boolean parentChanged() {
+		return parent != null && (project.getParent() == null || !Objects.equals(parent.getUuid(), project.getParent().getUuid()));
+	}
+
+	private Project updatedProject() {
+		Project updated = new Project();
+		updated.setUuid(project.getUuid());
+		updated.setName(project.getName());
+		updated.setVersion(project.getVersion());
+		updated.setClassifier(project.getClassifier());
+		updated.setParent(parent);
+		updated.setCollectionLogic(collectionLogicSet ? collectionLogic : project.getCollectionLogic());
+		updated.setCollectionTag(collectionLogicSet ? collectionTag : project.getCollectionTag());
+		updated.setIsLatest(latest != null ? latest : project.getIsLatest());
+		updated.setActive(active != null ? active : project.getActive());
+		return updated;
+	}
+}
@@ -0,0 +1,253 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.http.impl.EnglishReasonPhraseCatalog;
+
+/**
+ * Transport backed by the JDK's <code>java.net.http</code> client.
+ * <p>
+ * The client negotiates HTTP/2 where the server supports it, e.g. via ALPN over TLS, and then multiplexes
+ * all concurrent requests over a single connection. Transports share a {@link Client}, e.g. per timeout,
+ * so concurrent findings pages, token polls and patches of a build share that connection. Asynchronous
+ * requests don't occupy a thread while waiting for their responses.
+ */
+public class JdkHttpTransport implements HttpTransport {
+
+	private static final int PIPE_BUFFER_SIZE = 64 * 1024;
+
+	private final Client shared;
+	private final HttpClient client;
+	private final Duration timeout;
+
+	public JdkHttpTransport(Client client) {
+		this.shared = client;
+		this.client = client.client;
+		this.timeout = client.timeout;
+	}
+
+	public static boolean isSupported() {
+		return true;
+	}
+
+	@Override
+	public TransportResponse execute(TransportRequest request) throws IOException {
+		CompletableFuture<TransportResponse> execution = executeAsync(request);
+		try {
+			return execution.get();
+		} catch (InterruptedException e) {
+			request.abort();
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while executing request: " + request);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException("Error executing request: " + request, e.getCause());
+		}
+	}
+
+	/**
+	 * Sends the request without blocking, the client's threads complete the future once the response's status
+	 * and headers have arrived.
+	 */
+	@Override
+	public CompletableFuture<TransportResponse> executeAsync(TransportRequest request) {
+		Duration requestTimeout = request.getTimeoutMillis() > 0 ? Duration.ofMillis(request.getTimeoutMillis()) : timeout;
+		Pipes pipes = new Pipes();
+		HttpRequest.Builder builder = HttpRequest.newBuilder(request.getUri())
+			.timeout(requestTimeout)
+			.method(request.getMethod(), bodyPublisher(request.getBody(), shared.executor, pipes));
+		request.getHeaders().forEach(builder::setHeader);
+		if (request.getBody() != null && request.getBody().getContentType() != null
+			&& !containsHeader(request, "Content-Type")) {
+			builder.setHeader("Content-Type", request.getBody().getContentType());
+		}
+
+		CompletableFuture<HttpResponse<InputStream>> execution = client.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+		request.onAbort(() -> execution.cancel(true));
+		// the client may abandon a body without closing it, e.g. on an early response or a failure,
+		// which would block its writer forever, once the pipe's buffer is full
+		execution.whenComplete((response, failure) -> pipes.close());
+
+		CompletableFuture<TransportResponse> transportResponse = new CompletableFuture<>();
+		execution.whenComplete((response, failure) -> {
+			if (failure != null) {
+				transportResponse.completeExceptionally(failure(request, failure));
+				return;
+			}
+
+			// once the response has arrived, aborting the request stops reading its body
+			InputStream body = response.body();
+			request.onAbort(() -> closeQuietly(body));
+
+			int statusCode = response.statusCode();
+			transportResponse.complete(new TransportResponse(
+				statusCode,
+				EnglishReasonPhraseCatalog.INSTANCE.getReason(statusCode, Locale.ENGLISH),
+				response.headers().map(), body, null));
+		});
+		return transportResponse;
+	}
+
+	private static IOException failure(TransportRequest request, Throwable failure) {
+		Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+		if (cause instanceof CancellationException) {
+			return new IOException("Request aborted: " + request, cause);
+		}
+		if (cause instanceof IOException) {
+			return (IOException) cause;
+		}
+		return new IOException("Error executing request: " + request, cause);
+	}
+
+	private static boolean containsHeader(TransportRequest request, String name) {
+		return request.getHeaders().keySet().stream().anyMatch(name::equalsIgnoreCase);
+	}
+
+	private static HttpRequest.BodyPublisher bodyPublisher(RequestBody body, ExecutorService writers, Pipes pipes) {
+		if (body == null) {
+			return HttpRequest.BodyPublishers.noBody();
+		}
+
+		HttpRequest.BodyPublisher publisher = HttpRequest.BodyPublishers.ofInputStream(() -> pipes.open(body, writers));
+		long contentLength = body.getContentLength();
+		return contentLength > 0 ? HttpRequest.BodyPublishers.fromPublisher(publisher, contentLength) : publisher;
+	}
+
+	/**
+	 * Streams the body, which can only be written to an output stream, into an input stream for the
+	 * publisher. A failure to write the body fails the reading side, instead of truncating the request.
+	 */
+	private static InputStream pipe(RequestBody body, ExecutorService writers) {
+		FailablePipedInputStream input = new FailablePipedInputStream();
+		try {
+			PipedOutputStream output = new PipedOutputStream(input);
+			writers.execute(() -> {
+				try {
+					body.writeTo(output);
+				} catch (IOException e) {
+					input.failure = e;
+				} finally {
+					closeQuietly(output);
+				}
+			});
+		} catch (IOException e) {
+			input.failure = e;
+		}
+		return input;
+	}
+
+	private static void closeQuietly(Closeable stream) {
+		try {
+			stream.close();
+		} catch (IOException e) {
+			// ignore, there is nothing left to be done with the stream
+		}
+	}
+
+	/**
+	 * The JDK's HTTP client and the threads of its asynchronous tasks and body writers, which can be shared by
+	 * several transports.
+	 * <p>
+	 * Closing shuts down the threads. On Java 21 and newer, it also closes the client's connections, whereas
+	 * on older versions the client releases them along with its selector thread, once it is unreferenced.
+	 */
+	public static final class Client implements Closeable {
+
+		private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "dtrack-http2-client");
+			thread.setDaemon(true);
+			return thread;
+		});
+		private final HttpClient client;
+		private final Duration timeout;
+
+		/**
+		 * @param timeoutMillis the connect timeout and the timeout of requests without their own one
+		 */
+		public Client(int timeoutMillis) {
+			this.timeout = Duration.ofMillis(timeoutMillis);
+			this.client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_2)
+				.followRedirects(HttpClient.Redirect.NORMAL)
+				.connectTimeout(timeout)
+				.executor(executor)
+				.build();
+		}
+
+		@Override
+		public void close() {
+			executor.shutdownNow();
+			if (client instanceof AutoCloseable) {
+				try {
+					((AutoCloseable) client).close();
+				} catch (Exception e) {
+					// ignore, the client isn't used anymore
+				}
+			}
+		}
+	}
+
+	/**
+	 * The pipes of a request's body, which the client opens once per attempt, e.g. again on a redirect.
+	 * Closing them fails the writes of their writers, which then stop.
+	 */
+	private static final class Pipes {
+
+		private final List<InputStream> opened = new ArrayList<>();
+		private boolean closed;
+
+		synchronized InputStream open(RequestBody body, ExecutorService writers) {
+			InputStream input = pipe(body, writers);
+			if (closed) {
+				closeQuietly(input);
+			} else {
+				opened.add(input);
+			}
+			return input;
+		}
+
+		synchronized void close() {
+			closed = true;
+			opened.forEach(JdkHttpTransport::closeQuietly);
+			opened.clear();
+		}
+	}
+
+	private static final class FailablePipedInputStream extends PipedInputStream {
+
+		private volatile IOException failure;
+
+		private FailablePipedInputStream() {
+			super(PIPE_BUFFER_SIZE);
+		}
+
+		@Override
+		public synchronized int read(byte[] buffer, int offset, int length) throws IOException {
+			int read = super.read(buffer, offset, length);
+			if (read == -1 && failure != null) {
+				throw new IOException("Error writing request body", failure);
+			}
+			return read;
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package iabudiab.maven.plugins.dependencytrack;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.ExecutionListener;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import iabudiab.maven.plugins.dependencytrack.client.ConnectionPoolConfig;
+import iabudiab.maven.plugins.dependencytrack.client.SharedHttpClients;
+
+class SessionHttpClientsTest {
+
+	@Test
+	void of_SharesClientsWithinSessionAndClosesThemWhenItEnds() {
+		ExecutionListener listener = Mockito.mock(ExecutionListener.class);
+		MavenExecutionRequest request = new DefaultMavenExecutionRequest().setExecutionListener(listener);
+		MavenSession session = session(request);
+
+		SharedHttpClients clients = SessionHttpClients.of(session);
+		assertSame(clients, SessionHttpClients.of(session));
+		assertNotSame(clients, SessionHttpClients.of(session(new DefaultMavenExecutionRequest())));
+
+		ExecutionEvent event = Mockito.mock(ExecutionEvent.class);
+		request.getExecutionListener().mojoStarted(event);
+		request.getExecutionListener().sessionEnded(event);
+
+		verify(listener).mojoStarted(event);
+		verify(listener).sessionEnded(event);
+		assertThrows(IllegalStateException.class, () -> clients.get(ConnectionPoolConfig.defaults(), 10_000));
+	}
+
+	private static MavenSession session(MavenExecutionRequest request) {
+		MavenSession session = Mockito.mock(MavenSession.class);
+		when(session.getRequest()).thenReturn(request);
+		when(session.getRepositorySession()).thenReturn(new DefaultRepositorySystemSession());
+		return session;
+	}
+}
@@ -0,0 +1,89 @@
+package iabudiab.maven.plugins.dependencytrack.client;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Random;
+
+import org.codehaus.plexus.util.IOUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import iabudiab.maven.plugins.dependencytrack.client.model.ScanSubmitRequest;
+
+class Base64JsonFileEntityTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void writeTo_ProducesSameJsonAsInMemoryEncoding() throws IOException {
+		for (int size : new int[] { 0, 1, 2, 3, 4, 100_000 }) {
+			byte[] content = new byte[size];
+			new Random(size).nextBytes(content);
+			Path file = Files.write(tempDir.resolve("scan-" + size + ".xml"), content);
+
+			ScanSubmitRequest payload = ScanSubmitRequest.builder()
+				.projectName("project")
+				.projectVersion("1.0.0")
+				.autoCreate(true)
+				.build();
+
+			Base64JsonFileEntity entity = new Base64JsonFileEntity(objectMapper, payload, "scan", file);
+			ByteArrayOutputStream written = new ByteArrayOutputStream();
+			entity.writeTo(written);
+
+			payload.setScan(Base64.getEncoder().encodeToString(content));
+			String expected = objectMapper.writeValueAsString(payload);
+
+			assertEquals(objectMapper.readTree(expected), objectMapper.readTree(written.toByteArray()));
+			assertEquals(entity.getContentLength(), written.size());
+		}
+	}
+
+	@Test
+	void getContent_StreamsSameJsonAsWriteTo() throws IOException {
+		for (int size : new int[] { 0, 1, 2, 3, 4, 100_000 }) {
+			byte[] content = new byte[size];
+			new Random(size).nextBytes(content);
+			Path file = Files.write(tempDir.resolve("bom-" + size + ".xml"), content);
+			ScanSubmitRequest payload = ScanSubmitRequest.builder().projectName("project").autoCreate(true).build();
+			Base64JsonFileEntity entity = new Base64JsonFileEntity(objectMapper, payload, "scan", file);
+
+			ByteArrayOutputStream written = new ByteArrayOutputStream();
+			entity.writeTo(written);
+			ByteArrayOutputStream read = new ByteArrayOutputStream();
+			try (InputStream in = entity.getContent()) {
+				IOUtil.copy(in, read);
+			}
+
+			assertArrayEquals(written.toByteArray(), read.toByteArray());
+		}
+	}
+
+	@Test
+	void writeTo_IsRepeatable() throws IOException {
+		Path file = Files.write(tempDir.resolve("bom.xml"), "<bom/>".getBytes());
+		ScanSubmitRequest payload = ScanSubmitRequest.builder().projectName("project").build();
+		Base64JsonFileEntity entity = new Base64JsonFileEntity(objectMapper, payload, "scan", file);
+
+		ByteArrayOutputStream first = new ByteArrayOutputStream();
+		entity.writeTo(first);
+		ByteArrayOutputStream second = new ByteArrayOutputStream();
+		entity.writeTo(second);
+
+		assertTrue(entity.isRepeatable());
+		assertEquals(first.toString(), second.toString());
+	}
+}
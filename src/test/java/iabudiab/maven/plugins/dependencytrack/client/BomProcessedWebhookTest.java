@@ -0,0 +1,261 @@
+package iabudiab.maven.plugins.dependencytrack.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.logging.Log;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.sun.net.httpserver.HttpServer;
+
+import iabudiab.maven.plugins.dependencytrack.dtrack.DTrack;
+import iabudiab.maven.plugins.dependencytrack.suppressions.Suppressions;
+
+class BomProcessedWebhookTest {
+
+	private static final String PATH = "/dependency-track/notification";
+
+	private final Log log = Mockito.mock(Log.class);
+	private BomProcessedWebhook webhook;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		webhook = BomProcessedWebhook.open("127.0.0.1", 0, PATH, null, log);
+	}
+
+	@AfterEach
+	void tearDown() {
+		webhook.close();
+	}
+
+	@Test
+	void notification_CompletesWaitByToken() throws Exception {
+		UUID token = UUID.randomUUID();
+		CompletableFuture<Boolean> processed = webhook.await(token, "project", "1.0.0", 0);
+		assertFalse(processed.isDone());
+
+		assertEquals(200, notify("BOM_PROCESSED", UUID.randomUUID(), "project", "1.0.0"));
+		assertFalse(processed.isDone());
+		notify("BOM_PROCESSED", token, "project", "1.0.0");
+
+		assertFalse(processed.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void notificationWithoutToken_IsIgnoredByWaitForToken() throws Exception {
+		UUID token = UUID.randomUUID();
+		CompletableFuture<Boolean> processed = webhook.await(token);
+
+		notify("BOM_PROCESSED", null, "project", "1.0.0");
+		assertFalse(processed.isDone());
+		notify("BOM_PROCESSED", token, "project", "1.0.0");
+
+		assertFalse(processed.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void notificationWithoutToken_CompletesWaitByProject() throws Exception {
+		CompletableFuture<Boolean> processed = webhook.await(UUID.randomUUID(), "project", "1.0.0", 0);
+
+		notify("BOM_PROCESSED", null, "project", "2.0.0");
+		notify("BOM_PROCESSED", null, "project", "1.0.0");
+
+		assertFalse(processed.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void earlyNotification_IsKeptForLaterWait() throws Exception {
+		UUID token = UUID.randomUUID();
+		notify("BOM_PROCESSED", token, "project", "1.0.0");
+
+		assertFalse(webhook.await(token, "project", "1.0.0", System.currentTimeMillis()).get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void notificationWithoutSecret_IsRejected() throws Exception {
+		try (BomProcessedWebhook secured = BomProcessedWebhook.open("127.0.0.1", 0, PATH, "s3cret", log)) {
+			UUID token = UUID.randomUUID();
+			CompletableFuture<Boolean> processed = secured.await(token);
+
+			assertEquals(401, notify(secured, PATH, null, "BOM_PROCESSED", token));
+			assertEquals(401, notify(secured, PATH + "?secret=guess", null, "BOM_PROCESSED", token));
+			assertFalse(processed.isDone());
+
+			assertEquals(200, notify(secured, PATH + "?secret=s3cret", null, "BOM_PROCESSED", token));
+			assertFalse(processed.get(5, TimeUnit.SECONDS));
+		}
+	}
+
+	@Test
+	void notificationWithBearerSecret_IsAccepted() throws Exception {
+		try (BomProcessedWebhook secured = BomProcessedWebhook.open("127.0.0.1", 0, PATH, "s3cret", log)) {
+			UUID token = UUID.randomUUID();
+			CompletableFuture<Boolean> processed = secured.await(token);
+
+			assertEquals(200, notify(secured, PATH, "Bearer s3cret", "BOM_PROCESSED", token));
+			assertFalse(processed.get(5, TimeUnit.SECONDS));
+		}
+	}
+
+	@Test
+	void open_ListensOnFurtherPathOfSharedListener() throws Exception {
+		int port = freePort();
+		try (BomProcessedWebhook first = BomProcessedWebhook.open("127.0.0.1", port, PATH, null, log);
+			 BomProcessedWebhook second = BomProcessedWebhook.open("127.0.0.1", port, "/other", null, log)) {
+			UUID token = UUID.randomUUID();
+			CompletableFuture<Boolean> processed = second.await(token);
+
+			assertEquals(200, notify(second, "/other", null, "BOM_PROCESSED", token));
+			assertFalse(processed.get(5, TimeUnit.SECONDS));
+			assertEquals(first.getPort(), second.getPort());
+		}
+	}
+
+	@Test
+	void open_RejectsOtherSecretForSamePath() throws Exception {
+		int port = freePort();
+		try (BomProcessedWebhook first = BomProcessedWebhook.open("127.0.0.1", port, PATH, "s3cret", log)) {
+			assertThrows(IOException.class, () -> BomProcessedWebhook.open("127.0.0.1", port, PATH, "other", log));
+		}
+	}
+
+	@Test
+	void failedProcessing_FailsWait() throws Exception {
+		UUID token = UUID.randomUUID();
+		CompletableFuture<Boolean> processed = webhook.await(token, "project", "1.0.0", 0);
+
+		notify("BOM_PROCESSING_FAILED", token, "project", "1.0.0");
+
+		ExecutionException failure = assertThrows(ExecutionException.class, () -> processed.get(5, TimeUnit.SECONDS));
+		assertTrue(failure.getCause() instanceof IOException);
+	}
+
+	@Test
+	void pollToken_ReturnsOnNotificationWithoutFurtherPolls() throws Exception {
+		UUID token = UUID.randomUUID();
+		AtomicInteger polls = new AtomicInteger();
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/api/v1/bom/token/" + token, exchange -> {
+			polls.incrementAndGet();
+			byte[] body = "{\"processing\":true}".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		server.start();
+		try (DTrackClient client = new DTrackClient("http://127.0.0.1:" + server.getAddress().getPort(), "api-key", log)) {
+			DTrack dtrack = new DTrack(client, Suppressions.none(), "project", "1.0.0", log);
+			dtrack.setWebhook(webhook, TimeUnit.MINUTES.toMillis(1));
+
+			CompletableFuture.runAsync(() -> {
+				try {
+					Thread.sleep(200);
+					notify("BOM_PROCESSED", token, "project", "1.0.0");
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			});
+
+			long startNanos = System.nanoTime();
+			assertFalse(dtrack.pollToken(token, 30));
+			assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos) < 5);
+			// only the immediate check, the fallback polls are a minute apart
+			assertEquals(1, polls.get());
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	void pollToken_KeepsWaitingForNotificationWhenFallbackPollFails() throws Exception {
+		UUID token = UUID.randomUUID();
+		CountDownLatch failedPoll = new CountDownLatch(1);
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/api/v1/bom/token/" + token, exchange -> {
+			exchange.sendResponseHeaders(500, -1);
+			exchange.close();
+		});
+		server.start();
+		Mockito.doAnswer(invocation -> {
+			failedPoll.countDown();
+			return null;
+		}).when(log).warn(Mockito.startsWith("Fallback polling of token " + token));
+		try (DTrackClient client = new DTrackClient("http://127.0.0.1:" + server.getAddress().getPort(), "api-key", log)) {
+			DTrack dtrack = new DTrack(client, Suppressions.none(), "project", "1.0.0", log);
+			dtrack.setWebhook(webhook, TimeUnit.MINUTES.toMillis(1));
+
+			CompletableFuture.runAsync(() -> {
+				try {
+					failedPoll.await();
+					notify("BOM_PROCESSED", token, "project", "1.0.0");
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			});
+
+			assertFalse(dtrack.pollToken(token, 30));
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+	private int notify(BomProcessedWebhook webhook, String pathAndQuery, String authorization, String group, UUID token) throws IOException {
+		return post(webhook, pathAndQuery, authorization, payload(group, token, "project", "1.0.0"));
+	}
+
+	private int notify(String group, UUID token, String projectName, String projectVersion) throws IOException {
+		return post(webhook, PATH, null, payload(group, token, projectName, projectVersion));
+	}
+
+	private static String payload(String group, UUID token, String projectName, String projectVersion) {
+		String subject = "{\"project\":{\"name\":\"" + projectName + "\",\"version\":\"" + projectVersion + "\"},\"bom\":{\"format\":\"CycloneDX\"}"
+			+ (token != null ? ",\"token\":\"" + token + "\"" : "") + "}";
+		String payload = "{\"notification\":{\"level\":\"INFORMATIONAL\",\"scope\":\"PORTFOLIO\",\"group\":\"" + group + "\","
+			+ "\"title\":\"Bill of Materials Processed\",\"subject\":" + subject + "}}";
+		return payload;
+	}
+
+	private static int post(BomProcessedWebhook webhook, String pathAndQuery, String authorization, String payload) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + webhook.getPort() + pathAndQuery).openConnection();
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		connection.setRequestProperty("Content-Type", "application/json");
+		if (authorization != null) {
+			connection.setRequestProperty("Authorization", authorization);
+		}
+		try (OutputStream out = connection.getOutputStream()) {
+			out.write(payload.getBytes(StandardCharsets.UTF_8));
+		}
+		try {
+			return connection.getResponseCode();
+		} finally {
+			connection.disconnect();
+		}
+	}
+}
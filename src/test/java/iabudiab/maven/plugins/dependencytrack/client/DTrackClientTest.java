@@ -0,0 +1,512 @@
+package iabudiab.maven.plugins.dependencytrack.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.IOUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import iabudiab.maven.plugins.dependencytrack.client.model.Analysis;
+import iabudiab.maven.plugins.dependencytrack.client.model.Finding;
+import iabudiab.maven.plugins.dependencytrack.client.model.ProjectMetrics;
+import iabudiab.maven.plugins.dependencytrack.client.transport.Deadline;
+import iabudiab.maven.plugins.dependencytrack.client.transport.DeadlineExceededException;
+import iabudiab.maven.plugins.dependencytrack.client.transport.HttpTransport;
+import iabudiab.maven.plugins.dependencytrack.client.transport.HttpTransportType;
+import iabudiab.maven.plugins.dependencytrack.client.transport.TransportResponse;
+import iabudiab.maven.plugins.dependencytrack.dtrack.DTrack;
+import iabudiab.maven.plugins.dependencytrack.dtrack.DTrackException;
+import iabudiab.maven.plugins.dependencytrack.suppressions.Suppressions;
+
+class DTrackClientTest {
+
+	private static final UUID PROJECT_UUID = UUID.fromString("7f1c2b44-7bb4-4c0c-8a8e-1d9b3c0e6a10");
+
+	private HttpServer server;
+	private DTrackClient client;
+
+	@TempDir
+	Path tempDir;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.start();
+		client = new DTrackClient("http://127.0.0.1:" + server.getAddress().getPort(), "api-key", Mockito.mock(Log.class));
+	}
+
+	@AfterEach
+	void tearDown() {
+		client.close();
+		server.stop(0);
+	}
+
+	@Test
+	void getProjectFindings_ParsesEachFinding() throws IOException {
+		respondWith("/api/v1/finding/project/" + PROJECT_UUID, findingsJson(0, 3));
+
+		List<Finding> findings = client.getProjectFindings(PROJECT_UUID);
+
+		assertEquals(3, findings.size());
+		assertEquals("CVE-0", findings.get(0).getVulnerability().getVulnId());
+		assertEquals("CVE-2", findings.get(2).getVulnerability().getVulnId());
+	}
+
+	@Test
+	void forEachProjectFinding_StreamsEachFinding() throws IOException {
+		respondWith("/api/v1/finding/project/" + PROJECT_UUID, findingsJson(0, 3));
+
+		List<String> vulnIds = new ArrayList<>();
+		int count = client.forEachProjectFinding(PROJECT_UUID, finding -> vulnIds.add(finding.getVulnerability().getVulnId()));
+
+		assertEquals(3, count);
+		assertEquals(Arrays.asList("CVE-0", "CVE-1", "CVE-2"), vulnIds);
+	}
+
+	@Test
+	void forEachProjectFinding_HandsOverPagesInOrder() throws IOException {
+		int total = 12;
+		server.createContext("/api/v1/finding/project/" + PROJECT_UUID, exchange -> {
+			Map<String, String> query = query(exchange.getRequestURI().getQuery());
+			int pageSize = Integer.parseInt(query.get("pageSize"));
+			int from = Math.min(total, (Integer.parseInt(query.get("pageNumber")) - 1) * pageSize);
+			exchange.getResponseHeaders().add("X-Total-Count", String.valueOf(total));
+			send(exchange, findingsJson(from, Math.min(total, from + pageSize)));
+		});
+		client.setFindingsPageSize(5);
+
+		List<String> vulnIds = new ArrayList<>();
+		int count = client.forEachProjectFinding(PROJECT_UUID, finding -> vulnIds.add(finding.getVulnerability().getVulnId()));
+
+		assertEquals(total, count);
+		for (int i = 0; i < total; i++) {
+			assertEquals("CVE-" + i, vulnIds.get(i));
+		}
+	}
+
+	@Test
+	void getProjectFindings_EmptyArray() throws IOException {
+		respondWith("/api/v1/finding/project/" + PROJECT_UUID, "[]");
+
+		List<Finding> findings = client.getProjectFindings(PROJECT_UUID);
+
+		assertEquals(0, findings.size());
+	}
+
+	@Test
+	void getProjectFindings_FetchesPagesConcurrentlyInOrder() throws IOException {
+		int total = 23;
+		server.createContext("/api/v1/finding/project/" + PROJECT_UUID, exchange -> {
+			Map<String, String> query = query(exchange.getRequestURI().getQuery());
+			int pageSize = Integer.parseInt(query.get("pageSize"));
+			int pageNumber = Integer.parseInt(query.get("pageNumber"));
+			int from = Math.min(total, (pageNumber - 1) * pageSize);
+			int to = Math.min(total, from + pageSize);
+			exchange.getResponseHeaders().add("X-Total-Count", String.valueOf(total));
+			send(exchange, findingsJson(from, to));
+		});
+		client.setFindingsPageSize(5);
+		client.setFindingsFetchParallelism(3);
+
+		List<Finding> findings = client.getProjectFindings(PROJECT_UUID);
+
+		assertEquals(total, findings.size());
+		for (int i = 0; i < total; i++) {
+			assertEquals("CVE-" + i, findings.get(i).getVulnerability().getVulnId());
+		}
+	}
+
+	@Test
+	void getProjectFindings_ServerWithoutPagination() throws IOException {
+		AtomicInteger requests = new AtomicInteger();
+		server.createContext("/api/v1/finding/project/" + PROJECT_UUID, exchange -> {
+			requests.incrementAndGet();
+			exchange.getResponseHeaders().add("X-Total-Count", "12");
+			send(exchange, findingsJson(0, 12));
+		});
+		client.setFindingsPageSize(5);
+
+		List<Finding> findings = client.getProjectFindings(PROJECT_UUID);
+
+		assertEquals(12, findings.size());
+		assertEquals(1, requests.get());
+	}
+
+	@Test
+	void getProjectFindings_ServerIgnoringPagingWithoutTotalCount() throws IOException {
+		AtomicInteger requests = new AtomicInteger();
+		// exactly one page of findings, returned for any page number
+		String allFindings = findingsJson(0, 5);
+		server.createContext("/api/v1/finding/project/" + PROJECT_UUID, exchange -> {
+			requests.incrementAndGet();
+			send(exchange, allFindings);
+		});
+		client.setFindingsPageSize(5);
+
+		List<Finding> findings = client.getProjectFindings(PROJECT_UUID);
+
+		assertEquals(5, findings.size());
+		assertEquals(2, requests.get());
+	}
+
+	@Test
+	void getProjectFindings_ServerIgnoringPageSizeWithoutTotalCount() throws IOException {
+		AtomicInteger requests = new AtomicInteger();
+		String allFindings = findingsJson(0, 12);
+		server.createContext("/api/v1/finding/project/" + PROJECT_UUID, exchange -> {
+			requests.incrementAndGet();
+			send(exchange, allFindings);
+		});
+		client.setFindingsPageSize(5);
+
+		assertEquals(12, client.getProjectFindings(PROJECT_UUID).size());
+		assertEquals(1, requests.get());
+	}
+
+	@Test
+	void checkIfTokenIsBeingProcessed_UsesEventTokenOfNewerServers() throws Exception {
+		AtomicInteger probes = new AtomicInteger();
+		server.createContext("/api/version", exchange -> {
+			probes.incrementAndGet();
+			send(exchange, "{\"application\":\"Dependency-Track\",\"version\":\"4.11.3\"}");
+		});
+		UUID token = UUID.randomUUID();
+		respondWith("/api/v1/event/token/" + token, "{\"processing\":false}");
+		client.setCapabilitiesCache(new ServerCapabilitiesCache(tempDir, TimeUnit.HOURS.toMillis(1)));
+
+		assertFalse(client.checkIfTokenIsBeingProcessed(token).isProcessing());
+		assertFalse(client.checkIfTokenIsBeingProcessed(token).isProcessing());
+		assertEquals(1, probes.get());
+
+		// the probed capabilities are shared with later builds via the cache directory
+		try (DTrackClient otherClient = new DTrackClient("http://127.0.0.1:" + server.getAddress().getPort(), "api-key", Mockito.mock(Log.class))) {
+			otherClient.setCapabilitiesCache(new ServerCapabilitiesCache(tempDir, TimeUnit.HOURS.toMillis(1)));
+			assertEquals("4.11.3", otherClient.getCapabilities().getVersion());
+		}
+		assertEquals(1, probes.get());
+	}
+
+	@Test
+	void checkIfTokenIsBeingProcessed_UsesBomTokenOfOlderServers() throws IOException {
+		respondWith("/api/version", "{\"application\":\"Dependency-Track\",\"version\":\"3.8.0\"}");
+		UUID token = UUID.randomUUID();
+		respondWith("/api/v1/bom/token/" + token, "{\"processing\":true}");
+		client.setCapabilitiesCache(new ServerCapabilitiesCache(tempDir, TimeUnit.HOURS.toMillis(1)));
+
+		assertTrue(client.checkIfTokenIsBeingProcessed(token).isProcessing());
+	}
+
+	@Test
+	void uploadAnalysisAsync_PutsAnalysis() throws Exception {
+		AtomicReference<String> method = new AtomicReference<>();
+		AtomicReference<String> body = new AtomicReference<>();
+		server.createContext("/api/v1/analysis", exchange -> {
+			method.set(exchange.getRequestMethod());
+			body.set(IOUtil.toString(exchange.getRequestBody(), StandardCharsets.UTF_8.name()));
+			send(exchange, "{}");
+		});
+		Analysis analysis = new Analysis();
+		analysis.setProjectUuid(PROJECT_UUID);
+		analysis.setSuppressed(true);
+
+		client.uploadAnalysisAsync(analysis).get(10, TimeUnit.SECONDS);
+
+		assertEquals("PUT", method.get());
+		assertTrue(body.get().contains("\"project\":\"" + PROJECT_UUID + "\""), body.get());
+		assertTrue(body.get().contains("\"isSuppressed\":true"), body.get());
+	}
+
+	@Test
+	void checkIfTokenIsBeingProcessedAsync_FailsOnErrorStatus() {
+		respondWith("/api/version", "{\"application\":\"Dependency-Track\",\"version\":\"4.11.3\"}");
+		UUID token = UUID.randomUUID();
+		server.createContext("/api/v1/event/token/" + token, exchange -> {
+			exchange.sendResponseHeaders(403, -1);
+			exchange.close();
+		});
+
+		ExecutionException failure = assertThrows(ExecutionException.class,
+			() -> client.checkIfTokenIsBeingProcessedAsync(token).get(10, TimeUnit.SECONDS));
+		assertTrue(failure.getCause() instanceof IOException, String.valueOf(failure.getCause()));
+	}
+
+	@Test
+	void pollTokenProcessing_ChecksImmediatelyAndBacksOff() throws Exception {
+		UUID token = UUID.randomUUID();
+		AtomicInteger polls = new AtomicInteger();
+		server.createContext("/api/v1/bom/token/" + token, exchange -> {
+			send(exchange, "{\"processing\":" + (polls.incrementAndGet() < 4) + "}");
+		});
+		Log log = Mockito.mock(Log.class);
+		List<Thread> checkThreads = new CopyOnWriteArrayList<>();
+		Mockito.doAnswer(invocation -> {
+			if (invocation.<String>getArgument(0).startsWith("Polling token")) {
+				checkThreads.add(Thread.currentThread());
+			}
+			return null;
+		}).when(log).info(Mockito.anyString());
+		try (DTrackClient client = new DTrackClient("http://127.0.0.1:" + server.getAddress().getPort(), "api-key", log)) {
+			client.setPollingPolicy(PollingPolicy.builder().initialDelayMillis(50).maxDelayMillis(100).jitter(0).build());
+
+			assertFalse(client.pollTokenProcessing(token, Runnable::run).get(5, TimeUnit.SECONDS));
+		}
+
+		assertEquals(4, polls.get());
+		assertEquals(Thread.currentThread(), checkThreads.get(0), "first check is immediate");
+		// 50 ms, then 100 ms, then capped at 100 ms
+		InOrder delays = Mockito.inOrder(log);
+		delays.verify(log).info("Token is still being processed, will retry in 50 ms");
+		delays.verify(log, Mockito.times(2)).info("Token is still being processed, will retry in 100 ms");
+	}
+
+	@Test
+	void pollToken_StopsPollingOnTimeout() throws Exception {
+		UUID token = UUID.randomUUID();
+		AtomicInteger polls = new AtomicInteger();
+		server.createContext("/api/v1/bom/token/" + token, exchange -> {
+			polls.incrementAndGet();
+			send(exchange, "{\"processing\":true}");
+		});
+		client.setPollingPolicy(PollingPolicy.builder().initialDelayMillis(20).maxDelayMillis(50).build());
+		DTrackClient spy = Mockito.spy(client);
+		AtomicReference<TokenPolling> polling = new AtomicReference<>();
+		Mockito.doAnswer(invocation -> {
+			polling.set((TokenPolling) invocation.callRealMethod());
+			return polling.get();
+		}).when(spy).pollTokenProcessing(Mockito.eq(token), Mockito.any(), Mockito.anyLong());
+		DTrack dtrack = new DTrack(spy, Suppressions.none(), "project", "1.0.0", Mockito.mock(Log.class));
+
+		assertThrows(DTrackException.class, () -> dtrack.pollToken(token, 1));
+
+		assertTrue(polls.get() > 1);
+		// neither a check is scheduled, nor can a check in flight schedule another one
+		assertTrue(polling.get().isCancelled());
+		assertFalse(polling.get().hasScheduledCheck());
+	}
+
+	@Test
+	void pollTokenProcessing_CancelAbortsCheckInFlight() throws Exception {
+		UUID token = UUID.randomUUID();
+		AtomicInteger polls = new AtomicInteger();
+		CountDownLatch inFlight = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		server.createContext("/api/v1/bom/token/" + token, exchange -> {
+			polls.incrementAndGet();
+			inFlight.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			send(exchange, "{\"processing\":true}");
+		});
+		client.setPollingPolicy(PollingPolicy.builder().initialDelayMillis(10).build());
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			CompletableFuture<Boolean> polling = client.pollTokenProcessing(token, executor);
+			assertTrue(inFlight.await(5, TimeUnit.SECONDS));
+
+			polling.cancel(true);
+
+			// the executor's only thread is released by aborting the check in flight
+			executor.submit(() -> {}).get(1, TimeUnit.SECONDS);
+			assertTrue(polling.isCancelled());
+			release.countDown();
+			Thread.sleep(100);
+			assertEquals(1, polls.get());
+		} finally {
+			release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void getProjectMetrics_SharesResponsesOfClientsWithOtherDeadline() throws Exception {
+		CountDownLatch arrived = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger requests = new AtomicInteger();
+		HttpTransport transport = request -> {
+			requests.incrementAndGet();
+			arrived.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			byte[] body = "{\"critical\":1}".getBytes(StandardCharsets.UTF_8);
+			return new TransportResponse(200, "OK", new HashMap<>(), new ByteArrayInputStream(body), null);
+		};
+		String url = "http://127.0.0.1:" + server.getAddress().getPort();
+		DTrackClient client = new DTrackClient(url, "api-key", transport, Mockito.mock(Log.class));
+		client.setDeadline(Deadline.after(2, TimeUnit.MINUTES));
+		DTrackClient otherClient = new DTrackClient(url, "api-key", transport, Mockito.mock(Log.class));
+		otherClient.setDeadline(Deadline.after(1, TimeUnit.MINUTES));
+
+		CompletableFuture<ProjectMetrics> metrics = CompletableFuture.supplyAsync(() -> {
+			try {
+				return client.getProjectMetrics(PROJECT_UUID);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		assertTrue(arrived.await(5, TimeUnit.SECONDS));
+		CompletableFuture<ProjectMetrics> otherMetrics = CompletableFuture.supplyAsync(() -> {
+			try {
+				return otherClient.getProjectMetrics(PROJECT_UUID);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		Thread.sleep(200);
+		release.countDown();
+
+		assertEquals(1, metrics.get(10, TimeUnit.SECONDS).getCritical());
+		assertEquals(1, otherMetrics.get(10, TimeUnit.SECONDS).getCritical());
+		assertEquals(1, requests.get());
+	}
+
+	@Test
+	void getProjectMetrics_WaitsForSharedResponseAtMostUntilDeadline() throws Exception {
+		CountDownLatch arrived = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		HttpTransport transport = request -> {
+			arrived.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+			return new TransportResponse(200, "OK", new HashMap<>(), new ByteArrayInputStream(body), null);
+		};
+		String url = "http://127.0.0.1:" + server.getAddress().getPort();
+		DTrackClient client = new DTrackClient(url, "api-key", transport, Mockito.mock(Log.class));
+		DTrackClient otherClient = new DTrackClient(url, "api-key", transport, Mockito.mock(Log.class));
+		otherClient.setDeadline(Deadline.after(100, TimeUnit.MILLISECONDS));
+
+		CompletableFuture<ProjectMetrics> metrics = CompletableFuture.supplyAsync(() -> {
+			try {
+				return client.getProjectMetrics(PROJECT_UUID);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		assertTrue(arrived.await(5, TimeUnit.SECONDS));
+
+		assertThrows(DeadlineExceededException.class, () -> otherClient.getProjectMetrics(PROJECT_UUID));
+		release.countDown();
+		metrics.get(10, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void close_ReleasesOwnConnectionPool() {
+		respondWith("/api/v1/project/" + PROJECT_UUID, "{}");
+
+		client.close();
+
+		assertThrows(IllegalStateException.class, () -> client.getProject(PROJECT_UUID));
+	}
+
+	@Test
+	void close_LeavesSharedConnectionPoolOpen() throws Exception {
+		respondWith("/api/v1/project/" + PROJECT_UUID, "{\"name\":\"project\"}");
+		String url = "http://127.0.0.1:" + server.getAddress().getPort();
+		try (SharedHttpClients httpClients = new SharedHttpClients()) {
+			DTrackClient client = new DTrackClient(url, "api-key", httpClients, ConnectionPoolConfig.defaults(),
+				HttpTransportType.APACHE, Mockito.mock(Log.class));
+			DTrackClient otherClient = new DTrackClient(url, "api-key", httpClients, ConnectionPoolConfig.defaults(),
+				HttpTransportType.APACHE, Mockito.mock(Log.class));
+
+			client.close();
+
+			assertEquals("project", otherClient.getProject(PROJECT_UUID).getName());
+		}
+	}
+
+	@Test
+	void getCapabilities_UnknownIfProbeFails() {
+		client.setCapabilitiesCache(new ServerCapabilitiesCache(tempDir, TimeUnit.HOURS.toMillis(1)));
+
+		assertEquals(ServerCapabilities.UNKNOWN, client.getCapabilities());
+		assertFalse(client.getCapabilities().isEventTokenSupported());
+		assertTrue(client.getCapabilities().isFindingsPaginationSupported());
+	}
+
+	@Test
+	void serverCapabilities_ComparesVersions() {
+		assertTrue(new ServerCapabilities("4.11.0").isEventTokenSupported());
+		assertTrue(new ServerCapabilities("5.0.0-SNAPSHOT").isEventTokenSupported());
+		assertFalse(new ServerCapabilities("4.10.1").isEventTokenSupported());
+		assertFalse(new ServerCapabilities("3.6").isFindingsPaginationSupported());
+		assertFalse(new ServerCapabilities("unknown").isAtLeast(3, 0));
+	}
+
+	static String findingsJson(int from, int to) {
+		StringBuilder json = new StringBuilder("[");
+		for (int i = from; i < to; i++) {
+			if (i > from) {
+				json.append(",");
+			}
+			json.append("{\"component\":{\"uuid\":\"").append(UUID.randomUUID()).append("\",\"name\":\"component-").append(i).append("\"},")
+				.append("\"vulnerability\":{\"uuid\":\"").append(UUID.randomUUID()).append("\",\"vulnId\":\"CVE-").append(i).append("\",\"severity\":\"HIGH\"},")
+				.append("\"analysis\":{\"isSuppressed\":false}}");
+		}
+		return json.append("]").toString();
+	}
+
+	private void respondWith(String path, String body) {
+		server.createContext(path, exchange -> send(exchange, body));
+	}
+
+	private static void send(HttpExchange exchange, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(200, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	private static Map<String, String> query(String query) {
+		Map<String, String> parameters = new HashMap<>();
+		for (String parameter : query.split("&")) {
+			String[] keyValue = parameter.split("=", 2);
+			parameters.put(keyValue[0], keyValue.length > 1 ? keyValue[1] : "");
+		}
+		return parameters;
+	}
+}
@@ -0,0 +1,75 @@
+package iabudiab.maven.plugins.dependencytrack.client;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.FileEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import iabudiab.maven.plugins.dependencytrack.client.model.BomSubmitRequest;
+
+class EncodedBomTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void shared_EncodesOnceForAllUploads() throws IOException {
+		Path file = Files.write(tempDir.resolve("bom.xml"), "<bom/>".getBytes());
+		BomSubmitRequest payload = BomSubmitRequest.builder().projectName("project").projectVersion("1.0.0").build();
+		byte[] expected = bytes(new Base64JsonFileEntity(objectMapper, payload, "bom", file));
+
+		EncodedBom bom = EncodedBom.shared(file);
+		HttpEntity first = bom.jsonEntity(objectMapper, payload);
+		HttpEntity second = bom.jsonEntity(objectMapper, payload);
+
+		assertTrue(first instanceof FileEntity);
+		assertTrue(second instanceof FileEntity);
+		assertArrayEquals(expected, bytes(first));
+		assertArrayEquals(expected, bytes(second));
+
+		// the encoded copy is deleted
+		bom.close();
+		assertThrows(IOException.class, () -> bytes(second));
+	}
+
+	@Test
+	void shared_EncodesOtherPayloadsOnTheFly() throws IOException {
+		Path file = Files.write(tempDir.resolve("bom.xml"), "<bom/>".getBytes());
+		BomSubmitRequest payload = BomSubmitRequest.builder().projectName("project").build();
+		BomSubmitRequest otherPayload = BomSubmitRequest.builder().projectName("other").build();
+
+		try (EncodedBom bom = EncodedBom.shared(file)) {
+			bom.jsonEntity(objectMapper, payload);
+			assertTrue(bom.jsonEntity(objectMapper, otherPayload) instanceof Base64JsonFileEntity);
+		}
+	}
+
+	@Test
+	void of_EncodesEachUploadOnTheFly() throws IOException {
+		Path file = Files.write(tempDir.resolve("bom.xml"), "<bom/>".getBytes());
+		BomSubmitRequest payload = BomSubmitRequest.builder().projectName("project").build();
+
+		try (EncodedBom bom = EncodedBom.of(file)) {
+			assertTrue(bom.jsonEntity(objectMapper, payload) instanceof Base64JsonFileEntity);
+		}
+	}
+
+	private static byte[] bytes(HttpEntity entity) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		entity.writeTo(output);
+		return output.toByteArray();
+	}
+}
@@ -0,0 +1,56 @@
+package iabudiab.maven.plugins.dependencytrack.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.apache.maven.plugin.logging.Log;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+class PollingPolicyTest {
+
+	private final Log log = Mockito.mock(Log.class);
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void delay_BacksOffUpToMaxDelay() {
+		PollingPolicy policy = PollingPolicy.builder().initialDelayMillis(500).maxDelayMillis(3000).jitter(0).build();
+
+		assertEquals(500, policy.delayMillis(1));
+		assertEquals(1000, policy.delayMillis(2));
+		assertEquals(2000, policy.delayMillis(3));
+		assertEquals(3000, policy.delayMillis(4));
+		assertEquals(3000, policy.delayMillis(10));
+	}
+
+	@Test
+	void delay_IsJitteredWithinBounds() {
+		PollingPolicy policy = PollingPolicy.builder().initialDelayMillis(1000).maxDelayMillis(10_000).jitter(0.2).build();
+
+		for (int i = 0; i < 100; i++) {
+			long delay = policy.delayMillis(1);
+			assertTrue(delay >= 800 && delay <= 1200, "delay: " + delay);
+		}
+	}
+
+	@Test
+	void history_PredictsFromSimilarSizes() throws IOException {
+		ProcessingTimeHistory history = new ProcessingTimeHistory(tempDir.resolve("processing-times.json"));
+		assertEquals(-1, history.predictMillis("http://dtrack", 1000, log));
+
+		history.record("http://dtrack", 1_000, 1_000);
+		history.record("http://dtrack", 2_000, 2_000);
+		history.record("http://dtrack", 1_000_000, 60_000);
+		history.record("http://other", 1_000, 100_000);
+
+		assertEquals(1_500, history.predictMillis("http://dtrack", 1_500, log));
+		// the history is read again from disk, e.g. by a later build
+		assertEquals(1_500, new ProcessingTimeHistory(tempDir.resolve("processing-times.json")).predictMillis("http://dtrack", 1_500, log));
+	}
+}
@@ -0,0 +1,60 @@
+package iabudiab.maven.plugins.dependencytrack.client;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class SharedHttpClientsTest {
+
+	private final SharedHttpClients clients = new SharedHttpClients();
+
+	@AfterEach
+	void tearDown() {
+		clients.close();
+	}
+
+	@Test
+	void get_ReusesClientOfSamePoolSettings() {
+		CloseableHttpClient client = clients.get(ConnectionPoolConfig.defaults(), 10_000);
+
+		assertSame(client, clients.get(ConnectionPoolConfig.builder().build(), 10_000));
+	}
+
+	@Test
+	void get_KeysClientsByPoolSettingsAndTimeout() {
+		CloseableHttpClient client = clients.get(ConnectionPoolConfig.defaults(), 10_000);
+
+		assertNotSame(client, clients.get(ConnectionPoolConfig.builder().maxPerRoute(2).build(), 10_000));
+		assertNotSame(client, clients.get(ConnectionPoolConfig.defaults(), 20_000));
+	}
+
+	@Test
+	void close_ShutsDownClients() {
+		CloseableHttpClient client = clients.get(ConnectionPoolConfig.defaults(), 10_000);
+
+		clients.close();
+
+		assertThrows(IllegalStateException.class, () -> client.execute(new HttpGet("http://127.0.0.1:1/")));
+		assertThrows(IllegalStateException.class, () -> clients.get(ConnectionPoolConfig.defaults(), 10_000));
+	}
+
+	@Test
+	void close_ClosesClientsRegisteredByKey() {
+		AtomicBoolean closed = new AtomicBoolean();
+		Closeable client = clients.get("other", () -> () -> closed.set(true));
+
+		assertSame(client, clients.get("other", () -> () -> {}));
+		clients.close();
+
+		assertTrue(closed.get());
+	}
+}
@@ -0,0 +1,112 @@
+package iabudiab.maven.plugins.dependencytrack.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import iabudiab.maven.plugins.dependencytrack.client.transport.Deadline;
+import iabudiab.maven.plugins.dependencytrack.client.transport.DeadlineExceededException;
+
+class SingleFlightTest {
+
+	private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void execute_ConcurrentCallsShareOneExecution() throws Exception {
+		AtomicInteger executions = new AtomicInteger();
+		CountDownLatch followersStarted = new CountDownLatch(3);
+		List<Future<String>> followers = new ArrayList<>();
+
+		String result = singleFlight.execute("project", () -> {
+			executions.incrementAndGet();
+			for (int i = 0; i < 3; i++) {
+				followers.add(executor.submit(() -> {
+					followersStarted.countDown();
+					return singleFlight.execute("project", () -> {
+						executions.incrementAndGet();
+						return "follower";
+					});
+				}));
+			}
+			try {
+				followersStarted.await(5, TimeUnit.SECONDS);
+				Thread.sleep(200);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "leader";
+		});
+
+		assertEquals("leader", result);
+		for (Future<String> follower : followers) {
+			assertEquals("leader", follower.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, executions.get());
+	}
+
+	@Test
+	void execute_SequentialCallsExecuteAgain() throws IOException {
+		AtomicInteger executions = new AtomicInteger();
+
+		singleFlight.execute("project", () -> "first " + executions.incrementAndGet());
+		String second = singleFlight.execute("project", () -> "second " + executions.incrementAndGet());
+
+		assertEquals("second 2", second);
+	}
+
+	@Test
+	void execute_FailureIsPropagated() {
+		IOException failure = new IOException("connection refused");
+
+		IOException thrown = assertThrows(IOException.class, () -> singleFlight.execute("project", () -> {
+			throw failure;
+		}));
+
+		assertSame(failure, thrown);
+	}
+
+	@Test
+	void execute_CallerGivingUpDoesNotFailOthers() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		SingleFlight.Call<String> call = () -> {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "metrics";
+		};
+
+		Future<String> leader = executor.submit(() -> singleFlight.execute("project", call, Deadline.after(100, TimeUnit.MILLISECONDS), executor));
+		started.await(5, TimeUnit.SECONDS);
+		Future<String> follower = executor.submit(() -> singleFlight.execute("project", call));
+
+		ExecutionException thrown = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(DeadlineExceededException.class, thrown.getCause());
+		release.countDown();
+		assertEquals("metrics", follower.get(5, TimeUnit.SECONDS));
+	}
+}
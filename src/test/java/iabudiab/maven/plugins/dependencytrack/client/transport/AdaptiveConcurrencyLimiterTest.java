@@ -0,0 +1,96 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.maven.plugin.logging.Log;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	private static final URI PROJECTS = URI.create("http://localhost/api/v1/project");
+	private static final long MILLIS = 1_000_000;
+
+	private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 16, Mockito.mock(Log.class));
+
+	@Test
+	void onResponse_OverloadHalvesLimitOncePerBurst() throws IOException {
+		List<AdaptiveConcurrencyLimiter.Permit> permits = acquire(4);
+
+		// requests in flight at the same time count as a single overload signal
+		for (AdaptiveConcurrencyLimiter.Permit permit : permits) {
+			permit.onResponse(503, PROJECTS, true);
+			permit.release();
+		}
+		assertEquals(4, limiter.getLimit());
+
+		AdaptiveConcurrencyLimiter.Permit later = limiter.acquire();
+		later.onResponse(429, PROJECTS, true);
+		later.release();
+		assertEquals(2, limiter.getLimit());
+	}
+
+	@Test
+	void onResponse_SuccessGrowsUsedLimit() throws IOException {
+		for (int round = 0; round < 4; round++) {
+			for (AdaptiveConcurrencyLimiter.Permit permit : acquire(8)) {
+				permit.onResponse(200, PROJECTS, false);
+				permit.release();
+			}
+		}
+
+		assertTrue(limiter.getLimit() > 8);
+	}
+
+	@Test
+	void onResponse_RisingLatencyOfEndpointHalvesLimit() throws IOException {
+		respond("/api/v1/project", 20, MILLIS);
+		respond("/api/v1/project", 10, 10 * MILLIS);
+
+		assertEquals(4, limiter.getLimit());
+	}
+
+	@Test
+	void onResponse_ComparesLatencyPerEndpoint() throws IOException {
+		respond("/api/v1/project", 20, MILLIS);
+		respond("/api/v1/finding/project/{uuid}", 20, 10 * MILLIS);
+		respond("/api/v1/project", 10, MILLIS);
+
+		assertEquals(8, limiter.getLimit());
+	}
+
+	@Test
+	void acquireAsync_WaitsForReleasedPermit() throws IOException {
+		List<AdaptiveConcurrencyLimiter.Permit> permits = acquire(8);
+
+		CompletableFuture<AdaptiveConcurrencyLimiter.Permit> waiting = limiter.acquireAsync();
+		assertFalse(waiting.isDone());
+
+		permits.get(0).release();
+		assertTrue(waiting.isDone());
+	}
+
+	private void respond(String endpoint, int count, long latencyNanos) throws IOException {
+		for (int i = 0; i < count; i++) {
+			AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+			permit.onResponse(200, endpoint, latencyNanos);
+			permit.release();
+		}
+	}
+
+	private List<AdaptiveConcurrencyLimiter.Permit> acquire(int count) throws IOException {
+		List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			permits.add(limiter.acquire());
+		}
+		return permits;
+	}
+}
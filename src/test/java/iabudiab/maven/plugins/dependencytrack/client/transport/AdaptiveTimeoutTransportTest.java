@@ -0,0 +1,115 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.logging.Log;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+class AdaptiveTimeoutTransportTest {
+
+	private final Log log = Mockito.mock(Log.class);
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void fastEndpoint_GetsShortTimeout() throws IOException {
+		AtomicInteger timeout = new AtomicInteger();
+		LatencyHistograms histograms = new LatencyHistograms();
+		HttpTransport transport = new AdaptiveTimeoutTransport(request -> {
+			timeout.set(request.getTimeoutMillis());
+			return response();
+		}, histograms, 99, 3, 1000, log);
+
+		for (int i = 0; i < AdaptiveTimeoutTransport.MIN_SAMPLES; i++) {
+			transport.execute(poll("http://localhost/api/v1/bom/token/" + UUID.randomUUID())).close();
+			assertEquals(10_000, timeout.get());
+		}
+
+		// the tokens share one endpoint, which answered within milliseconds
+		transport.execute(poll("http://localhost/api/v1/bom/token/" + UUID.randomUUID())).close();
+		assertEquals(1000, timeout.get());
+	}
+
+	@Test
+	void transfer_KeepsItsTimeout() throws IOException {
+		AtomicInteger timeout = new AtomicInteger();
+		LatencyHistograms histograms = new LatencyHistograms();
+		for (int i = 0; i < AdaptiveTimeoutTransport.MIN_SAMPLES; i++) {
+			histograms.record("GET localhost/api/v1/bom/cyclonedx/project/{uuid}", 5);
+		}
+		HttpTransport transport = new AdaptiveTimeoutTransport(request -> {
+			timeout.set(request.getTimeoutMillis());
+			return response();
+		}, histograms, 99, 3, 1000, log);
+
+		transport.execute(TransportRequest.get(URI.create("http://localhost/api/v1/bom/cyclonedx/project/" + UUID.randomUUID()))
+			.timeout(300_000, TimeoutClass.TRANSFER)).close();
+
+		assertEquals(300_000, timeout.get());
+	}
+
+	@Test
+	void timedOutRequest_IsRecordedWithItsDuration() {
+		LatencyHistograms histograms = new LatencyHistograms();
+		HttpTransport transport = new AdaptiveTimeoutTransport(request -> {
+			throw new SocketTimeoutException("Read timed out");
+		}, histograms, 50, 3, 1000, log);
+
+		assertThrows(SocketTimeoutException.class, () -> transport.execute(poll("http://localhost/api/version")));
+
+		assertTrue(histograms.percentile("GET localhost/api/version", 50, 1) >= 0);
+	}
+
+	@Test
+	void histograms_ArePersisted() throws IOException {
+		Path file = tempDir.resolve("latencies.json");
+		LatencyHistograms histograms = LatencyHistograms.shared(file, log);
+		histograms.record("GET localhost/api/version", 100);
+		histograms.save();
+
+		LatencyHistograms loaded = LatencyHistograms.shared(tempDir.resolve("other.json"), log);
+		assertEquals(-1, loaded.percentile("GET localhost/api/version", 50, 1));
+
+		Files.copy(file, tempDir.resolve("copy.json"));
+		loaded = LatencyHistograms.shared(tempDir.resolve("copy.json"), log);
+		long percentile = loaded.percentile("GET localhost/api/version", 50, 1);
+		assertTrue(percentile >= 100 && percentile < 150, "percentile: " + percentile);
+	}
+
+	@Test
+	void histogram_DecaysOldSamples() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 0; i < LatencyHistogram.MAX_SAMPLES; i++) {
+			histogram.record(5000);
+		}
+		for (int i = 0; i < LatencyHistogram.MAX_SAMPLES; i++) {
+			histogram.record(20);
+		}
+
+		assertTrue(histogram.size() <= LatencyHistogram.MAX_SAMPLES);
+		assertEquals(20, histogram.percentile(50));
+	}
+
+	private static TransportRequest poll(String uri) {
+		return TransportRequest.get(URI.create(uri)).timeout(10_000, TimeoutClass.POLL);
+	}
+
+	private static TransportResponse response() {
+		return new TransportResponse(200, "OK", Collections.emptyMap(), new ByteArrayInputStream(new byte[0]), null);
+	}
+}
@@ -0,0 +1,78 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.codehaus.plexus.util.IOUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+class ApacheHttpTransportTest {
+
+	private HttpServer server;
+	private CloseableHttpClient httpClient;
+	private HttpTransport transport;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/echo", exchange -> {
+			byte[] body;
+			try (InputStream requestBody = exchange.getRequestBody()) {
+				body = IOUtil.toByteArray(requestBody);
+			}
+			exchange.getResponseHeaders().add("X-Echo-Method", exchange.getRequestMethod());
+			exchange.getResponseHeaders().add("X-Echo-Key", exchange.getRequestHeaders().getFirst("X-Api-Key"));
+			exchange.sendResponseHeaders(200, body.length == 0 ? -1 : body.length);
+			try (OutputStream responseBody = exchange.getResponseBody()) {
+				responseBody.write(body);
+			}
+		});
+		server.start();
+		httpClient = HttpClients.createDefault();
+		transport = new ApacheHttpTransport(httpClient);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		httpClient.close();
+		server.stop(0);
+	}
+
+	@Test
+	void execute_SendsHeadersAndBody() throws IOException {
+		TransportRequest request = new TransportRequest("PATCH", uri("/echo"), RequestBody.json("{\"active\":false}"))
+			.header("X-Api-Key", "api-key");
+
+		try (TransportResponse response = transport.execute(request)) {
+			assertEquals(200, response.getStatusCode());
+			assertEquals("PATCH", response.getFirstHeader("x-echo-method"));
+			assertEquals("api-key", response.getFirstHeader("X-ECHO-KEY"));
+			assertEquals("{\"active\":false}", IOUtil.toString(response.getBody(), StandardCharsets.UTF_8.name()));
+		}
+	}
+
+	@Test
+	void execute_AbortedRequestFails() {
+		TransportRequest request = TransportRequest.get(uri("/echo"));
+		request.abort();
+
+		assertThrows(IOException.class, () -> transport.execute(request));
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+	}
+}
@@ -0,0 +1,165 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.IOUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import com.sun.net.httpserver.HttpServer;
+
+class CachingTransportTest {
+
+	private static final String ETAG = "\"v1\"";
+	private static final String BODY = "{\"uuid\":\"7f1c2b44-7bb4-4c0c-8a8e-1d9b3c0e6a10\"}";
+
+	@TempDir
+	Path cacheDirectory;
+
+	private HttpServer server;
+	private CloseableHttpClient httpClient;
+	private final List<String> receivedValidators = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/project", exchange -> {
+			String validator = exchange.getRequestHeaders().getFirst("If-None-Match");
+			receivedValidators.add(validator);
+			exchange.getResponseHeaders().add("ETag", ETAG);
+			exchange.getResponseHeaders().add("X-Total-Count", "1");
+			if (ETAG.equals(validator)) {
+				exchange.sendResponseHeaders(304, -1);
+				exchange.close();
+				return;
+			}
+			byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream responseBody = exchange.getResponseBody()) {
+				responseBody.write(body);
+			}
+		});
+		server.start();
+		httpClient = HttpClients.createDefault();
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		httpClient.close();
+		server.stop(0);
+	}
+
+	@Test
+	void execute_RevalidatesAndServesCachedBody() throws IOException {
+		HttpTransport transport = transport(new ResponseCache(cacheDirectory, 1024 * 1024));
+
+		assertEquals(BODY, get(transport, "api-key"));
+		assertEquals(BODY, get(transport, "api-key"));
+
+		assertNull(receivedValidators.get(0));
+		assertEquals(ETAG, receivedValidators.get(1));
+	}
+
+	@Test
+	void executeAsync_RevalidatesAndServesCachedBody() throws Exception {
+		HttpTransport transport = transport(new ResponseCache(cacheDirectory, 1024 * 1024));
+		get(transport, "api-key");
+
+		TransportRequest request = TransportRequest.get(uri()).header("X-Api-Key", "api-key");
+		try (TransportResponse response = transport.executeAsync(request).get()) {
+			assertEquals(200, response.getStatusCode());
+			assertEquals(BODY, IOUtil.toString(response.getBody(), StandardCharsets.UTF_8.name()));
+		}
+		assertEquals(ETAG, receivedValidators.get(1));
+	}
+
+	@Test
+	void execute_DoesNotShareResponsesBetweenApiKeys() throws IOException {
+		HttpTransport transport = transport(new ResponseCache(cacheDirectory, 1024 * 1024));
+
+		get(transport, "api-key");
+		get(transport, "other-api-key");
+
+		assertNull(receivedValidators.get(1));
+	}
+
+	@Test
+	void execute_EvictsBeyondMaxSize() throws IOException {
+		HttpTransport transport = transport(new ResponseCache(cacheDirectory, BODY.length()));
+
+		get(transport, "api-key");
+		get(transport, "other-api-key");
+
+		try (Stream<Path> files = Files.list(cacheDirectory)) {
+			assertEquals(1, files.filter(path -> path.toString().endsWith(".body")).count());
+		}
+	}
+
+	@Test
+	void store_ReplacesBodyAndEntryAtOnce() throws IOException {
+		ResponseCache cache = new ResponseCache(cacheDirectory, 1024 * 1024);
+		String key = ResponseCache.key("http://localhost/project", "api-key");
+		store(cache, key, "\"v1\"", "first");
+		ResponseCache.Entry first = cache.lookup(key);
+
+		try (InputStream body = cache.openBody(first)) {
+			store(cache, key, "\"v2\"", "second");
+			assertEquals("first", IOUtil.toString(body, StandardCharsets.UTF_8.name()));
+		}
+
+		ResponseCache.Entry second = cache.lookup(key);
+		assertEquals("\"v2\"", second.getEtag());
+		try (InputStream body = cache.openBody(second)) {
+			assertEquals("second", IOUtil.toString(body, StandardCharsets.UTF_8.name()));
+		}
+		assertThrows(IOException.class, () -> cache.openBody(first));
+		try (Stream<Path> files = Files.list(cacheDirectory)) {
+			assertEquals(1, files.filter(path -> path.toString().endsWith(".body")).count());
+		}
+	}
+
+	private static void store(ResponseCache cache, String key, String etag, String body) throws IOException {
+		Path tempBody = cache.createTempBody();
+		Files.write(tempBody, body.getBytes(StandardCharsets.UTF_8));
+		ResponseCache.Entry entry = new ResponseCache.Entry();
+		entry.setEtag(etag);
+		entry.setStatusCode(200);
+		cache.store(key, entry, tempBody);
+	}
+
+	private HttpTransport transport(ResponseCache cache) {
+		return new CachingTransport(new ApacheHttpTransport(httpClient), cache, "X-Api-Key", Mockito.mock(Log.class));
+	}
+
+	private URI uri() {
+		return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/project");
+	}
+
+	private String get(HttpTransport transport, String apiKey) throws IOException {
+		try (TransportResponse response = transport.execute(TransportRequest.get(uri()).header("X-Api-Key", apiKey))) {
+			assertEquals(200, response.getStatusCode());
+			assertEquals("1", response.getFirstHeader("X-Total-Count"));
+			return IOUtil.toString(response.getBody(), StandardCharsets.UTF_8.name());
+		}
+	}
+}
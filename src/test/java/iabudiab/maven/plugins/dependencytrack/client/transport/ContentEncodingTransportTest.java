@@ -0,0 +1,130 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.contains;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.IOUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class ContentEncodingTransportTest {
+
+	private static final String BODY = "{\"versions\":[" + repeat("{\"version\":\"1.0.0\"},", 200) + "{}]}";
+
+	private HttpServer server;
+	private CloseableHttpClient httpClient;
+	private Log log;
+	private HttpTransport transport;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.start();
+		httpClient = HttpClients.custom().disableContentCompression().build();
+		log = Mockito.mock(Log.class);
+		Mockito.when(log.isDebugEnabled()).thenReturn(true);
+		transport = new ContentEncodingTransport(new ApacheHttpTransport(httpClient), log);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		httpClient.close();
+		server.stop(0);
+	}
+
+	@Test
+	void execute_DecompressesGzip() throws IOException {
+		server.createContext("/gzip", exchange -> send(exchange, "gzip", gzip(BODY)));
+
+		try (TransportResponse response = transport.execute(TransportRequest.get(uri("/gzip")))) {
+			assertNull(response.getFirstHeader("Content-Encoding"));
+			assertEquals(BODY, IOUtil.toString(response.getBody(), StandardCharsets.UTF_8.name()));
+		}
+
+		Mockito.verify(log).debug(contains(BODY.length() + " bytes decompressed (gzip)"));
+	}
+
+	@Test
+	void execute_DecompressesDeflate() throws IOException {
+		server.createContext("/deflate", exchange -> send(exchange, "deflate", deflate(BODY)));
+
+		try (TransportResponse response = transport.execute(TransportRequest.get(uri("/deflate")))) {
+			assertEquals(BODY, IOUtil.toString(response.getBody(), StandardCharsets.UTF_8.name()));
+		}
+	}
+
+	@Test
+	void execute_AdvertisesAcceptEncodingAndPassesIdentity() throws IOException {
+		server.createContext("/identity", exchange ->
+			send(exchange, null, exchange.getRequestHeaders().getFirst("Accept-Encoding").getBytes(StandardCharsets.UTF_8)));
+
+		try (TransportResponse response = transport.execute(TransportRequest.get(uri("/identity")))) {
+			assertEquals("gzip, deflate", IOUtil.toString(response.getBody(), StandardCharsets.UTF_8.name()));
+		}
+	}
+
+	@Test
+	void execute_EmptyCompressedBody() throws IOException {
+		server.createContext("/empty", exchange -> send(exchange, "gzip", new byte[0]));
+
+		try (TransportResponse response = transport.execute(TransportRequest.get(uri("/empty")))) {
+			assertEquals("", IOUtil.toString(response.getBody(), StandardCharsets.UTF_8.name()));
+		}
+	}
+
+	private static void send(HttpExchange exchange, String contentEncoding, byte[] body) throws IOException {
+		if (contentEncoding != null) {
+			exchange.getResponseHeaders().add("Content-Encoding", contentEncoding);
+		}
+		exchange.sendResponseHeaders(200, body.length == 0 ? -1 : body.length);
+		try (OutputStream responseBody = exchange.getResponseBody()) {
+			responseBody.write(body);
+		}
+	}
+
+	private static byte[] gzip(String value) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (OutputStream out = new GZIPOutputStream(bytes)) {
+			out.write(value.getBytes(StandardCharsets.UTF_8));
+		}
+		return bytes.toByteArray();
+	}
+
+	private static byte[] deflate(String value) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (OutputStream out = new DeflaterOutputStream(bytes)) {
+			out.write(value.getBytes(StandardCharsets.UTF_8));
+		}
+		return bytes.toByteArray();
+	}
+
+	private static String repeat(String value, int times) {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < times; i++) {
+			builder.append(value);
+		}
+		return builder.toString();
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+	}
+}
@@ -0,0 +1,108 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+class DeadlineTransportTest {
+
+	@Test
+	void boundedDeadline_ShortensRequestTimeout() throws IOException {
+		AtomicInteger timeout = new AtomicInteger();
+		HttpTransport transport = new DeadlineTransport(request -> {
+			timeout.set(request.getTimeoutMillis());
+			return new TransportResponse(200, "OK", Collections.emptyMap(), new ByteArrayInputStream(new byte[0]), null);
+		}, Deadline.after(5, TimeUnit.SECONDS));
+
+		transport.execute(TransportRequest.get(URI.create("http://localhost/api/v1/version"))).close();
+
+		assertTrue(timeout.get() > 0 && timeout.get() <= 5000, "timeout: " + timeout.get());
+	}
+
+	@Test
+	void expiredDeadline_SendsNoRequest() throws Exception {
+		AtomicInteger requests = new AtomicInteger();
+		Deadline deadline = Deadline.after(1, TimeUnit.MILLISECONDS);
+		HttpTransport transport = new DeadlineTransport(request -> {
+			requests.incrementAndGet();
+			return null;
+		}, deadline);
+
+		Thread.sleep(10);
+
+		assertTrue(deadline.isExpired());
+		assertThrows(DeadlineExceededException.class, () -> transport.execute(TransportRequest.get(URI.create("http://localhost/"))));
+		assertEquals(0, requests.get());
+	}
+
+	@Test
+	void expiredDeadline_FailsAsyncRequestWithoutSending() throws Exception {
+		AtomicInteger requests = new AtomicInteger();
+		Deadline deadline = Deadline.after(1, TimeUnit.MILLISECONDS);
+		HttpTransport transport = new DeadlineTransport(request -> {
+			requests.incrementAndGet();
+			return null;
+		}, deadline);
+
+		Thread.sleep(10);
+
+		CompletableFuture<TransportResponse> response = transport.executeAsync(TransportRequest.get(URI.create("http://localhost/")));
+		ExecutionException failure = assertThrows(ExecutionException.class, response::get);
+		assertTrue(failure.getCause() instanceof DeadlineExceededException);
+		assertEquals(0, requests.get());
+	}
+
+	@Test
+	void unboundedDeadline_KeepsTransportDefault() {
+		assertEquals(Long.MAX_VALUE, Deadline.none().remainingMillis());
+		assertEquals(30_000, Deadline.none().clamp(30_000));
+		assertTrue(Deadline.none().hasAtLeast(Long.MAX_VALUE));
+	}
+
+	@Test
+	void apacheTransport_AppliesRequestTimeout() throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/slow", exchange -> {
+			try {
+				Thread.sleep(2000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			exchange.sendResponseHeaders(200, 0);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write('x');
+			}
+		});
+		server.start();
+
+		try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
+			HttpTransport transport = new ApacheHttpTransport(httpClient);
+			TransportRequest request = TransportRequest.get(URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/slow"))
+				.timeout(200);
+
+			long startNanos = System.nanoTime();
+			assertThrows(SocketTimeoutException.class, () -> transport.execute(request));
+			assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) < 1500);
+		} finally {
+			server.stop(0);
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.plugin.logging.Log;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class FailoverTransportTest {
+
+	private final List<URI> sent = Collections.synchronizedList(new ArrayList<>());
+
+	@Test
+	void idempotentRequest_FailsOverToNextReplica() throws IOException {
+		FailoverTransport transport = transport("a1", "b1", request -> {
+			if (request.getUri().getHost().equals("a1")) {
+				throw new ConnectException("Connection refused");
+			}
+			return response(200);
+		});
+
+		try (TransportResponse response = transport.execute(TransportRequest.get(URI.create("http://a1/api/v1/project?name=test")))) {
+			assertEquals(200, response.getStatusCode());
+		}
+		assertEquals(Arrays.asList(URI.create("http://a1/api/v1/project?name=test"), URI.create("http://b1/api/v1/project?name=test")), sent);
+	}
+
+	@Test
+	void asyncRequest_FailsOverToNextReplica() throws Exception {
+		FailoverTransport transport = transport("a6", "b6", request -> {
+			if (request.getUri().getHost().equals("a6")) {
+				throw new ConnectException("Connection refused");
+			}
+			return response(200);
+		});
+
+		try (TransportResponse response = transport.executeAsync(TransportRequest.get(URI.create("http://a6/api/v1/version"))).get()) {
+			assertEquals(200, response.getStatusCode());
+		}
+		assertEquals(Arrays.asList(URI.create("http://a6/api/v1/version"), URI.create("http://b6/api/v1/version")), sent);
+	}
+
+	@Test
+	void idempotentRequest_FailsOverOnUnavailableReplica() throws IOException {
+		FailoverTransport transport = transport("a2", "b2", request -> response(request.getUri().getHost().equals("a2") ? 503 : 200));
+
+		try (TransportResponse response = transport.execute(TransportRequest.get(URI.create("http://a2/api/v1/version")))) {
+			assertEquals(200, response.getStatusCode());
+		}
+		assertEquals(2, sent.size());
+	}
+
+	@Test
+	void nonIdempotentRequest_IsSentOnlyOnce() {
+		FailoverTransport transport = transport("a3", "b3", request -> {
+			throw new ConnectException("Connection refused");
+		});
+
+		TransportRequest request = new TransportRequest("POST", URI.create("http://a3/api/v1/bom"), RequestBody.json("{}"));
+		assertThrows(ConnectException.class, () -> transport.execute(request));
+		assertEquals(1, sent.size());
+	}
+
+	@Test
+	void failedReplica_IsAvoidedAfterwards() throws IOException {
+		FailoverTransport transport = transport("a4", "b4", request -> {
+			if (request.getUri().getHost().equals("a4")) {
+				throw new ConnectException("Connection refused");
+			}
+			return response(200);
+		});
+
+		transport.execute(TransportRequest.get(URI.create("http://a4/api/v1/version"))).close();
+		sent.clear();
+		transport.execute(TransportRequest.get(URI.create("http://a4/api/v1/version"))).close();
+
+		assertEquals(Collections.singletonList(URI.create("http://b4/api/v1/version")), sent);
+		assertEquals(URI.create("http://b4/api/v1/"), transport.ranked().get(0));
+	}
+
+	@Test
+	void allReplicasFailing_ThrowsLastFailure() {
+		FailoverTransport transport = transport("a5", "b5", request -> {
+			throw new ConnectException("Connection refused: " + request.getUri().getHost());
+		});
+
+		IOException failure = assertThrows(IOException.class, () -> transport.execute(TransportRequest.get(URI.create("http://a5/api/v1/version"))));
+		assertEquals("Connection refused: b5", failure.getMessage());
+	}
+
+	@Test
+	void replicaHealth_PrefersLowLatencyAndDecaysErrors() {
+		ReplicaHealth fast = new ReplicaHealth();
+		ReplicaHealth slow = new ReplicaHealth();
+		fast.onSuccess(10, 0);
+		slow.onSuccess(200, 0);
+		assertEquals(-1, Double.compare(fast.score(0), slow.score(0)));
+
+		fast.onFailure(10, 0);
+		assertEquals(1, Double.compare(fast.score(0), slow.score(0)));
+		// the failure is forgotten over time
+		assertEquals(-1, Double.compare(fast.score(300_000), slow.score(300_000)));
+	}
+
+	private FailoverTransport transport(String primary, String replica, HttpTransport delegate) {
+		HttpTransport recording = request -> {
+			sent.add(request.getUri());
+			return delegate.execute(request);
+		};
+		return new FailoverTransport(recording, URI.create("http://" + primary + "/api/v1/"),
+			Arrays.asList(URI.create("http://" + primary + "/api/v1/"), URI.create("http://" + replica + "/api/v1/")),
+			Mockito.mock(Log.class));
+	}
+
+	private static TransportResponse response(int statusCode) {
+		return new TransportResponse(statusCode, "", Collections.emptyMap(), new ByteArrayInputStream(new byte[0]), null);
+	}
+}
@@ -0,0 +1,125 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.IOUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class HedgingTransportTest {
+
+	private HttpServer server;
+	private ExecutorService serverExecutor;
+	private CloseableHttpClient httpClient;
+	private HttpTransport transport;
+	private final AtomicInteger requests = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		serverExecutor = Executors.newCachedThreadPool();
+		server.setExecutor(serverExecutor);
+		server.createContext("/fast", exchange -> {
+			requests.incrementAndGet();
+			send(exchange, "fast");
+		});
+		server.createContext("/slow-first", exchange -> {
+			if (requests.incrementAndGet() == 1) {
+				sleep(3000);
+				send(exchange, "slow");
+				return;
+			}
+			send(exchange, "hedged");
+		});
+		server.start();
+		httpClient = HttpClients.createDefault();
+		transport = new HedgingTransport(new ApacheHttpTransport(httpClient), 100, 95, Mockito.mock(Log.class));
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		httpClient.close();
+		server.stop(0);
+		serverExecutor.shutdownNow();
+	}
+
+	@Test
+	void execute_HedgesSlowRequest() throws IOException {
+		long startNanos = System.nanoTime();
+		try (TransportResponse response = transport.execute(TransportRequest.get(uri("/slow-first")))) {
+			assertEquals("hedged", IOUtil.toString(response.getBody(), StandardCharsets.UTF_8.name()));
+		}
+
+		assertEquals(2, requests.get());
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) < 2000);
+	}
+
+	@Test
+	void executeAsync_HedgesSlowRequest() throws Exception {
+		long startNanos = System.nanoTime();
+		try (TransportResponse response = transport.executeAsync(TransportRequest.get(uri("/slow-first"))).get(2, TimeUnit.SECONDS)) {
+			assertEquals("hedged", IOUtil.toString(response.getBody(), StandardCharsets.UTF_8.name()));
+		}
+
+		assertEquals(2, requests.get());
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos) < 2000);
+	}
+
+	@Test
+	void execute_DoesNotHedgeFastRequest() throws IOException {
+		try (TransportResponse response = transport.execute(TransportRequest.get(uri("/fast")))) {
+			assertEquals("fast", IOUtil.toString(response.getBody(), StandardCharsets.UTF_8.name()));
+		}
+
+		assertEquals(1, requests.get());
+	}
+
+	@Test
+	void execute_DoesNotHedgeNonIdempotentRequest() throws IOException {
+		TransportRequest request = new TransportRequest("POST", uri("/slow-first"), RequestBody.json("{}"));
+		try (TransportResponse response = transport.execute(request)) {
+			assertEquals("slow", IOUtil.toString(response.getBody(), StandardCharsets.UTF_8.name()));
+		}
+
+		assertEquals(1, requests.get());
+	}
+
+	private static void send(HttpExchange exchange, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.sendResponseHeaders(200, bytes.length);
+		try (OutputStream responseBody = exchange.getResponseBody()) {
+			responseBody.write(bytes);
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+	}
+}
@@ -0,0 +1,226 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.plexus.util.IOUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Runs against the packaged multi-release jar, so that the Java 11 implementation is loaded instead of the
+ * Java 8 placeholder in <code>target/classes</code>.
+ */
+class JdkHttpTransportIT {
+
+	private HttpServer server;
+	private JdkHttpTransport.Client client;
+	private HttpTransport transport;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/echo", exchange -> {
+			byte[] body;
+			try (InputStream requestBody = exchange.getRequestBody()) {
+				body = IOUtil.toByteArray(requestBody);
+			}
+			exchange.getResponseHeaders().add("X-Echo-Method", exchange.getRequestMethod());
+			if (exchange.getRequestHeaders().containsKey("X-Api-Key")) {
+				exchange.getResponseHeaders().add("X-Echo-Key", exchange.getRequestHeaders().getFirst("X-Api-Key"));
+			}
+			exchange.sendResponseHeaders(200, body.length == 0 ? -1 : body.length);
+			try (OutputStream responseBody = exchange.getResponseBody()) {
+				responseBody.write(body);
+			}
+		});
+		server.createContext("/reject", exchange -> {
+			exchange.sendResponseHeaders(413, -1);
+			exchange.close();
+		});
+		server.start();
+		client = new JdkHttpTransport.Client(10_000);
+		transport = new JdkHttpTransport(client);
+	}
+
+	@AfterEach
+	void tearDown() {
+		client.close();
+		server.stop(0);
+	}
+
+	@Test
+	void isSupported_LoadsVersionedClass() {
+		assertTrue(JdkHttpTransport.isSupported());
+	}
+
+	@Test
+	void execute_Get() throws IOException {
+		TransportRequest request = TransportRequest.get(uri("/echo")).header("X-Api-Key", "api-key");
+
+		try (TransportResponse response = transport.execute(request)) {
+			assertEquals(200, response.getStatusCode());
+			assertEquals("GET", response.getFirstHeader("x-echo-method"));
+			assertEquals("api-key", response.getFirstHeader("X-ECHO-KEY"));
+		}
+	}
+
+	@Test
+	void execute_PipesBodyLargerThanBuffer() throws IOException {
+		byte[] content = new byte[1024 * 1024];
+		Arrays.fill(content, (byte) 'x');
+		TransportRequest request = new TransportRequest("POST", uri("/echo"), body(output -> output.write(content)));
+
+		try (TransportResponse response = transport.execute(request)) {
+			assertEquals(200, response.getStatusCode());
+			assertEquals("POST", response.getFirstHeader("x-echo-method"));
+			assertArrayEquals(content, IOUtil.toByteArray(response.getBody()));
+		}
+	}
+
+	@Test
+	void execute_SendsJsonBody() throws IOException {
+		TransportRequest request = new TransportRequest("PATCH", uri("/echo"), RequestBody.json("{\"active\":false}"));
+
+		try (TransportResponse response = transport.execute(request)) {
+			assertEquals("{\"active\":false}", IOUtil.toString(response.getBody(), StandardCharsets.UTF_8.name()));
+		}
+	}
+
+	@Test
+	void execute_FailingBodyFailsRequest() {
+		TransportRequest request = new TransportRequest("POST", uri("/echo"), body(output -> {
+			output.write(new byte[1024]);
+			throw new IOException("BOM vanished");
+		}));
+
+		assertThrows(IOException.class, () -> transport.execute(request));
+	}
+
+	@Test
+	void execute_AbandonedBodyStopsWriter() throws Exception {
+		CountDownLatch writerStopped = new CountDownLatch(1);
+		TransportRequest request = new TransportRequest("POST", uri("/reject"), body(output -> {
+			try {
+				byte[] chunk = new byte[8192];
+				while (true) {
+					output.write(chunk);
+				}
+			} finally {
+				writerStopped.countDown();
+			}
+		}));
+
+		try (TransportResponse response = transport.execute(request)) {
+			assertEquals(413, response.getStatusCode());
+		} catch (IOException e) {
+			// the server may close the connection before the client reads the response
+		}
+
+		assertTrue(writerStopped.await(10, TimeUnit.SECONDS), "body writer still blocked on the pipe");
+	}
+
+	@Test
+	void executeAsync_ReturnsBeforeResponse() throws Exception {
+		CountDownLatch respond = new CountDownLatch(1);
+		server.createContext("/held", exchange -> {
+			try {
+				respond.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			exchange.sendResponseHeaders(204, -1);
+			exchange.close();
+		});
+
+		CompletableFuture<TransportResponse> pending = transport.executeAsync(TransportRequest.get(uri("/held")));
+		assertFalse(pending.isDone());
+
+		respond.countDown();
+		try (TransportResponse response = pending.get(10, TimeUnit.SECONDS)) {
+			assertEquals(204, response.getStatusCode());
+		}
+	}
+
+	@Test
+	void execute_AbortedRequestFails() {
+		TransportRequest request = TransportRequest.get(uri("/echo"));
+		request.abort();
+
+		assertThrows(IOException.class, () -> transport.execute(request));
+	}
+
+	@Test
+	void close_StopsClientThreads() throws Exception {
+		try (TransportResponse response = transport.execute(TransportRequest.get(uri("/echo")))) {
+			assertEquals(200, response.getStatusCode());
+		}
+
+		client.close();
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (clientThreadsAlive() && System.nanoTime() < deadline) {
+			Thread.sleep(50);
+		}
+		assertFalse(clientThreadsAlive(), "client threads outlive the closed client");
+	}
+
+	private static boolean clientThreadsAlive() {
+		return Thread.getAllStackTraces().keySet().stream()
+			.anyMatch(thread -> thread.getName().equals("dtrack-http2-client") && thread.isAlive());
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+	}
+
+	private interface BodyWriter {
+		void writeTo(OutputStream output) throws IOException;
+	}
+
+	private static RequestBody body(BodyWriter writer) {
+		return new RequestBody() {
+			@Override
+			public String getContentType() {
+				return "application/octet-stream";
+			}
+
+			@Override
+			public long getContentLength() {
+				return -1;
+			}
+
+			@Override
+			public boolean isRepeatable() {
+				return false;
+			}
+
+			@Override
+			public void writeTo(OutputStream outputStream) throws IOException {
+				writer.writeTo(outputStream);
+			}
+
+			@Override
+			public InputStream getContent() throws IOException {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+}
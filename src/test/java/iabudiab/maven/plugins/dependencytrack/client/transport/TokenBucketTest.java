@@ -0,0 +1,50 @@
+package iabudiab.maven.plugins.dependencytrack.client.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TokenBucketTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void reserve_AllowsBurstThenSpacesRequests() {
+		TokenBucket bucket = new TokenBucket(2, 3, 0);
+
+		assertEquals(0, bucket.reserve(0));
+		assertEquals(0, bucket.reserve(0));
+		assertEquals(0, bucket.reserve(0));
+		assertEquals(500, bucket.reserve(0));
+		assertEquals(1000, bucket.reserve(0));
+	}
+
+	@Test
+	void reserve_RefillsUpToBurst() {
+		TokenBucket bucket = new TokenBucket(2, 2, 0);
+		bucket.reserve(0);
+		bucket.reserve(0);
+
+		// idle for much longer than needed to refill the bucket
+		assertEquals(0, bucket.reserve(10_000));
+		assertEquals(0, bucket.reserve(10_000));
+		assertEquals(500, bucket.reserve(10_000));
+	}
+
+	@Test
+	void fileLimiter_SharesStateBetweenInstances() throws IOException {
+		Path stateFile = tempDir.resolve("rate-limit.state");
+		FileTokenBucketRateLimiter firstProcess = new FileTokenBucketRateLimiter(stateFile, 1, 2);
+		FileTokenBucketRateLimiter secondProcess = new FileTokenBucketRateLimiter(stateFile, 1, 2);
+
+		assertEquals(0, firstProcess.reserve());
+		assertEquals(0, firstProcess.reserve());
+		assertTrue(secondProcess.reserve() > 0);
+	}
+}
@@ -0,0 +1,266 @@
+package iabudiab.maven.plugins.dependencytrack.dtrack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.http.client.HttpResponseException;
+import org.apache.maven.plugin.logging.Log;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import iabudiab.maven.plugins.dependencytrack.client.DTrackClient;
+import iabudiab.maven.plugins.dependencytrack.client.PollingPolicy;
+import iabudiab.maven.plugins.dependencytrack.client.ProcessingTimeHistory;
+import iabudiab.maven.plugins.dependencytrack.client.model.Analysis;
+import iabudiab.maven.plugins.dependencytrack.client.model.Component;
+import iabudiab.maven.plugins.dependencytrack.client.model.Finding;
+import iabudiab.maven.plugins.dependencytrack.client.model.Project;
+import iabudiab.maven.plugins.dependencytrack.client.model.ProjectMetrics;
+import iabudiab.maven.plugins.dependencytrack.client.model.ProjectVersion;
+import iabudiab.maven.plugins.dependencytrack.client.model.Severity;
+import iabudiab.maven.plugins.dependencytrack.client.model.TokenResponse;
+import iabudiab.maven.plugins.dependencytrack.client.model.Vulnerability;
+import iabudiab.maven.plugins.dependencytrack.client.transport.Deadline;
+import iabudiab.maven.plugins.dependencytrack.suppressions.Suppression;
+import iabudiab.maven.plugins.dependencytrack.suppressions.Suppressions;
+
+class DTrackTest {
+
+	private final DTrackClient client = Mockito.mock(DTrackClient.class);
+	private final DTrack dtrack = new DTrack(client, Suppressions.none(), "project", "1.0.0", Mockito.mock(Log.class));
+
+	@Test
+	void findProject_LooksUpOnce() throws Exception {
+		Project project = project();
+		when(client.getProject("project", "1.0.0")).thenReturn(project);
+
+		assertSame(project, dtrack.findProject("project", "1.0.0"));
+		assertSame(project, dtrack.findProject("project", "1.0.0"));
+		assertSame(project, dtrack.findProject(project.getUuid()));
+
+		verify(client, times(1)).getProject("project", "1.0.0");
+		verify(client, never()).getProject(any(UUID.class));
+	}
+
+	@Test
+	void findProject_LooksUpOnceByNameOnly() throws Exception {
+		Project project = project();
+		when(client.getProject("project", "")).thenReturn(project);
+
+		assertSame(project, dtrack.findProject("project", ""));
+		assertSame(project, dtrack.findProject("project", ""));
+		assertSame(project, dtrack.findProject("project", "1.0.0"));
+
+		verify(client, times(1)).getProject("project", "");
+		verify(client, never()).getProject("project", "1.0.0");
+	}
+
+	@Test
+	void findProject_LooksUpMissingProjectAgain() throws Exception {
+		Project project = project();
+		when(client.getProject("project", "1.0.0")).thenReturn(null, project);
+
+		assertNull(dtrack.findProject("project", "1.0.0"));
+		assertSame(project, dtrack.findProject("project", "1.0.0"));
+
+		verify(client, times(2)).getProject("project", "1.0.0");
+	}
+
+	@Test
+	void findProject_ReturnsUpdatedProject() throws Exception {
+		Project project = project();
+		project.setVersions(Collections.singletonList(new ProjectVersion()));
+		when(client.getProject("project", "1.0.0")).thenReturn(project);
+
+		Project patched = project();
+		patched.setUuid(project.getUuid());
+		patched.setIsLatest(false);
+		patched.setVersions(null);
+		when(client.patchProject(eq(project), anyMap())).thenReturn(patched);
+
+		project.setIsLatest(true);
+		dtrack.updateProject(dtrack.findProject("project", "1.0.0")).latest(false).apply();
+
+		Project found = dtrack.findProject("project", "1.0.0");
+		assertSame(patched, found);
+		assertFalse(found.getIsLatest());
+		assertEquals(project.getVersions(), found.getVersions());
+		verify(client, times(1)).getProject("project", "1.0.0");
+	}
+
+	@Test
+	void pollToken_RecordsProcessingTimeSinceUpload(@TempDir Path tempDir) throws Exception {
+		Path bom = Files.write(tempDir.resolve("bom.json"), "{}".getBytes(StandardCharsets.UTF_8));
+		TokenResponse response = new TokenResponse();
+		response.setToken(UUID.randomUUID());
+		ProcessingTimeHistory history = Mockito.mock(ProcessingTimeHistory.class);
+		when(history.predictMillis(any(), anyLong(), any())).thenReturn(-1L);
+		when(client.uploadBomMultipart(any(), eq(bom))).thenReturn(response);
+		when(client.getPollingPolicy()).thenReturn(PollingPolicy.builder().history(history).build());
+		when(client.getDeadline()).thenReturn(Deadline.none());
+		when(client.getDependencyTrackUrl()).thenReturn("http://dtrack");
+		when(client.pollTokenProcessing(eq(response.getToken()), any(), anyLong())).thenReturn(CompletableFuture.completedFuture(false));
+
+		dtrack.uploadBom(bom, BomUploadMode.MULTIPART);
+		// e.g. updating the project before polling
+		Thread.sleep(100);
+		assertFalse(dtrack.pollToken(response.getToken(), 10));
+
+		verify(history).record(eq("http://dtrack"), eq(2L), longThat(processingMillis -> processingMillis >= 100));
+	}
+
+	@Test
+	void loadResults_LoadsFindingsAndMetricsConcurrently() throws Exception {
+		Project project = project();
+		when(client.getProject("project", "1.0.0")).thenReturn(project);
+		// each load waits for the other one to have started
+		CountDownLatch loading = new CountDownLatch(2);
+		when(client.getProjectFindings(project.getUuid())).thenAnswer(invocation -> {
+			loading.countDown();
+			assertTrue(loading.await(5, TimeUnit.SECONDS), "metrics are loaded alongside");
+			return Collections.singletonList(new Finding());
+		});
+		ProjectMetrics metrics = new ProjectMetrics();
+		when(client.getProjectMetrics(project.getUuid())).thenAnswer(invocation -> {
+			loading.countDown();
+			assertTrue(loading.await(5, TimeUnit.SECONDS), "findings are loaded alongside");
+			return metrics;
+		});
+
+		ProjectResults results = dtrack.loadResults();
+
+		assertEquals(1, results.awaitFindings().size());
+		assertSame(metrics, results.awaitMetrics());
+	}
+
+	@Test
+	void checkFindings_ChecksFindingsWhileLoading() throws Exception {
+		Project project = project();
+		when(client.getProject("project", "1.0.0")).thenReturn(project);
+		Finding active = finding(Severity.HIGH, false);
+		Finding suppressed = finding(Severity.HIGH, true);
+		when(client.forEachProjectFinding(eq(project.getUuid()), any())).thenAnswer(invocation -> {
+			Consumer<Finding> consumer = invocation.getArgument(1);
+			consumer.accept(active);
+			consumer.accept(suppressed);
+			return 2;
+		});
+		FindingsThresholdSecurityGate securityGate = FindingsThresholdSecurityGate.strict();
+		securityGate.setHigh(1);
+
+		SecurityGateDecision decision = dtrack.checkFindings(securityGate);
+
+		assertEquals(SecurityGateDecision.Decision.PASS, decision.getDecision());
+		assertEquals(Collections.singletonList(active), decision.getReport().getEffectiveFindings());
+		verify(client, never()).getProjectFindings(any());
+	}
+
+	@Test
+	void applySuppressions_UploadsAnalysesConcurrently() throws Exception {
+		Project project = project();
+		when(client.getProject("project", "1.0.0")).thenReturn(project);
+		List<Finding> findings = Arrays.asList(finding(), finding(), finding(), finding(), finding(), finding());
+		when(client.getProjectFindings(project.getUuid())).thenReturn(findings);
+		Suppression suppression = Mockito.mock(Suppression.class);
+		when(suppression.suppressesFinding(any())).thenReturn(true);
+		List<CompletableFuture<Void>> uploads = new CopyOnWriteArrayList<>();
+		when(client.uploadAnalysisAsync(any())).thenAnswer(invocation -> {
+			CompletableFuture<Void> upload = new CompletableFuture<>();
+			uploads.add(upload);
+			return upload;
+		});
+
+		DTrack suppressing = new DTrack(client, new Suppressions(Collections.singletonList(suppression)), "project", "1.0.0", Mockito.mock(Log.class));
+		CompletableFuture<Void> applying = CompletableFuture.runAsync(() -> suppressing.applySuppressions(false));
+
+		// at most four uploads are in flight, the others start once those have completed
+		verify(client, timeout(5000).times(4)).uploadAnalysisAsync(any());
+		verify(client, after(100).times(4)).uploadAnalysisAsync(any());
+		uploads.forEach(upload -> upload.complete(null));
+		verify(client, timeout(5000).times(6)).uploadAnalysisAsync(any());
+		uploads.forEach(upload -> upload.complete(null));
+		applying.get(5, TimeUnit.SECONDS);
+
+		ArgumentCaptor<Analysis> analyses = ArgumentCaptor.forClass(Analysis.class);
+		verify(client, times(6)).uploadAnalysisAsync(analyses.capture());
+		assertEquals(6, analyses.getAllValues().stream().map(Analysis::getVulnerabilityUuid).distinct().count());
+		verify(client, never()).uploadAnalysis(any());
+	}
+
+	@Test
+	void applySuppressions_FailsWithFirstFailedUpload() throws Exception {
+		Project project = project();
+		when(client.getProject("project", "1.0.0")).thenReturn(project);
+		when(client.getProjectFindings(project.getUuid())).thenReturn(Arrays.asList(finding(), finding()));
+		Suppression suppression = Mockito.mock(Suppression.class);
+		when(suppression.suppressesFinding(any())).thenReturn(true);
+		CompletableFuture<Void> failed = new CompletableFuture<>();
+		failed.completeExceptionally(new CompletionException(new HttpResponseException(403, "Forbidden")));
+		when(client.uploadAnalysisAsync(any())).thenReturn(CompletableFuture.completedFuture(null), failed);
+
+		DTrack suppressing = new DTrack(client, new Suppressions(Collections.singletonList(suppression)), "project", "1.0.0", Mockito.mock(Log.class));
+
+		assertThrows(DTrackException.class, () -> suppressing.applySuppressions(false));
+	}
+
+	private static Finding finding() {
+		Component component = new Component();
+		component.setUuid(UUID.randomUUID());
+		Vulnerability vulnerability = new Vulnerability();
+		vulnerability.setUuid(UUID.randomUUID());
+		Finding finding = new Finding();
+		finding.setComponent(component);
+		finding.setVulnerability(vulnerability);
+		return finding;
+	}
+
+	private static Finding finding(Severity severity, boolean suppressed) {
+		Finding finding = finding();
+		finding.getComponent().setPurl("pkg:maven/group/artifact@1.0.0");
+		finding.getVulnerability().setVulnId("CVE-" + finding.getVulnerability().getUuid());
+		finding.getVulnerability().setSeverity(severity);
+		Analysis analysis = new Analysis();
+		analysis.setSuppressed(suppressed);
+		finding.setAnalysis(analysis);
+		return finding;
+	}
+
+	private static Project project() {
+		Project project = new Project();
+		project.setUuid(UUID.randomUUID());
+		project.setName("project");
+		project.setVersion("1.0.0");
+		return project;
+	}
+}
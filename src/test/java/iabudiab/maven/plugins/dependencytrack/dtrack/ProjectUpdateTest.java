@@ -0,0 +1,99 @@
+package iabudiab.maven.plugins.dependencytrack.dtrack;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.maven.plugin.logging.Log;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import iabudiab.maven.plugins.dependencytrack.client.DTrackClient;
+import iabudiab.maven.plugins.dependencytrack.client.model.CollectionLogic;
+import iabudiab.maven.plugins.dependencytrack.client.model.Project;
+import iabudiab.maven.plugins.dependencytrack.client.model.Tag;
+import iabudiab.maven.plugins.dependencytrack.suppressions.Suppressions;
+
+class ProjectUpdateTest {
+
+	private final DTrackClient client = Mockito.mock(DTrackClient.class);
+	private final DTrack dtrack = new DTrack(client, Suppressions.none(), "project", "1.0.0", Mockito.mock(Log.class));
+	private Project project;
+
+	@BeforeEach
+	void setUp() {
+		project = project("project", "1.0.0");
+		project.setCollectionLogic(CollectionLogic.AGGREGATE_DIRECT_CHILDREN);
+		project.setIsLatest(true);
+	}
+
+	@Test
+	void unchangedSettings_SendNoRequest() throws Exception {
+		Project parent = project("parent", "1.0.0");
+		project.setParent(parent);
+
+		Project updated = dtrack.updateProject(project)
+			.parent(parent)
+			.collectionLogic(CollectionLogic.AGGREGATE_DIRECT_CHILDREN, "")
+			.latest(true)
+			.apply();
+
+		assertSame(project, updated);
+		verifyNoInteractions(client);
+	}
+
+	@Test
+	void changedSettings_ArePatchedAtOnce() throws Exception {
+		when(client.patchProject(eq(project), anyMap())).thenReturn(project);
+
+		dtrack.updateProject(project)
+			.collectionLogic(CollectionLogic.AGGREGATE_DIRECT_CHILDREN_WITH_TAG, "release")
+			.latest(false)
+			.apply();
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<Map<String, Object>> payload = ArgumentCaptor.forClass(Map.class);
+		verify(client).patchProject(eq(project), payload.capture());
+		assertEquals(CollectionLogic.AGGREGATE_DIRECT_CHILDREN_WITH_TAG, payload.getValue().get("collectionLogic"));
+		assertEquals(new Tag("release"), payload.getValue().get("collectionTag"));
+		assertEquals(false, payload.getValue().get("isLatest"));
+		verify(client, never()).postProject(any());
+	}
+
+	@Test
+	void changedParent_IsPostedWithTheOtherSettings() throws Exception {
+		Project parent = project("parent", "1.0.0");
+		when(client.postProject(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		Project updated = dtrack.updateProject(project)
+			.parent(parent)
+			.collectionLogic(CollectionLogic.AGGREGATE_LATEST_VERSION_CHILDREN, null)
+			.latest(true)
+			.apply();
+
+		assertEquals(parent, updated.getParent());
+		assertEquals(CollectionLogic.AGGREGATE_LATEST_VERSION_CHILDREN, updated.getCollectionLogic());
+		assertTrue(updated.getIsLatest());
+		verify(client, never()).patchProject(any(Project.class), anyMap());
+	}
+
+	private static Project project(String name, String version) {
+		Project project = new Project();
+		project.setUuid(UUID.randomUUID());
+		project.setName(name);
+		project.setVersion(version);
+		return project;
+	}
+}